@@ -0,0 +1,98 @@
+package com.example.demo.benchmark;
+
+import com.example.demo.entity.FoodItem;
+import com.example.demo.entity.Restaurant;
+import com.example.demo.entity.User;
+import com.example.demo.enums.UserRole;
+import com.example.demo.repository.FoodItemRepository;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * In-memory entities and stubs shared by the JMH benchmarks. Nothing here
+ * touches Spring or the database.
+ */
+final class BenchmarkFixtures {
+
+    private BenchmarkFixtures() {
+    }
+
+    /**
+     * A persisted-looking food item (id and version set) offering
+     * {@code additionCount} additions named "addition-0".."addition-N".
+     */
+    static FoodItem foodItem(long id, int additionCount) {
+        FoodItem foodItem = new FoodItem();
+        foodItem.setId(id);
+        foodItem.setName("Food " + id);
+        foodItem.setBasePrice(9.99);
+        Map<String, Double> additions = new LinkedHashMap<>();
+        for (int i = 0; i < additionCount; i++) {
+            additions.put(additionName(i), 0.25 + i * 0.1);
+        }
+        foodItem.setAvailableAdditions(additions);
+        setVersion(foodItem, 0L);
+        return foodItem;
+    }
+
+    /**
+     * Selects the first {@code count} additions of {@link #foodItem}.
+     */
+    static List<String> selection(int count) {
+        List<String> selected = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            selected.add(additionName(i));
+        }
+        return List.copyOf(selected);
+    }
+
+    static User customer() {
+        return new User("customer@bench.local", "hash", "Customer", UserRole.CUSTOMER);
+    }
+
+    static Restaurant restaurant() {
+        Restaurant restaurant = new Restaurant();
+        restaurant.setId(1L);
+        restaurant.setName("Restaurant");
+        restaurant.setShippingPrice(2.5);
+        return restaurant;
+    }
+
+    /**
+     * Repository stub answering only {@code findById} from the given items.
+     */
+    static FoodItemRepository repository(Map<Long, FoodItem> items) {
+        return (FoodItemRepository) Proxy.newProxyInstance(
+                FoodItemRepository.class.getClassLoader(),
+                new Class<?>[] { FoodItemRepository.class },
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "findById" -> Optional.ofNullable(items.get((Long) args[0]));
+                    case "toString" -> "FoodItemRepositoryStub";
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+    }
+
+    private static String additionName(int i) {
+        return "addition-" + i;
+    }
+
+    // FoodItem.version is managed by JPA and has no setter; the price plan cache
+    // only kicks in for items with a version, as in production
+    private static void setVersion(FoodItem foodItem, Long version) {
+        try {
+            Field field = FoodItem.class.getDeclaredField("version");
+            field.setAccessible(true);
+            field.set(foodItem, version);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Cannot set FoodItem version", e);
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.demo.benchmark;
+
+import com.example.demo.entity.FoodItem;
+import com.example.demo.entity.OrderItem;
+import com.example.demo.service.OrderServiceImpl;
+import com.example.demo.service.PriceCalculationService;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Creates one order line by food item ID: repository lookup (stubbed, in
+ * memory), addition validation, pricing and OrderItem construction.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class CreateOrderItemBenchmark {
+
+    private static final long FOOD_ITEM_ID = 1L;
+
+    @Param({ "0", "5", "20" })
+    public int additions;
+
+    private OrderServiceImpl orderService;
+    private List<String> selection;
+
+    @Setup
+    public void setUp() {
+        FoodItem foodItem = BenchmarkFixtures.foodItem(FOOD_ITEM_ID, additions);
+        // Order persistence, payment and events are not used by createOrderItem
+        orderService = new OrderServiceImpl(
+                null,
+                BenchmarkFixtures.repository(Map.of(FOOD_ITEM_ID, foodItem)),
+                new PriceCalculationService(1_000, "USD"),
+                null,
+                null);
+        selection = BenchmarkFixtures.selection(additions);
+    }
+
+    @Benchmark
+    public OrderItem createOrderItem() {
+        return orderService.createOrderItem(FOOD_ITEM_ID, 2, selection);
+    }
+}
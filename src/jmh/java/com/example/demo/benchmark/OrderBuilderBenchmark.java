@@ -0,0 +1,51 @@
+package com.example.demo.benchmark;
+
+import com.example.demo.builder.OrderBuilder;
+import com.example.demo.entity.*;
+import com.example.demo.pricing.Money;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.Currency;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Assembles an order of 1-50 priced lines with {@link OrderBuilder}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class OrderBuilderBenchmark {
+
+    @Param({ "1", "5", "20", "50" })
+    public int lines;
+
+    private User customer;
+    private Restaurant restaurant;
+    private Money shipping;
+    private List<OrderItem> items;
+
+    @Setup
+    public void setUp() {
+        Currency usd = Currency.getInstance("USD");
+        customer = BenchmarkFixtures.customer();
+        restaurant = BenchmarkFixtures.restaurant();
+        shipping = Money.ofMajor(restaurant.getShippingPrice(), usd);
+        FoodItem foodItem = BenchmarkFixtures.foodItem(1L, 0);
+        items = new ArrayList<>(lines);
+        for (int i = 0; i < lines; i++) {
+            items.add(new OrderItem(foodItem, 0L, 2, Money.ofMinor(1_998, usd)));
+        }
+    }
+
+    @Benchmark
+    public Order withItemsAndBuild() {
+        return new OrderBuilder()
+                .forCustomer(customer)
+                .fromRestaurant(restaurant)
+                .withItems(items)
+                .withShippingPrice(shipping)
+                .build();
+    }
+}
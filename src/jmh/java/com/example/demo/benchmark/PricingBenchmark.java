@@ -0,0 +1,50 @@
+package com.example.demo.benchmark;
+
+import com.example.demo.entity.FoodItem;
+import com.example.demo.pricing.Money;
+import com.example.demo.service.PriceCalculationService;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Prices one food item with 0-20 selected additions: through the Decorator
+ * chain, through the compiled price plan, and validation alone.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class PricingBenchmark {
+
+    @Param({ "0", "1", "5", "10", "20" })
+    public int additions;
+
+    private PriceCalculationService priceCalculationService;
+    private FoodItem foodItem;
+    private List<String> selection;
+
+    @Setup
+    public void setUp() {
+        priceCalculationService = new PriceCalculationService(1_000, "USD");
+        foodItem = BenchmarkFixtures.foodItem(1L, additions);
+        selection = BenchmarkFixtures.selection(additions);
+        // Compile the plan once so the steady state (cache hit) is measured
+        priceCalculationService.getPricePlan(foodItem);
+    }
+
+    @Benchmark
+    public Double decoratedPrice() {
+        return priceCalculationService.createDecoratedFoodItem(foodItem, selection).getPrice();
+    }
+
+    @Benchmark
+    public Money compiledUnitPrice() {
+        return priceCalculationService.calculateUnitPrice(foodItem, selection);
+    }
+
+    @Benchmark
+    public boolean validateAdditions() {
+        return priceCalculationService.validateAdditions(foodItem, selection);
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.demo.audit;
+
+/**
+ * Pre-allocated ring buffer slot holding one structured audit event.
+ *
+ * Slots are reused: producers copy the event name and up to three key/value
+ * pairs into a free slot, and the writer thread turns the slot into a log line
+ * after the request thread has moved on. No text is formatted on the request
+ * thread.
+ */
+final class AuditEvent {
+
+    static final int MAX_FIELDS = 3;
+
+    // Sequence number of the event stored in this slot; published last
+    volatile long sequence;
+
+    long timestamp;
+    AuditLevel level;
+    String name;
+    int fieldCount;
+    final String[] keys = new String[MAX_FIELDS];
+    final Object[] values = new Object[MAX_FIELDS];
+
+    AuditEvent(long initialSequence) {
+        this.sequence = initialSequence;
+    }
+
+    void clear() {
+        name = null;
+        level = null;
+        for (int i = 0; i < fieldCount; i++) {
+            keys[i] = null;
+            values[i] = null;
+        }
+        fieldCount = 0;
+    }
+
+    /**
+     * Appends the event as a single line: {@code ts level name k1=v1 k2=v2}
+     */
+    void appendTo(StringBuilder out) {
+        out.append(timestamp).append(' ').append(level).append(' ').append(name);
+        for (int i = 0; i < fieldCount; i++) {
+            out.append(' ').append(keys[i]).append('=').append(values[i]);
+        }
+        out.append('\n');
+    }
+}
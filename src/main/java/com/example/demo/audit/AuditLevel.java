@@ -0,0 +1,8 @@
+package com.example.demo.audit;
+
+public enum AuditLevel {
+    DEBUG,
+    INFO,
+    WARN,
+    ERROR
+}
@@ -0,0 +1,296 @@
+package com.example.demo.audit;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Singleton asynchronous audit logger.
+ *
+ * Request threads publish structured events into a bounded, pre-allocated ring
+ * buffer and return immediately; a single background writer drains the buffer
+ * in batches and appends them to a size-rolled file. When the buffer is full the
+ * event is dropped and counted instead of blocking the caller. Events below the
+ * configured level are rejected before anything is copied.
+ *
+ * Configured through system properties: {@code audit.log.file},
+ * {@code audit.log.level}, {@code audit.log.buffer-size},
+ * {@code audit.log.max-file-bytes} and {@code audit.log.max-files}.
+ */
+public class AuditLogger {
+
+    private static final int MAX_BATCH = 512;
+    private static final long IDLE_PARK_NANOS = 2_000_000L;
+
+    // Private static instance - the single instance of this class
+    private static volatile AuditLogger instance;
+
+    // Guards first-time initialization, which opens the log file and starts the
+    // writer. A ReentrantLock rather than synchronized, like the other singletons'
+    // instance locks: a virtual thread waiting on it unmounts instead of pinning
+    // its carrier thread.
+    private static final ReentrantLock INSTANCE_LOCK = new ReentrantLock();
+
+    private final AuditEvent[] ring;
+    private final int mask;
+    private final AtomicLong tail = new AtomicLong();
+    private long head; // only touched by the writer thread
+    private final AtomicLong dropped = new AtomicLong();
+
+    private volatile AuditLevel level;
+    private volatile boolean running = true;
+
+    private final File file;
+    private final long maxFileBytes;
+    private final int maxFiles;
+    private OutputStream out;
+    private long fileBytes;
+
+    private final Thread writer;
+
+    private AuditLogger() {
+        int capacity = Integer.highestOneBit(Math.max(2,
+                Integer.parseInt(System.getProperty("audit.log.buffer-size", "8192"))) * 2 - 1);
+        this.ring = new AuditEvent[capacity];
+        for (int i = 0; i < capacity; i++) {
+            ring[i] = new AuditEvent(i);
+        }
+        this.mask = capacity - 1;
+        this.level = AuditLevel.valueOf(System.getProperty("audit.log.level", "INFO").toUpperCase());
+        this.file = new File(System.getProperty("audit.log.file", "logs/audit.log"));
+        this.maxFileBytes = Long.parseLong(System.getProperty("audit.log.max-file-bytes", "10485760"));
+        this.maxFiles = Integer.parseInt(System.getProperty("audit.log.max-files", "5"));
+
+        this.writer = new Thread(this::drainLoop, "audit-log-writer");
+        this.writer.setDaemon(true);
+        this.writer.start();
+        Runtime.getRuntime().addShutdownHook(new Thread(this::shutdown, "audit-log-shutdown"));
+    }
+
+    /**
+     * Static method to get the single instance of AuditLogger
+     * Uses double-checked locking for thread safety
+     *
+     * @return The single instance of AuditLogger
+     */
+    public static AuditLogger getInstance() {
+        if (instance == null) {
+            INSTANCE_LOCK.lock();
+            try {
+                if (instance == null) {
+                    instance = new AuditLogger();
+                }
+            } finally {
+                INSTANCE_LOCK.unlock();
+            }
+        }
+        return instance;
+    }
+
+    public boolean isEnabled(AuditLevel eventLevel) {
+        return eventLevel.ordinal() >= level.ordinal();
+    }
+
+    public AuditLevel getLevel() {
+        return level;
+    }
+
+    public void setLevel(AuditLevel level) {
+        this.level = level;
+    }
+
+    /**
+     * @return Number of events dropped because the buffer was full
+     */
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+
+    public void debug(String event) {
+        log(AuditLevel.DEBUG, event, 0, null, null, null, null, null, null);
+    }
+
+    public void debug(String event, String k1, Object v1) {
+        log(AuditLevel.DEBUG, event, 1, k1, v1, null, null, null, null);
+    }
+
+    public void debug(String event, String k1, Object v1, String k2, Object v2) {
+        log(AuditLevel.DEBUG, event, 2, k1, v1, k2, v2, null, null);
+    }
+
+    public void info(String event) {
+        log(AuditLevel.INFO, event, 0, null, null, null, null, null, null);
+    }
+
+    public void info(String event, String k1, Object v1) {
+        log(AuditLevel.INFO, event, 1, k1, v1, null, null, null, null);
+    }
+
+    public void info(String event, String k1, Object v1, String k2, Object v2) {
+        log(AuditLevel.INFO, event, 2, k1, v1, k2, v2, null, null);
+    }
+
+    public void info(String event, String k1, Object v1, String k2, Object v2, String k3, Object v3) {
+        log(AuditLevel.INFO, event, 3, k1, v1, k2, v2, k3, v3);
+    }
+
+    public void warn(String event, String k1, Object v1) {
+        log(AuditLevel.WARN, event, 1, k1, v1, null, null, null, null);
+    }
+
+    public void warn(String event, String k1, Object v1, String k2, Object v2) {
+        log(AuditLevel.WARN, event, 2, k1, v1, k2, v2, null, null);
+    }
+
+    public void error(String event, String k1, Object v1) {
+        log(AuditLevel.ERROR, event, 1, k1, v1, null, null, null, null);
+    }
+
+    /**
+     * Publishes an event into the ring buffer without blocking.
+     */
+    private void log(AuditLevel eventLevel, String event, int fieldCount,
+            String k1, Object v1, String k2, Object v2, String k3, Object v3) {
+        if (!isEnabled(eventLevel) || !running) {
+            return;
+        }
+
+        // Claim a slot (bounded MPSC queue: a slot is free when its sequence equals the claim position)
+        AuditEvent slot;
+        long pos;
+        while (true) {
+            pos = tail.get();
+            slot = ring[(int) (pos & mask)];
+            long diff = slot.sequence - pos;
+            if (diff == 0) {
+                if (tail.compareAndSet(pos, pos + 1)) {
+                    break;
+                }
+            } else if (diff < 0) {
+                dropped.incrementAndGet();
+                return;
+            }
+        }
+
+        slot.timestamp = System.currentTimeMillis();
+        slot.level = eventLevel;
+        slot.name = event;
+        slot.fieldCount = fieldCount;
+        slot.keys[0] = k1;
+        slot.values[0] = v1;
+        slot.keys[1] = k2;
+        slot.values[1] = v2;
+        slot.keys[2] = k3;
+        slot.values[2] = v3;
+        slot.sequence = pos + 1; // publish
+    }
+
+    private void drainLoop() {
+        StringBuilder batch = new StringBuilder(16 * 1024);
+        while (running || hasPending()) {
+            int drained = drain(batch);
+            if (drained == 0) {
+                LockSupport.parkNanos(IDLE_PARK_NANOS);
+            }
+        }
+        closeQuietly();
+    }
+
+    private boolean hasPending() {
+        return ring[(int) (head & mask)].sequence == head + 1;
+    }
+
+    private int drain(StringBuilder batch) {
+        int count = 0;
+        while (count < MAX_BATCH) {
+            AuditEvent slot = ring[(int) (head & mask)];
+            if (slot.sequence != head + 1) {
+                break;
+            }
+            slot.appendTo(batch);
+            slot.clear();
+            slot.sequence = head + ring.length; // hand the slot back to producers
+            head++;
+            count++;
+        }
+        if (count > 0) {
+            write(batch);
+            batch.setLength(0);
+        }
+        return count;
+    }
+
+    private void write(StringBuilder batch) {
+        byte[] bytes = batch.toString().getBytes(StandardCharsets.UTF_8);
+        try {
+            if (out == null) {
+                open();
+            }
+            if (fileBytes + bytes.length > maxFileBytes && fileBytes > 0) {
+                roll();
+            }
+            out.write(bytes);
+            out.flush();
+            fileBytes += bytes.length;
+        } catch (IOException e) {
+            // Never let logging failures reach request threads; keep the count visible instead
+            dropped.addAndGet(1);
+            closeQuietly();
+        }
+    }
+
+    private void open() throws IOException {
+        File parent = file.getAbsoluteFile().getParentFile();
+        if (parent != null && !parent.exists()) {
+            parent.mkdirs();
+        }
+        out = new BufferedOutputStream(new FileOutputStream(file, true), 64 * 1024);
+        fileBytes = file.length();
+    }
+
+    private void roll() throws IOException {
+        closeQuietly();
+        for (int i = maxFiles - 1; i >= 1; i--) {
+            File src = new File(file.getPath() + "." + i);
+            if (src.exists()) {
+                File dst = new File(file.getPath() + "." + (i + 1));
+                dst.delete();
+                src.renameTo(dst);
+            }
+        }
+        File first = new File(file.getPath() + ".1");
+        first.delete();
+        file.renameTo(first);
+        open();
+    }
+
+    private void closeQuietly() {
+        if (out != null) {
+            try {
+                out.close();
+            } catch (IOException ignored) {
+                // nothing left to do
+            }
+            out = null;
+        }
+    }
+
+    /**
+     * Stops accepting events and waits briefly for the writer to flush what is
+     * already buffered.
+     */
+    public void shutdown() {
+        running = false;
+        try {
+            writer.join(2000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -3,9 +3,11 @@ package com.example.demo.builder;
 import com.example.demo.dto.PaymentInfo;
 import com.example.demo.entity.*;
 import com.example.demo.enums.OrderStatus;
+import com.example.demo.pricing.Money;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Currency;
 import java.util.List;
 
 /**
@@ -18,8 +20,10 @@ public class OrderBuilder {
     private User deliveryStaff;
     private Address deliveryAddress;
     private OrderStatus status = OrderStatus.PLACED;
-    private Double shippingPrice = 0.0;
-    private Double totalPrice = 0.0;
+    // Running totals in minor units; the currency is taken from the first priced amount
+    private Currency currency;
+    private long shippingPrice;
+    private long itemsTotal;
     private List<OrderItem> items = new ArrayList<>();
     private PaymentInfo paymentInfo;
     private String notes;
@@ -51,9 +55,9 @@ public class OrderBuilder {
 
     public OrderBuilder addItem(OrderItem item) {
         this.items.add(item);
-        if (item.getCalculatedPrice() != null) {
+        if (item.getCalculated() != null) {
             // calculatedPrice already includes quantity multiplication
-            this.totalPrice += item.getCalculatedPrice();
+            this.itemsTotal = Math.addExact(this.itemsTotal, minorUnitsOf(item.getCalculated()));
         }
         return this;
     }
@@ -62,19 +66,32 @@ public class OrderBuilder {
         if (items != null) {
             this.items = new ArrayList<>(items);
             // Calculate total price from all items
-            this.totalPrice = items.stream()
-                    .filter(item -> item.getCalculatedPrice() != null)
-                    .mapToDouble(OrderItem::getCalculatedPrice)
-                    .sum();
+            long total = 0L;
+            for (OrderItem item : items) {
+                if (item.getCalculated() != null) {
+                    total = Math.addExact(total, minorUnitsOf(item.getCalculated()));
+                }
+            }
+            this.itemsTotal = total;
         }
         return this;
     }
 
-    public OrderBuilder withShippingPrice(Double shippingPrice) {
-        this.shippingPrice = shippingPrice != null ? shippingPrice : 0.0;
+    public OrderBuilder withShippingPrice(Money shippingPrice) {
+        this.shippingPrice = shippingPrice != null ? minorUnitsOf(shippingPrice) : 0L;
         return this;
     }
 
+    private long minorUnitsOf(Money amount) {
+        if (currency == null) {
+            currency = amount.getCurrency();
+        } else if (!currency.equals(amount.getCurrency())) {
+            throw new IllegalStateException(
+                    "Order amounts must share one currency: " + currency + " vs " + amount.getCurrency());
+        }
+        return amount.getMinorUnits();
+    }
+
     public OrderBuilder withPaymentInfo(PaymentInfo paymentInfo) {
         this.paymentInfo = paymentInfo;
         return this;
@@ -94,8 +111,11 @@ public class OrderBuilder {
         if (items.isEmpty())
             throw new IllegalStateException("Order must contain items");
 
+        if (currency == null)
+            throw new IllegalStateException("Order must contain priced items");
+
         // Calculate total: items total + shipping price
-        this.totalPrice = this.totalPrice + this.shippingPrice;
+        long totalPrice = Math.addExact(this.itemsTotal, this.shippingPrice);
 
         // Create Order using package-private constructor
         Order order = new Order();
@@ -104,8 +124,8 @@ public class OrderBuilder {
         order.setDeliveryStaff(deliveryStaff);
         order.setDeliveryAddress(deliveryAddress);
         order.setStatus(status);
-        order.setShippingPrice(shippingPrice);
-        order.setTotalPrice(totalPrice);
+        order.setShipping(Money.ofMinor(shippingPrice, currency));
+        order.setTotal(Money.ofMinor(totalPrice, currency));
         order.setItems(items);
         order.setCreatedAt(LocalDateTime.now());
 
@@ -0,0 +1,14 @@
+package com.example.demo.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableAsync;
+
+/**
+ * Enables @Async methods. They run on Spring Boot's applicationTaskExecutor,
+ * which switches to virtual threads together with the web tier when
+ * spring.threads.virtual.enabled=true.
+ */
+@Configuration
+@EnableAsync
+public class AsyncConfig {
+}
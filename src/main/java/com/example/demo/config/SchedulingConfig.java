@@ -0,0 +1,12 @@
+package com.example.demo.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Enables @Scheduled maintenance jobs (cache and table cleanup).
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
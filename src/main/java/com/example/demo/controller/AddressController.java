@@ -0,0 +1,46 @@
+package com.example.demo.controller;
+
+import com.example.demo.dto.LocationRequest;
+import com.example.demo.geo.NearbyRestaurantService;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/addresses")
+public class AddressController {
+
+    private final NearbyRestaurantService nearbyRestaurantService;
+
+    @Autowired
+    public AddressController(NearbyRestaurantService nearbyRestaurantService) {
+        this.nearbyRestaurantService = nearbyRestaurantService;
+    }
+
+    /**
+     * Stores the geocoded location of a delivery address, used to find
+     * restaurants near it.
+     */
+    @PutMapping("/{addressId}/location")
+    public ResponseEntity<?> updateLocation(
+            @PathVariable Long addressId,
+            @Valid @RequestBody LocationRequest request) {
+        try {
+            nearbyRestaurantService.updateAddressLocation(addressId, request.getLatitude(), request.getLongitude());
+            return ResponseEntity.noContent().build();
+        } catch (IllegalArgumentException e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", e.getMessage());
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(error);
+        } catch (Exception e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", "Failed to update address location: " + e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(error);
+        }
+    }
+}
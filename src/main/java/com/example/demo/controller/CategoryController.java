@@ -1,6 +1,7 @@
 package com.example.demo.controller;
 
 import com.example.demo.dto.CategoryRequest;
+import com.example.demo.dto.CategoryTreeNode;
 import com.example.demo.entity.Category;
 import com.example.demo.service.CategoryService;
 import jakarta.validation.Valid;
@@ -59,7 +60,7 @@ public class CategoryController {
     @GetMapping("/restaurant/{restaurantId}")
     public ResponseEntity<?> getCategoriesByRestaurant(@PathVariable Long restaurantId) {
         try {
-            List<Category> categories = categoryService.getCategoriesByRestaurant(restaurantId);
+            List<CategoryTreeNode> categories = categoryService.getCategoryTree(restaurantId);
             return ResponseEntity.ok(categories);
         } catch (Exception e) {
             Map<String, String> error = new HashMap<>();
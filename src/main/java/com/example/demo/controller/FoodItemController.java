@@ -1,15 +1,24 @@
 package com.example.demo.controller;
 
+import com.example.demo.dto.CreateOrderRequest;
 import com.example.demo.dto.FoodItemRequest;
+import com.example.demo.dto.FoodItemSummary;
+import com.example.demo.dto.PriceQuoteRequest;
 import com.example.demo.entity.FoodItem;
+import com.example.demo.pagination.CursorPage;
+import com.example.demo.pricing.Money;
+import com.example.demo.pricing.PriceQuote;
 import com.example.demo.service.FoodItemService;
+import com.example.demo.service.PriceQuoteService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -18,10 +27,12 @@ import java.util.Map;
 public class FoodItemController {
 
     private final FoodItemService foodItemService;
+    private final PriceQuoteService priceQuoteService;
 
     @Autowired
-    public FoodItemController(FoodItemService foodItemService) {
+    public FoodItemController(FoodItemService foodItemService, PriceQuoteService priceQuoteService) {
         this.foodItemService = foodItemService;
+        this.priceQuoteService = priceQuoteService;
     }
 
     @PostMapping
@@ -44,10 +55,56 @@ public class FoodItemController {
         }
     }
 
+    /**
+     * Prices a whole cart (cart preview) without placing an order.
+     */
+    @PostMapping("/quote")
+    public ResponseEntity<?> quote(@Valid @RequestBody PriceQuoteRequest request) {
+        try {
+            List<CreateOrderRequest.OrderItemRequest> items = request.getItems();
+            List<PriceQuote> quotes = priceQuoteService.quoteAll(items);
+
+            List<Map<String, Object>> lines = new ArrayList<>(quotes.size());
+            Money subtotal = null;
+            for (int i = 0; i < quotes.size(); i++) {
+                PriceQuote quote = quotes.get(i);
+                int quantity = items.get(i).getQuantity();
+                Money lineTotal = quote.getUnitPrice().times(quantity);
+                subtotal = subtotal == null ? lineTotal : subtotal.plus(lineTotal);
+
+                Map<String, Object> line = new LinkedHashMap<>();
+                line.put("foodItemId", quote.getFoodItemId());
+                line.put("version", quote.getVersion());
+                line.put("quantity", quantity);
+                line.put("selectedAdditions", quote.getAdditions());
+                line.put("unitPrice", quote.getUnitPrice().toBigDecimal());
+                line.put("lineTotal", lineTotal.toBigDecimal());
+                lines.add(line);
+            }
+
+            Map<String, Object> response = new LinkedHashMap<>();
+            response.put("items", lines);
+            response.put("subtotal", subtotal.toBigDecimal());
+            response.put("currency", subtotal.getCurrency().getCurrencyCode());
+            return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", e.getMessage());
+            HttpStatus status = e.getMessage().contains("not found")
+                    ? HttpStatus.NOT_FOUND
+                    : HttpStatus.BAD_REQUEST;
+            return ResponseEntity.status(status).body(error);
+        } catch (Exception e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", "Failed to quote items: " + e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(error);
+        }
+    }
+
     @GetMapping("/{foodItemId}")
     public ResponseEntity<?> getFoodItem(@PathVariable Long foodItemId) {
         try {
-            FoodItem foodItem = foodItemService.getFoodItemById(foodItemId);
+            FoodItemSummary foodItem = foodItemService.getFoodItemById(foodItemId);
             return ResponseEntity.ok(foodItem);
         } catch (IllegalArgumentException e) {
             Map<String, String> error = new HashMap<>();
@@ -63,7 +120,7 @@ public class FoodItemController {
     @GetMapping("/category/{categoryId}")
     public ResponseEntity<?> getFoodItemsByCategory(@PathVariable Long categoryId) {
         try {
-            List<FoodItem> foodItems = foodItemService.getFoodItemsByCategory(categoryId);
+            List<FoodItemSummary> foodItems = foodItemService.getFoodItemsByCategory(categoryId);
             return ResponseEntity.ok(foodItems);
         } catch (Exception e) {
             Map<String, String> error = new HashMap<>();
@@ -73,10 +130,17 @@ public class FoodItemController {
     }
 
     @GetMapping("/restaurant/{restaurantId}")
-    public ResponseEntity<?> getFoodItemsByRestaurant(@PathVariable Long restaurantId) {
+    public ResponseEntity<?> getFoodItemsByRestaurant(
+            @PathVariable Long restaurantId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
         try {
-            List<FoodItem> foodItems = foodItemService.getFoodItemsByRestaurant(restaurantId);
-            return ResponseEntity.ok(foodItems);
+            CursorPage<FoodItemSummary> page = foodItemService.getFoodItemsByRestaurant(restaurantId, cursor, limit);
+            return ResponseEntity.ok(page);
+        } catch (IllegalArgumentException e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
         } catch (Exception e) {
             Map<String, String> error = new HashMap<>();
             error.put("error", "Failed to get food items: " + e.getMessage());
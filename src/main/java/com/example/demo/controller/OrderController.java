@@ -1,17 +1,37 @@
 package com.example.demo.controller;
 
+import com.example.demo.dto.BulkOrderStatusUpdateRequest;
 import com.example.demo.dto.CreateOrderRequest;
+import com.example.demo.dto.FeedbackRequest;
+import com.example.demo.dto.OrderStatusChange;
+import com.example.demo.dto.OrderSummary;
+import com.example.demo.dto.OrderStatusUpdateRequest;
 import com.example.demo.entity.*;
+import com.example.demo.enums.OrderStatus;
+import com.example.demo.pagination.CursorPage;
+import com.example.demo.pipeline.OrderPipeline;
+import com.example.demo.pipeline.OrderSubmission;
+import com.example.demo.rating.RestaurantRatingService;
 import com.example.demo.repository.*;
+import com.example.demo.service.IdempotencyService;
+import com.example.demo.service.OrderHistoryService;
+import com.example.demo.service.OrderLifecycleService;
 import com.example.demo.service.OrderService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.net.URI;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.RejectedExecutionException;
 
 @RestController
 @RequestMapping("/api/orders")
@@ -21,20 +41,242 @@ public class OrderController {
     private final UserRepository userRepository;
     private final RestaurantRepository restaurantRepository;
     private final AddressRepository addressRepository;
+    private final IdempotencyService idempotencyService;
+    private final OrderPipeline orderPipeline;
+    private final OrderLifecycleService orderLifecycleService;
+    private final OrderHistoryService orderHistoryService;
+    private final RestaurantRatingService restaurantRatingService;
+    private final boolean asyncByDefault;
 
     @Autowired
     public OrderController(OrderService orderService,
                           UserRepository userRepository,
                           RestaurantRepository restaurantRepository,
-                          AddressRepository addressRepository) {
+                          AddressRepository addressRepository,
+                          IdempotencyService idempotencyService,
+                          OrderPipeline orderPipeline,
+                          OrderLifecycleService orderLifecycleService,
+                          OrderHistoryService orderHistoryService,
+                          RestaurantRatingService restaurantRatingService,
+                          @Value("${order.pipeline.async-by-default:false}") boolean asyncByDefault) {
         this.orderService = orderService;
         this.userRepository = userRepository;
         this.restaurantRepository = restaurantRepository;
         this.addressRepository = addressRepository;
+        this.idempotencyService = idempotencyService;
+        this.orderPipeline = orderPipeline;
+        this.orderLifecycleService = orderLifecycleService;
+        this.orderHistoryService = orderHistoryService;
+        this.restaurantRatingService = restaurantRatingService;
+        this.asyncByDefault = asyncByDefault;
     }
 
     @PostMapping
-    public ResponseEntity<?> createOrder(@Valid @RequestBody CreateOrderRequest request) {
+    public ResponseEntity<?> createOrder(
+            @Valid @RequestBody CreateOrderRequest request,
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
+            @RequestHeader(value = "Prefer", required = false) String prefer) {
+        // Clients opt into the queued pipeline with "Prefer: respond-async" (or it is on for everyone)
+        boolean async = asyncByDefault || (prefer != null && prefer.contains("respond-async"));
+
+        if (idempotencyKey == null || idempotencyKey.isBlank()) {
+            return placeOrder(request, async);
+        }
+        // Client retries with the same key get the first response instead of a second order/payment
+        return idempotencyService.execute(idempotencyKey, request, () -> placeOrder(request, async));
+    }
+
+    @GetMapping("/submissions/{reference}")
+    public ResponseEntity<?> getSubmission(@PathVariable String reference) {
+        return orderPipeline.getSubmission(reference)
+                .<ResponseEntity<?>>map(submission -> ResponseEntity.ok(toSubmissionBody(submission)))
+                .orElseGet(() -> {
+                    Map<String, String> error = new HashMap<>();
+                    error.put("error", "Order submission not found");
+                    return ResponseEntity.status(HttpStatus.NOT_FOUND).body(error);
+                });
+    }
+
+    /**
+     * Admin listing of orders in the given statuses, oldest first, one keyset page at a time.
+     */
+    @GetMapping
+    public ResponseEntity<?> getOrdersByStatus(
+            @RequestParam("status") List<OrderStatus> statuses,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        try {
+            CursorPage<OrderSummary> page = orderHistoryService.getOrdersByStatus(statuses, cursor, limit);
+            return ResponseEntity.ok(page);
+        } catch (IllegalArgumentException e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
+        } catch (Exception e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", "Failed to get orders: " + e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(error);
+        }
+    }
+
+    /**
+     * A customer's order history, newest first, one keyset page at a time.
+     */
+    @GetMapping("/customer/{customerId}")
+    public ResponseEntity<?> getCustomerOrders(
+            @PathVariable Long customerId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        try {
+            CursorPage<OrderSummary> page = orderHistoryService.getCustomerOrders(customerId, cursor, limit);
+            return ResponseEntity.ok(page);
+        } catch (IllegalArgumentException e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
+        } catch (Exception e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", "Failed to get orders: " + e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(error);
+        }
+    }
+
+    /**
+     * A restaurant's orders in one status (PLACED by default), oldest first.
+     */
+    @GetMapping("/restaurant/{restaurantId}")
+    public ResponseEntity<?> getRestaurantOrders(
+            @PathVariable Long restaurantId,
+            @RequestParam(defaultValue = "PLACED") OrderStatus status,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        try {
+            CursorPage<OrderSummary> page = orderHistoryService.getRestaurantOrders(restaurantId, status, cursor, limit);
+            return ResponseEntity.ok(page);
+        } catch (IllegalArgumentException e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
+        } catch (Exception e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", "Failed to get orders: " + e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(error);
+        }
+    }
+
+    /**
+     * A driver's orders in one status (OUT_FOR_DELIVERY by default), oldest first.
+     */
+    @GetMapping("/delivery/{deliveryStaffId}")
+    public ResponseEntity<?> getDeliveryOrders(
+            @PathVariable Long deliveryStaffId,
+            @RequestParam(defaultValue = "OUT_FOR_DELIVERY") OrderStatus status,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        try {
+            CursorPage<OrderSummary> page = orderHistoryService.getDeliveryOrders(deliveryStaffId, status, cursor,
+                    limit);
+            return ResponseEntity.ok(page);
+        } catch (IllegalArgumentException e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
+        } catch (Exception e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", "Failed to get orders: " + e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(error);
+        }
+    }
+
+    @PatchMapping("/{orderId}/status")
+    public ResponseEntity<?> updateStatus(
+            @PathVariable Long orderId,
+            @Valid @RequestBody OrderStatusUpdateRequest request) {
+        try {
+            OrderStatusChange change = orderLifecycleService.transition(
+                    orderId,
+                    request.getFromStatus(),
+                    request.getToStatus(),
+                    request.getVersion());
+            return ResponseEntity.ok(change);
+        } catch (IllegalArgumentException e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
+        } catch (IllegalStateException e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", e.getMessage());
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(error);
+        } catch (Exception e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", "Failed to update order status: " + e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(error);
+        }
+    }
+
+    @PostMapping("/{orderId}/feedback")
+    public ResponseEntity<?> submitFeedback(
+            @PathVariable Long orderId,
+            @Valid @RequestBody FeedbackRequest request) {
+        try {
+            Long restaurantId = restaurantRatingService.submitFeedback(
+                    orderId,
+                    request.getStars(),
+                    request.getComment());
+
+            Map<String, Object> response = new HashMap<>();
+            response.put("orderId", orderId);
+            response.put("restaurantId", restaurantId);
+            response.put("stars", request.getStars());
+            return ResponseEntity.status(HttpStatus.CREATED).body(response);
+        } catch (IllegalArgumentException e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
+        } catch (IllegalStateException e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", e.getMessage());
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(error);
+        } catch (Exception e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", "Failed to submit feedback: " + e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(error);
+        }
+    }
+
+    @PatchMapping("/status")
+    public ResponseEntity<?> updateStatuses(@Valid @RequestBody BulkOrderStatusUpdateRequest request) {
+        try {
+            List<OrderStatusChange> updated = orderLifecycleService.transitionAll(
+                    request.getRestaurantId(),
+                    request.getOrderIds(),
+                    request.getFromStatus(),
+                    request.getToStatus());
+
+            // Orders not returned by the UPDATE were in another state or belong to another restaurant
+            Set<Long> skipped = new LinkedHashSet<>(request.getOrderIds());
+            Set<Long> updatedIds = new HashSet<>();
+            for (OrderStatusChange change : updated) {
+                updatedIds.add(change.getOrderId());
+            }
+            skipped.removeAll(updatedIds);
+
+            Map<String, Object> response = new HashMap<>();
+            response.put("updated", updated);
+            response.put("skipped", skipped);
+            return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
+        } catch (Exception e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", "Failed to update order statuses: " + e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(error);
+        }
+    }
+
+    private ResponseEntity<?> placeOrder(CreateOrderRequest request, boolean async) {
         try {
             // Get customer (assuming current user - you might want to get from JWT token)
             // For now, using a default customer ID. In production, get from authenticated user
@@ -49,6 +291,20 @@ public class OrderController {
             Address address = addressRepository.findById(request.getAddressId())
                     .orElseThrow(() -> new IllegalArgumentException("Address not found"));
 
+            if (async) {
+                // Accept now; pricing, payment and persistence happen on the pipeline workers
+                OrderSubmission submission = orderPipeline.submit(
+                        customer,
+                        restaurant,
+                        address,
+                        request.getItems(),
+                        request.getPaymentInfo(),
+                        request.getNotes());
+                return ResponseEntity.accepted()
+                        .location(URI.create("/api/orders/submissions/" + submission.getReference()))
+                        .body(toSubmissionBody(submission));
+            }
+
             // Create order using decorator pattern and builder pattern
             Order order = orderService.createOrder(
                     customer, 
@@ -63,11 +319,30 @@ public class OrderController {
             Map<String, String> error = new HashMap<>();
             error.put("error", e.getMessage());
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
+        } catch (RejectedExecutionException e) {
+            // Pipeline queue is full
+            Map<String, String> error = new HashMap<>();
+            error.put("error", e.getMessage());
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header("Retry-After", "5")
+                    .body(error);
         } catch (Exception e) {
             Map<String, String> error = new HashMap<>();
             error.put("error", "Failed to create order: " + e.getMessage());
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(error);
         }
     }
+
+    private Map<String, Object> toSubmissionBody(OrderSubmission submission) {
+        Map<String, Object> body = new HashMap<>();
+        body.put("reference", submission.getReference());
+        body.put("status", submission.getStatus());
+        body.put("orderId", submission.getOrderId());
+        body.put("totalPrice", submission.getTotalPrice());
+        body.put("error", submission.getError());
+        body.put("submittedAt", submission.getSubmittedAt());
+        body.put("updatedAt", submission.getUpdatedAt());
+        return body;
+    }
 }
 
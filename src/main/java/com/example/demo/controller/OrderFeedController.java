@@ -0,0 +1,42 @@
+package com.example.demo.controller;
+
+import com.example.demo.feed.OrderEventFeed;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * Push channel for restaurant and delivery dashboards. Clients receive order
+ * deltas instead of polling the dashboard endpoints; on reconnect the browser
+ * sends Last-Event-ID automatically (or pass ?resumeToken=...).
+ */
+@RestController
+@RequestMapping("/api/feed")
+public class OrderFeedController {
+
+    private final OrderEventFeed orderEventFeed;
+
+    @Autowired
+    public OrderFeedController(OrderEventFeed orderEventFeed) {
+        this.orderEventFeed = orderEventFeed;
+    }
+
+    @GetMapping(value = "/restaurants/{restaurantId}/orders", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter restaurantOrders(
+            @PathVariable Long restaurantId,
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId,
+            @RequestParam(required = false) String resumeToken) {
+        return orderEventFeed.subscribe(OrderEventFeed.restaurantChannel(restaurantId),
+                lastEventId != null ? lastEventId : resumeToken);
+    }
+
+    @GetMapping(value = "/delivery/{deliveryStaffId}/orders", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter deliveryOrders(
+            @PathVariable Long deliveryStaffId,
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId,
+            @RequestParam(required = false) String resumeToken) {
+        return orderEventFeed.subscribe(OrderEventFeed.deliveryChannel(deliveryStaffId),
+                lastEventId != null ? lastEventId : resumeToken);
+    }
+}
@@ -1,56 +1,165 @@
 package com.example.demo.controller;
 
-import com.example.demo.dto.DashboardData;
-import com.example.demo.entity.Restaurant;
-import com.example.demo.entity.Category;
-import com.example.demo.repository.RestaurantRepository;
-import com.example.demo.repository.CategoryRepository;
+import com.example.demo.dto.LocationRequest;
+import com.example.demo.dto.MenuDelta;
+import com.example.demo.dto.MenuImportRequest;
+import com.example.demo.dto.RestaurantSummary;
+import com.example.demo.geo.NearbyRestaurant;
+import com.example.demo.geo.NearbyRestaurantService;
+import com.example.demo.menu.MenuChangeLog;
+import com.example.demo.menu.MenuExportService;
+import com.example.demo.menu.MenuImportJob;
+import com.example.demo.menu.MenuImportService;
+import com.example.demo.menu.MenuSnapshot;
+import com.example.demo.menu.MenuSnapshotService;
+import com.example.demo.pagination.CursorPage;
+import com.example.demo.rating.RatedRestaurant;
+import com.example.demo.rating.RestaurantRatingService;
+import com.example.demo.service.RestaurantDirectoryService;
+import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.net.URI;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
 
 @RestController
 @RequestMapping("/api/restaurants")
 public class RestaurantController {
 
-    private final RestaurantRepository restaurantRepository;
-    private final CategoryRepository categoryRepository;
+    private final MenuSnapshotService menuSnapshotService;
+    private final RestaurantDirectoryService restaurantDirectoryService;
+    private final MenuExportService menuExportService;
+    private final MenuImportService menuImportService;
+    private final MenuChangeLog menuChangeLog;
+    private final NearbyRestaurantService nearbyRestaurantService;
+    private final RestaurantRatingService restaurantRatingService;
 
     @Autowired
-    public RestaurantController(RestaurantRepository restaurantRepository, CategoryRepository categoryRepository) {
-        this.restaurantRepository = restaurantRepository;
-        this.categoryRepository = categoryRepository;
+    public RestaurantController(MenuSnapshotService menuSnapshotService,
+            RestaurantDirectoryService restaurantDirectoryService, MenuExportService menuExportService,
+            MenuImportService menuImportService, MenuChangeLog menuChangeLog,
+            NearbyRestaurantService nearbyRestaurantService, RestaurantRatingService restaurantRatingService) {
+        this.menuSnapshotService = menuSnapshotService;
+        this.restaurantDirectoryService = restaurantDirectoryService;
+        this.menuExportService = menuExportService;
+        this.menuImportService = menuImportService;
+        this.menuChangeLog = menuChangeLog;
+        this.nearbyRestaurantService = nearbyRestaurantService;
+        this.restaurantRatingService = restaurantRatingService;
     }
 
-    @GetMapping("/{restaurantId}/menu")
-    public ResponseEntity<?> getRestaurantMenu(@PathVariable Long restaurantId) {
+    @GetMapping
+    public ResponseEntity<?> getRestaurants(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
         try {
-            // First fetch restaurant with categories (without food items to avoid
-            // MultipleBagFetchException)
-            Restaurant restaurant = restaurantRepository.findByIdWithCategories(restaurantId)
-                    .orElseThrow(() -> new IllegalArgumentException("Restaurant not found"));
+            CursorPage<RestaurantSummary> page = restaurantDirectoryService.getRestaurants(cursor, limit);
+            return ResponseEntity.ok(page);
+        } catch (IllegalArgumentException e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
+        } catch (Exception e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", "Failed to get restaurants: " + e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(error);
+        }
+    }
 
-            // Then fetch categories with their food items separately
-            List<Category> categoriesWithFoodItems = categoryRepository.findByRestaurantIdWithFoodItems(restaurantId);
+    /**
+     * Restaurants closest to a saved address (addressId) or to a point
+     * (lat and lon), nearest first.
+     */
+    @GetMapping("/nearby")
+    public ResponseEntity<?> getNearbyRestaurants(
+            @RequestParam(required = false) Long addressId,
+            @RequestParam(required = false) Double lat,
+            @RequestParam(required = false) Double lon,
+            @RequestParam(required = false) Integer limit) {
+        try {
+            List<NearbyRestaurant> restaurants = addressId != null
+                    ? nearbyRestaurantService.findNearbyAddress(addressId, limit)
+                    : nearbyRestaurantService.findNearby(lat, lon, limit);
+            return ResponseEntity.ok(restaurants);
+        } catch (IllegalArgumentException e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
+        } catch (Exception e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", "Failed to get nearby restaurants: " + e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(error);
+        }
+    }
 
-            // Replace the categories in restaurant with the ones that have food items
-            // loaded
-            restaurant.setCategories(categoriesWithFoodItems);
+    /**
+     * Best rated restaurants, optionally only those rated at least minRating.
+     */
+    @GetMapping("/top-rated")
+    public ResponseEntity<?> getTopRated(
+            @RequestParam(required = false) Double minRating,
+            @RequestParam(required = false) Integer limit) {
+        try {
+            List<RatedRestaurant> restaurants = restaurantRatingService.getTopRated(minRating, limit);
+            return ResponseEntity.ok(restaurants);
+        } catch (IllegalArgumentException e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
+        } catch (Exception e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", "Failed to get top rated restaurants: " + e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(error);
+        }
+    }
 
-            Map<String, Object> menuData = new HashMap<>();
-            menuData.put("restaurantId", restaurant.getId());
-            menuData.put("restaurantName", restaurant.getName());
-            menuData.put("description", restaurant.getDescription());
-            menuData.put("avgRating", restaurant.getAvgRating());
-            menuData.put("deliveryTimeEst", restaurant.getDeliveryTimeEst());
-            menuData.put("categories", restaurant.getCategories());
+    @PutMapping("/{restaurantId}/location")
+    public ResponseEntity<?> updateLocation(
+            @PathVariable Long restaurantId,
+            @Valid @RequestBody LocationRequest request) {
+        try {
+            restaurantDirectoryService.updateLocation(restaurantId, request.getLatitude(), request.getLongitude());
+            return ResponseEntity.noContent().build();
+        } catch (IllegalArgumentException e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", e.getMessage());
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(error);
+        } catch (Exception e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", "Failed to update restaurant location: " + e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(error);
+        }
+    }
 
-            return ResponseEntity.ok(new DashboardData(menuData));
+    /**
+     * Serves the pre-serialized menu snapshot with a strong ETag. A request whose
+     * If-None-Match matches gets 304 Not Modified without a body.
+     */
+    @GetMapping("/{restaurantId}/menu")
+    public ResponseEntity<?> getRestaurantMenu(@PathVariable Long restaurantId, WebRequest webRequest) {
+        try {
+            MenuSnapshot snapshot = menuSnapshotService.getSnapshot(restaurantId);
+            if (webRequest.checkNotModified(snapshot.getETag())) {
+                // 304 with ETag header already set
+                return null;
+            }
+            return ResponseEntity.ok()
+                    .eTag(snapshot.getETag())
+                    .cacheControl(CacheControl.noCache())
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(snapshot.getBody());
         } catch (IllegalArgumentException e) {
             Map<String, String> error = new HashMap<>();
             error.put("error", e.getMessage());
@@ -61,4 +170,112 @@ public class RestaurantController {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(error);
         }
     }
+
+    /**
+     * What changed in the menu since the menuVersion of a previously fetched
+     * menu. If fullResync is set the client must fetch the whole menu again.
+     */
+    @GetMapping("/{restaurantId}/menu/changes")
+    public ResponseEntity<?> getMenuChanges(
+            @PathVariable Long restaurantId,
+            @RequestParam(defaultValue = "0") long since) {
+        try {
+            MenuDelta delta = menuChangeLog.getChanges(restaurantId, since);
+            return ResponseEntity.ok()
+                    .cacheControl(CacheControl.noCache())
+                    .body(delta);
+        } catch (IllegalArgumentException e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", e.getMessage());
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(error);
+        } catch (Exception e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", "Failed to get menu changes: " + e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(error);
+        }
+    }
+
+    /**
+     * Full menu, one food item per line, written as it is read from the
+     * database. format=jsonl (default) or format=csv.
+     */
+    @GetMapping("/{restaurantId}/menu/export")
+    public ResponseEntity<?> exportMenu(
+            @PathVariable Long restaurantId,
+            @RequestParam(required = false) String format) {
+        MenuExportService.Format exportFormat;
+        try {
+            exportFormat = MenuExportService.Format.fromParameter(format);
+        } catch (IllegalArgumentException e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
+        }
+        try {
+            menuExportService.requireRestaurant(restaurantId);
+        } catch (IllegalArgumentException e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", e.getMessage());
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(error);
+        } catch (Exception e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", "Failed to export restaurant menu: " + e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(error);
+        }
+
+        StreamingResponseBody body = out -> menuExportService.export(restaurantId, exportFormat, out);
+        String filename = "menu-" + restaurantId + "." + exportFormat.getFileExtension();
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        ContentDisposition.attachment().filename(filename).build().toString())
+                .contentType(MediaType.parseMediaType(exportFormat.getContentType()))
+                .body(body);
+    }
+
+    /**
+     * Imports a whole menu document in one transaction. With
+     * "Prefer: respond-async" the document is validated, then imported in the
+     * background; poll the returned Location for progress.
+     */
+    @PostMapping("/{restaurantId}/menu/import")
+    public ResponseEntity<?> importMenu(
+            @PathVariable Long restaurantId,
+            @Valid @RequestBody MenuImportRequest request,
+            @RequestHeader(value = "Prefer", required = false) String prefer) {
+        try {
+            if (prefer != null && prefer.contains("respond-async")) {
+                MenuImportJob job = menuImportService.submit(restaurantId, request);
+                return ResponseEntity.accepted()
+                        .location(URI.create("/api/restaurants/" + restaurantId + "/menu/imports/" + job.getReference()))
+                        .body(job);
+            }
+            MenuImportJob job = menuImportService.importMenu(restaurantId, request);
+            return ResponseEntity.status(HttpStatus.CREATED).body(job);
+        } catch (IllegalArgumentException e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
+        } catch (RejectedExecutionException e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", "Too many imports in progress, please retry later");
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header("Retry-After", "5")
+                    .body(error);
+        } catch (Exception e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", "Failed to import restaurant menu: " + e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(error);
+        }
+    }
+
+    @GetMapping("/{restaurantId}/menu/imports/{reference}")
+    public ResponseEntity<?> getMenuImport(@PathVariable Long restaurantId, @PathVariable String reference) {
+        return menuImportService.getJob(restaurantId, reference)
+                .<ResponseEntity<?>>map(ResponseEntity::ok)
+                .orElseGet(() -> {
+                    Map<String, String> error = new HashMap<>();
+                    error.put("error", "Menu import not found");
+                    return ResponseEntity.status(HttpStatus.NOT_FOUND).body(error);
+                });
+    }
 }
@@ -0,0 +1,44 @@
+package com.example.demo.controller;
+
+import com.example.demo.search.SearchHit;
+import com.example.demo.search.SearchIndex;
+import com.example.demo.search.SearchIndexService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/search")
+public class SearchController {
+
+    private final SearchIndexService searchIndexService;
+
+    @Autowired
+    public SearchController(SearchIndexService searchIndexService) {
+        this.searchIndexService = searchIndexService;
+    }
+
+    @GetMapping
+    public ResponseEntity<?> search(
+            @RequestParam("q") String query,
+            @RequestParam(required = false) SearchIndex.DocumentType type,
+            @RequestParam(required = false) Integer limit) {
+        try {
+            List<SearchHit> hits = searchIndexService.search(query, type, limit);
+            return ResponseEntity.ok(hits);
+        } catch (IllegalArgumentException e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
+        } catch (Exception e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", "Failed to search: " + e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(error);
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.demo.dto;
+
+import com.example.demo.enums.OrderStatus;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import java.util.List;
+
+/**
+ * DTO for moving many orders of one restaurant from one status to the next.
+ */
+public class BulkOrderStatusUpdateRequest {
+
+    @NotNull(message = "Restaurant ID is required")
+    private Long restaurantId;
+
+    @NotEmpty(message = "At least one order ID is required")
+    @Size(max = 500, message = "At most 500 orders can be updated at once")
+    private List<Long> orderIds;
+
+    @NotNull(message = "Current status is required")
+    private OrderStatus fromStatus;
+
+    @NotNull(message = "New status is required")
+    private OrderStatus toStatus;
+
+    public BulkOrderStatusUpdateRequest() {
+    }
+
+    public Long getRestaurantId() {
+        return restaurantId;
+    }
+
+    public void setRestaurantId(Long restaurantId) {
+        this.restaurantId = restaurantId;
+    }
+
+    public List<Long> getOrderIds() {
+        return orderIds;
+    }
+
+    public void setOrderIds(List<Long> orderIds) {
+        this.orderIds = orderIds;
+    }
+
+    public OrderStatus getFromStatus() {
+        return fromStatus;
+    }
+
+    public void setFromStatus(OrderStatus fromStatus) {
+        this.fromStatus = fromStatus;
+    }
+
+    public OrderStatus getToStatus() {
+        return toStatus;
+    }
+
+    public void setToStatus(OrderStatus toStatus) {
+        this.toStatus = toStatus;
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.demo.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * One category of a restaurant's menu tree with its food items and
+ * subcategories (Composite pattern, detached from the entities).
+ */
+public class CategoryTreeNode {
+
+    private final Long id;
+    private final String name;
+    private final List<FoodItemSummary> foodItems = new ArrayList<>();
+    private final List<CategoryTreeNode> subCategories = new ArrayList<>();
+
+    public CategoryTreeNode(Long id, String name) {
+        this.id = id;
+        this.name = name;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public List<FoodItemSummary> getFoodItems() {
+        return foodItems;
+    }
+
+    public List<CategoryTreeNode> getSubCategories() {
+        return subCategories;
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.demo.dto;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+/**
+ * DTO for a customer's feedback on a delivered order.
+ */
+public class FeedbackRequest {
+
+    @NotNull(message = "Stars are required")
+    @Min(value = 1, message = "Stars must be between 1 and 5")
+    @Max(value = 5, message = "Stars must be between 1 and 5")
+    private Integer stars;
+
+    @Size(max = 255, message = "Comment must be at most 255 characters")
+    private String comment;
+
+    public FeedbackRequest() {
+    }
+
+    public FeedbackRequest(Integer stars, String comment) {
+        this.stars = stars;
+        this.comment = comment;
+    }
+
+    public Integer getStars() {
+        return stars;
+    }
+
+    public void setStars(Integer stars) {
+        this.stars = stars;
+    }
+
+    public String getComment() {
+        return comment;
+    }
+
+    public void setComment(String comment) {
+        this.comment = comment;
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.demo.dto;
+
+import java.util.Map;
+
+/**
+ * Read-only view of a food item, with the same JSON fields as the entity.
+ */
+public class FoodItemSummary {
+
+    private final Long id;
+    private final String name;
+    private final Double basePrice;
+    private final Long version;
+    private final Map<String, Double> availableAdditions;
+
+    public FoodItemSummary(Long id, String name, Double basePrice, Long version,
+            Map<String, Double> availableAdditions) {
+        this.id = id;
+        this.name = name;
+        this.basePrice = basePrice;
+        this.version = version;
+        this.availableAdditions = availableAdditions;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Double getBasePrice() {
+        return basePrice;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public Map<String, Double> getAvailableAdditions() {
+        return availableAdditions;
+    }
+}
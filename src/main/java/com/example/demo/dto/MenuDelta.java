@@ -0,0 +1,147 @@
+package com.example.demo.dto;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Changes to a restaurant's menu between two menu versions: the current state
+ * of every category and food item created or changed since, and the IDs of
+ * those deleted since.
+ *
+ * When {@code fullResync} is true the changes cannot be served (the client's
+ * version is older than the compacted log, or unknown) and the client has to
+ * download the full menu again.
+ */
+public class MenuDelta {
+
+    private final Long restaurantId;
+    private final long since;
+    private final long version;
+    private final boolean fullResync;
+    private final List<CategoryState> categories;
+    private final List<FoodItemState> foodItems;
+    private final List<Long> deletedCategoryIds;
+    private final List<Long> deletedFoodItemIds;
+
+    public MenuDelta(Long restaurantId, long since, long version, boolean fullResync,
+            List<CategoryState> categories, List<FoodItemState> foodItems,
+            List<Long> deletedCategoryIds, List<Long> deletedFoodItemIds) {
+        this.restaurantId = restaurantId;
+        this.since = since;
+        this.version = version;
+        this.fullResync = fullResync;
+        this.categories = categories;
+        this.foodItems = foodItems;
+        this.deletedCategoryIds = deletedCategoryIds;
+        this.deletedFoodItemIds = deletedFoodItemIds;
+    }
+
+    public static MenuDelta fullResync(Long restaurantId, long since, long version) {
+        return new MenuDelta(restaurantId, since, version, true, List.of(), List.of(), List.of(), List.of());
+    }
+
+    public Long getRestaurantId() {
+        return restaurantId;
+    }
+
+    public long getSince() {
+        return since;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public boolean isFullResync() {
+        return fullResync;
+    }
+
+    public List<CategoryState> getCategories() {
+        return categories;
+    }
+
+    public List<FoodItemState> getFoodItems() {
+        return foodItems;
+    }
+
+    public List<Long> getDeletedCategoryIds() {
+        return deletedCategoryIds;
+    }
+
+    public List<Long> getDeletedFoodItemIds() {
+        return deletedFoodItemIds;
+    }
+
+    /**
+     * Current state of a created or changed category.
+     */
+    public static class CategoryState {
+        private final Long id;
+        private final String name;
+        private final Long parentId;
+
+        public CategoryState(Long id, String name, Long parentId) {
+            this.id = id;
+            this.name = name;
+            this.parentId = parentId;
+        }
+
+        public Long getId() {
+            return id;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public Long getParentId() {
+            return parentId;
+        }
+    }
+
+    /**
+     * Current state of a created or changed food item.
+     */
+    public static class FoodItemState {
+        private final Long id;
+        private final Long categoryId;
+        private final String name;
+        private final Double basePrice;
+        private final Long version;
+        private final Map<String, Double> availableAdditions;
+
+        public FoodItemState(Long id, Long categoryId, String name, Double basePrice, Long version,
+                Map<String, Double> availableAdditions) {
+            this.id = id;
+            this.categoryId = categoryId;
+            this.name = name;
+            this.basePrice = basePrice;
+            this.version = version;
+            this.availableAdditions = availableAdditions;
+        }
+
+        public Long getId() {
+            return id;
+        }
+
+        public Long getCategoryId() {
+            return categoryId;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public Double getBasePrice() {
+            return basePrice;
+        }
+
+        public Long getVersion() {
+            return version;
+        }
+
+        public Map<String, Double> getAvailableAdditions() {
+            return availableAdditions;
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package com.example.demo.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * DTO for importing a whole menu: a category tree with the food items of every
+ * category.
+ */
+public class MenuImportRequest {
+
+    @NotEmpty(message = "Menu must contain at least one category")
+    @Valid
+    private List<CategoryImport> categories;
+
+    public MenuImportRequest() {
+    }
+
+    public MenuImportRequest(List<CategoryImport> categories) {
+        this.categories = categories;
+    }
+
+    public List<CategoryImport> getCategories() {
+        return categories;
+    }
+
+    public void setCategories(List<CategoryImport> categories) {
+        this.categories = categories;
+    }
+
+    /**
+     * DTO for one category and everything below it.
+     */
+    public static class CategoryImport {
+        @NotBlank(message = "Category name is required")
+        private String name;
+
+        @Valid
+        private List<FoodItemImport> foodItems;
+
+        @Valid
+        private List<CategoryImport> subCategories;
+
+        public CategoryImport() {
+        }
+
+        public CategoryImport(String name, List<FoodItemImport> foodItems, List<CategoryImport> subCategories) {
+            this.name = name;
+            this.foodItems = foodItems;
+            this.subCategories = subCategories;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public List<FoodItemImport> getFoodItems() {
+            return foodItems != null ? foodItems : List.of();
+        }
+
+        public void setFoodItems(List<FoodItemImport> foodItems) {
+            this.foodItems = foodItems;
+        }
+
+        public List<CategoryImport> getSubCategories() {
+            return subCategories != null ? subCategories : List.of();
+        }
+
+        public void setSubCategories(List<CategoryImport> subCategories) {
+            this.subCategories = subCategories;
+        }
+    }
+
+    /**
+     * DTO for one food item of an imported category.
+     */
+    public static class FoodItemImport {
+        @NotBlank(message = "Food item name is required")
+        private String name;
+
+        @NotNull(message = "Base price is required")
+        @Positive(message = "Base price must be positive")
+        private Double basePrice;
+
+        private Map<String, Double> availableAdditions;
+
+        public FoodItemImport() {
+        }
+
+        public FoodItemImport(String name, Double basePrice, Map<String, Double> availableAdditions) {
+            this.name = name;
+            this.basePrice = basePrice;
+            this.availableAdditions = availableAdditions;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public Double getBasePrice() {
+            return basePrice;
+        }
+
+        public void setBasePrice(Double basePrice) {
+            this.basePrice = basePrice;
+        }
+
+        public Map<String, Double> getAvailableAdditions() {
+            return availableAdditions;
+        }
+
+        public void setAvailableAdditions(Map<String, Double> availableAdditions) {
+            this.availableAdditions = availableAdditions;
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.demo.dto;
+
+import com.example.demo.pricing.Money;
+
+import java.util.Currency;
+import java.util.List;
+
+/**
+ * Read-only view of an order line.
+ */
+public class OrderItemSummary {
+
+    private final Long id;
+    private final Long foodItemId;
+    private final String itemName;
+    private final Integer quantity;
+    private final List<String> selectedAdditions;
+    private final Double calculatedPrice;
+    private final String currency;
+
+    public OrderItemSummary(Long id, Long foodItemId, String itemName, Integer quantity,
+            List<String> selectedAdditions, Long calculatedPriceMinor, String currency) {
+        this.id = id;
+        this.foodItemId = foodItemId;
+        this.itemName = itemName;
+        this.quantity = quantity;
+        this.selectedAdditions = selectedAdditions;
+        this.calculatedPrice = calculatedPriceMinor != null && currency != null
+                ? Money.toMajor(calculatedPriceMinor, Currency.getInstance(currency))
+                : null;
+        this.currency = currency;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public Long getFoodItemId() {
+        return foodItemId;
+    }
+
+    public String getItemName() {
+        return itemName;
+    }
+
+    public Integer getQuantity() {
+        return quantity;
+    }
+
+    public List<String> getSelectedAdditions() {
+        return selectedAdditions;
+    }
+
+    public Double getCalculatedPrice() {
+        return calculatedPrice;
+    }
+
+    public String getCurrency() {
+        return currency;
+    }
+}
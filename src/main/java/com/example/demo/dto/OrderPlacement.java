@@ -0,0 +1,54 @@
+package com.example.demo.dto;
+
+import com.example.demo.entity.Address;
+import com.example.demo.entity.Restaurant;
+import com.example.demo.entity.User;
+
+import java.util.List;
+
+/**
+ * Everything needed to place one order, for placing several in one call.
+ */
+public class OrderPlacement {
+
+    private final User customer;
+    private final Restaurant restaurant;
+    private final Address deliveryAddress;
+    private final List<CreateOrderRequest.OrderItemRequest> orderItems;
+    private final PaymentInfo paymentInfo;
+    private final String notes;
+
+    public OrderPlacement(User customer, Restaurant restaurant, Address deliveryAddress,
+            List<CreateOrderRequest.OrderItemRequest> orderItems, PaymentInfo paymentInfo, String notes) {
+        this.customer = customer;
+        this.restaurant = restaurant;
+        this.deliveryAddress = deliveryAddress;
+        this.orderItems = orderItems;
+        this.paymentInfo = paymentInfo;
+        this.notes = notes;
+    }
+
+    public User getCustomer() {
+        return customer;
+    }
+
+    public Restaurant getRestaurant() {
+        return restaurant;
+    }
+
+    public Address getDeliveryAddress() {
+        return deliveryAddress;
+    }
+
+    public List<CreateOrderRequest.OrderItemRequest> getOrderItems() {
+        return orderItems;
+    }
+
+    public PaymentInfo getPaymentInfo() {
+        return paymentInfo;
+    }
+
+    public String getNotes() {
+        return notes;
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.demo.dto;
+
+import com.example.demo.entity.Order;
+
+/**
+ * Outcome of one placement of a batch: the created order, or why it was not
+ * created.
+ */
+public class OrderPlacementResult {
+
+    private final Order order;
+    private final RuntimeException error;
+
+    private OrderPlacementResult(Order order, RuntimeException error) {
+        this.order = order;
+        this.error = error;
+    }
+
+    public static OrderPlacementResult placed(Order order) {
+        return new OrderPlacementResult(order, null);
+    }
+
+    public static OrderPlacementResult failed(RuntimeException error) {
+        return new OrderPlacementResult(null, error);
+    }
+
+    public boolean isPlaced() {
+        return order != null;
+    }
+
+    public Order getOrder() {
+        return order;
+    }
+
+    public RuntimeException getError() {
+        return error;
+    }
+}
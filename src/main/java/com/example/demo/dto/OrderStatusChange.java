@@ -0,0 +1,46 @@
+package com.example.demo.dto;
+
+import com.example.demo.enums.OrderStatus;
+
+/**
+ * Result of an applied status transition, as returned by the UPDATE itself.
+ */
+public class OrderStatusChange {
+
+    private Long orderId;
+    private OrderStatus status;
+    private Long version;
+
+    public OrderStatusChange() {
+    }
+
+    public OrderStatusChange(Long orderId, OrderStatus status, Long version) {
+        this.orderId = orderId;
+        this.status = status;
+        this.version = version;
+    }
+
+    public Long getOrderId() {
+        return orderId;
+    }
+
+    public void setOrderId(Long orderId) {
+        this.orderId = orderId;
+    }
+
+    public OrderStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(OrderStatus status) {
+        this.status = status;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+}
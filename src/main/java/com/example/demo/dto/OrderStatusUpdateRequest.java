@@ -0,0 +1,46 @@
+package com.example.demo.dto;
+
+import com.example.demo.enums.OrderStatus;
+import jakarta.validation.constraints.NotNull;
+
+/**
+ * DTO for a single status transition. The transition only applies if the order
+ * is still in {@code fromStatus} (and at {@code version}, when given).
+ */
+public class OrderStatusUpdateRequest {
+
+    @NotNull(message = "Current status is required")
+    private OrderStatus fromStatus;
+
+    @NotNull(message = "New status is required")
+    private OrderStatus toStatus;
+
+    private Long version; // Optional expected version
+
+    public OrderStatusUpdateRequest() {
+    }
+
+    public OrderStatus getFromStatus() {
+        return fromStatus;
+    }
+
+    public void setFromStatus(OrderStatus fromStatus) {
+        this.fromStatus = fromStatus;
+    }
+
+    public OrderStatus getToStatus() {
+        return toStatus;
+    }
+
+    public void setToStatus(OrderStatus toStatus) {
+        this.toStatus = toStatus;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+}
@@ -0,0 +1,167 @@
+package com.example.demo.dto;
+
+import com.example.demo.enums.OrderStatus;
+import com.example.demo.enums.PaymentMethod;
+import com.example.demo.pricing.Money;
+
+import java.time.LocalDateTime;
+import java.util.Currency;
+import java.util.List;
+
+/**
+ * Read-only view of an order for listings and dashboards. Built by a
+ * constructor expression; the related customer, restaurant, driver and address
+ * are reduced to the fields a listing shows.
+ */
+public class OrderSummary {
+
+    private final Long id;
+    private final OrderStatus status;
+    private final Long version;
+    private final Double totalPrice;
+    private final Double shippingPrice;
+    private final String currency;
+    private final LocalDateTime createdAt;
+    private final PaymentMethod paymentMethod;
+    private final String notes;
+    private final Integer feedbackStars;
+    private final String feedbackComment;
+    private final Long customerId;
+    private final String customerName;
+    private final Long restaurantId;
+    private final String restaurantName;
+    private final Long deliveryStaffId;
+    private final String deliveryStaffName;
+    private final Long deliveryAddressId;
+    private final String deliveryStreetNumber;
+    private final String deliveryCity;
+    private final String deliveryApartmentNumber;
+    private List<OrderItemSummary> items = List.of();
+
+    public OrderSummary(Long id, OrderStatus status, Long version, Long totalPriceMinor, Long shippingPriceMinor,
+            String currency, LocalDateTime createdAt, PaymentMethod paymentMethod, String notes,
+            Integer feedbackStars, String feedbackComment, Long customerId, String customerName,
+            Long restaurantId, String restaurantName, Long deliveryStaffId, String deliveryStaffName,
+            Long deliveryAddressId, String deliveryStreetNumber, String deliveryCity,
+            String deliveryApartmentNumber) {
+        this.id = id;
+        this.status = status;
+        this.version = version;
+        this.totalPrice = toMajor(totalPriceMinor, currency);
+        this.shippingPrice = toMajor(shippingPriceMinor, currency);
+        this.currency = currency;
+        this.createdAt = createdAt;
+        this.paymentMethod = paymentMethod;
+        this.notes = notes;
+        this.feedbackStars = feedbackStars;
+        this.feedbackComment = feedbackComment;
+        this.customerId = customerId;
+        this.customerName = customerName;
+        this.restaurantId = restaurantId;
+        this.restaurantName = restaurantName;
+        this.deliveryStaffId = deliveryStaffId;
+        this.deliveryStaffName = deliveryStaffName;
+        this.deliveryAddressId = deliveryAddressId;
+        this.deliveryStreetNumber = deliveryStreetNumber;
+        this.deliveryCity = deliveryCity;
+        this.deliveryApartmentNumber = deliveryApartmentNumber;
+    }
+
+    private static Double toMajor(Long minorUnits, String currency) {
+        return minorUnits != null && currency != null
+                ? Money.toMajor(minorUnits, Currency.getInstance(currency))
+                : null;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public OrderStatus getStatus() {
+        return status;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public Double getTotalPrice() {
+        return totalPrice;
+    }
+
+    public Double getShippingPrice() {
+        return shippingPrice;
+    }
+
+    public String getCurrency() {
+        return currency;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public PaymentMethod getPaymentMethod() {
+        return paymentMethod;
+    }
+
+    public String getNotes() {
+        return notes;
+    }
+
+    public Integer getFeedbackStars() {
+        return feedbackStars;
+    }
+
+    public String getFeedbackComment() {
+        return feedbackComment;
+    }
+
+    public Long getCustomerId() {
+        return customerId;
+    }
+
+    public String getCustomerName() {
+        return customerName;
+    }
+
+    public Long getRestaurantId() {
+        return restaurantId;
+    }
+
+    public String getRestaurantName() {
+        return restaurantName;
+    }
+
+    public Long getDeliveryStaffId() {
+        return deliveryStaffId;
+    }
+
+    public String getDeliveryStaffName() {
+        return deliveryStaffName;
+    }
+
+    public Long getDeliveryAddressId() {
+        return deliveryAddressId;
+    }
+
+    public String getDeliveryStreetNumber() {
+        return deliveryStreetNumber;
+    }
+
+    public String getDeliveryCity() {
+        return deliveryCity;
+    }
+
+    public String getDeliveryApartmentNumber() {
+        return deliveryApartmentNumber;
+    }
+
+    public List<OrderItemSummary> getItems() {
+        return items;
+    }
+
+    public void setItems(List<OrderItemSummary> items) {
+        this.items = items;
+    }
+}
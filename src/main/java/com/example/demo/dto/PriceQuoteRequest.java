@@ -0,0 +1,28 @@
+package com.example.demo.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import java.util.List;
+
+/**
+ * DTO for pricing a whole cart in one call.
+ */
+public class PriceQuoteRequest {
+
+    @NotEmpty(message = "At least one item is required")
+    @Size(max = 200, message = "At most 200 items can be quoted at once")
+    @Valid
+    private List<CreateOrderRequest.OrderItemRequest> items;
+
+    public PriceQuoteRequest() {
+    }
+
+    public List<CreateOrderRequest.OrderItemRequest> getItems() {
+        return items;
+    }
+
+    public void setItems(List<CreateOrderRequest.OrderItemRequest> items) {
+        this.items = items;
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.demo.dto;
+
+/**
+ * Read-only view of a restaurant for browsing: its public profile without
+ * account fields.
+ */
+public class RestaurantSummary {
+
+    private final Long id;
+    private final String name;
+    private final String description;
+    private final Double avgRating;
+    private final String deliveryTimeEst;
+    private final Double shippingPrice;
+
+    public RestaurantSummary(Long id, String name, String description, Double avgRating,
+            String deliveryTimeEst, Double shippingPrice) {
+        this.id = id;
+        this.name = name;
+        this.description = description;
+        this.avgRating = avgRating;
+        this.deliveryTimeEst = deliveryTimeEst;
+        this.shippingPrice = shippingPrice;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public Double getAvgRating() {
+        return avgRating;
+    }
+
+    public String getDeliveryTimeEst() {
+        return deliveryTimeEst;
+    }
+
+    public Double getShippingPrice() {
+        return shippingPrice;
+    }
+}
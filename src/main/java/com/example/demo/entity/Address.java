@@ -8,13 +8,18 @@ import jakarta.persistence.*;
 public class Address {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "addresses_seq")
+    @SequenceGenerator(name = "addresses_seq", sequenceName = "addresses_seq", allocationSize = 50)
     private Long id;
 
     private String streetNumber;
     private String city;
     private String apartmentNumber;
 
+    // WGS 84 degrees; null until the address is geocoded
+    private Double latitude;
+    private Double longitude;
+
     @ManyToOne
     @JoinColumn(name = "user_id")
     @JsonIgnore
@@ -63,6 +68,22 @@ public class Address {
         this.apartmentNumber = apartmentNumber;
     }
 
+    public Double getLatitude() {
+        return latitude;
+    }
+
+    public void setLatitude(Double latitude) {
+        this.latitude = latitude;
+    }
+
+    public Double getLongitude() {
+        return longitude;
+    }
+
+    public void setLongitude(Double longitude) {
+        this.longitude = longitude;
+    }
+
     public User getUser() {
         return user;
     }
@@ -4,19 +4,34 @@ import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import org.hibernate.annotations.JdbcTypeCode;
 import org.hibernate.type.SqlTypes;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 
 @Entity
-@Table(name = "food_items")
+@Table(name = "food_items", indexes = {
+        @Index(name = "idx_food_items_category_id", columnList = "category_id, id")
+})
 public class FoodItem {
 
+    // Selections are stored as a long bitmask, one bit per addition slot
+    public static final int MAX_ADDITION_SLOTS = Long.SIZE;
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "food_items_seq")
+    @SequenceGenerator(name = "food_items_seq", sequenceName = "food_items_seq", allocationSize = 50)
     private Long id;
 
     private String name;
     private Double basePrice;
 
+    // Bumped on every update; compiled price plans are keyed by (id, version)
+    @Version
+    @Column(nullable = false, columnDefinition = "bigint default 0")
+    private Long version;
+
     @ManyToOne
     @JoinColumn(name = "category_id")
     @JsonIgnore
@@ -28,6 +43,15 @@ public class FoodItem {
     @Column(columnDefinition = "jsonb")
     private Map<String, Double> availableAdditions;
 
+    // Stable ordinal slot of every addition name, e.g. {"Cheese": 0, "Bacon": 1}.
+    // A slot is never reassigned while an order item still references it, so
+    // stored selection masks keep decoding to the same names after the item
+    // changes. Retired names stay here until their slot is reclaimed.
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(columnDefinition = "jsonb")
+    @JsonIgnore
+    private Map<String, Integer> additionSlots = new HashMap<>();
+
     // --- CONSTRUCTORS ---
     public FoodItem() {}
 
@@ -41,11 +65,102 @@ public class FoodItem {
     public Double getBasePrice() { return basePrice; }
     public void setBasePrice(Double basePrice) { this.basePrice = basePrice; }
 
+    public Long getVersion() { return version; }
+
     public Category getCategory() { return category; }
     public void setCategory(Category category) { this.category = category; }
 
     public Map<String, Double> getAvailableAdditions() { return availableAdditions; }
     public void setAvailableAdditions(Map<String, Double> availableAdditions) {
+        setAvailableAdditions(availableAdditions, -1L);
+    }
+
+    /**
+     * Replaces the available additions and gives every new name a slot. When
+     * all slots are taken, slots of names that were already retired before this
+     * call and are not in {@code referencedMask} are reclaimed.
+     *
+     * @param referencedMask Slots still referenced by stored order items
+     * @throws IllegalArgumentException if there are not enough free slots
+     */
+    public void setAvailableAdditions(Map<String, Double> availableAdditions, long referencedMask) {
+        if (additionSlots == null) {
+            additionSlots = new HashMap<>();
+        }
+        Map<String, Double> previous = this.availableAdditions;
         this.availableAdditions = availableAdditions;
+        if (availableAdditions == null) {
+            return;
+        }
+
+        long used = 0L;
+        for (int slot : additionSlots.values()) {
+            used |= 1L << slot;
+        }
+        for (String name : availableAdditions.keySet()) {
+            if (additionSlots.containsKey(name)) {
+                continue;
+            }
+            if (used == -1L) {
+                used &= ~reclaimSlots(previous, referencedMask);
+            }
+            if (used == -1L) {
+                throw new IllegalArgumentException("A food item supports at most " + MAX_ADDITION_SLOTS
+                        + " additions, including removed ones that past orders still reference");
+            }
+            int slot = Long.numberOfTrailingZeros(~used);
+            additionSlots.put(name, slot);
+            used |= 1L << slot;
+        }
+    }
+
+    // Frees the slots of names retired before the current change and unreferenced
+    private long reclaimSlots(Map<String, Double> previous, long referencedMask) {
+        long freed = 0L;
+        Iterator<Map.Entry<String, Integer>> it = additionSlots.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<String, Integer> entry = it.next();
+            long bit = 1L << entry.getValue();
+            boolean retired = availableAdditions.get(entry.getKey()) == null
+                    && (previous == null || !previous.containsKey(entry.getKey()));
+            if (retired && (referencedMask & bit) == 0) {
+                it.remove();
+                freed |= bit;
+            }
+        }
+        return freed;
+    }
+
+    public Map<String, Integer> getAdditionSlots() {
+        return additionSlots != null ? additionSlots : Map.of();
+    }
+
+    /**
+     * Decodes a slot mask into addition names, in slot order. Names that were
+     * removed since still decode.
+     */
+    public List<String> decodeAdditions(long mask) {
+        return decodeAdditions(getAdditionSlots(), mask);
+    }
+
+    /**
+     * Same as {@link #decodeAdditions(long)} for a slot map read without the entity.
+     */
+    public static List<String> decodeAdditions(Map<String, Integer> additionSlots, long mask) {
+        if (mask == 0L || additionSlots == null) {
+            return List.of();
+        }
+        String[] bySlot = new String[MAX_ADDITION_SLOTS];
+        for (Map.Entry<String, Integer> entry : additionSlots.entrySet()) {
+            bySlot[entry.getValue()] = entry.getKey();
+        }
+        List<String> names = new ArrayList<>(Long.bitCount(mask));
+        for (long rest = mask; rest != 0L; rest &= rest - 1) {
+            String name = bySlot[Long.numberOfTrailingZeros(rest)];
+            if (name != null) {
+                names.add(name);
+            }
+        }
+        return names;
     }
 }
\ No newline at end of file
@@ -0,0 +1,114 @@
+package com.example.demo.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Durable copy of the first response produced for an Idempotency-Key, used
+ * when the key is no longer in the in-memory cache. Besides status and body it
+ * keeps the Location header, which a 201 or an accepted (202) order points
+ * the client to.
+ *
+ * The row is inserted before the request runs, with no status code, and
+ * completed with the response afterwards; a pending row marks the key as
+ * taken for every instance.
+ */
+@Entity
+@Table(name = "idempotency_keys", indexes = {
+        @Index(name = "idx_idempotency_keys_expires_at", columnList = "expiresAt")
+})
+public class IdempotencyRecord {
+
+    @Id
+    @Column(name = "idempotency_key", length = 255)
+    private String key;
+
+    // SHA-256 of the request body, so a reused key with a different payload is rejected
+    @Column(nullable = false, length = 64)
+    private String requestHash;
+
+    // Null while the first request for the key is still running
+    private Integer statusCode;
+
+    @Column(columnDefinition = "TEXT")
+    private String responseBody;
+
+    // Location header of the response, null if it had none
+    @Column(length = 2048)
+    private String location;
+
+    private LocalDateTime createdAt;
+    private LocalDateTime expiresAt;
+
+    // --- CONSTRUCTORS ---
+    public IdempotencyRecord() {
+    }
+
+    public IdempotencyRecord(String key, String requestHash, Integer statusCode, String responseBody,
+            String location, LocalDateTime createdAt, LocalDateTime expiresAt) {
+        this.key = key;
+        this.requestHash = requestHash;
+        this.statusCode = statusCode;
+        this.responseBody = responseBody;
+        this.location = location;
+        this.createdAt = createdAt;
+        this.expiresAt = expiresAt;
+    }
+
+    // --- GETTERS & SETTERS ---
+    public String getKey() {
+        return key;
+    }
+
+    public void setKey(String key) {
+        this.key = key;
+    }
+
+    public String getRequestHash() {
+        return requestHash;
+    }
+
+    public void setRequestHash(String requestHash) {
+        this.requestHash = requestHash;
+    }
+
+    public Integer getStatusCode() {
+        return statusCode;
+    }
+
+    public void setStatusCode(Integer statusCode) {
+        this.statusCode = statusCode;
+    }
+
+    public String getResponseBody() {
+        return responseBody;
+    }
+
+    public void setResponseBody(String responseBody) {
+        this.responseBody = responseBody;
+    }
+
+    public String getLocation() {
+        return location;
+    }
+
+    public void setLocation(String location) {
+        this.location = location;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public LocalDateTime getExpiresAt() {
+        return expiresAt;
+    }
+
+    public void setExpiresAt(LocalDateTime expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+}
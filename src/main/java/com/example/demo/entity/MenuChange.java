@@ -0,0 +1,86 @@
+package com.example.demo.entity;
+
+import com.example.demo.enums.MenuChangeOperation;
+import com.example.demo.enums.MenuEntityType;
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * One entry of a restaurant's menu change log: which category or food item
+ * changed at which menu version. Only keys are logged; deltas are served from
+ * the current rows.
+ */
+@Entity
+@Table(name = "menu_changes", indexes = {
+        @Index(name = "idx_menu_changes_restaurant_version", columnList = "restaurantId, version"),
+        @Index(name = "idx_menu_changes_entity_version", columnList = "restaurantId, entityType, entityId, version")
+})
+public class MenuChange {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "menu_changes_seq")
+    @SequenceGenerator(name = "menu_changes_seq", sequenceName = "menu_changes_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(nullable = false)
+    private Long restaurantId;
+
+    @Column(nullable = false)
+    private Long version;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private MenuEntityType entityType;
+
+    @Column(nullable = false)
+    private Long entityId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private MenuChangeOperation operation;
+
+    @Column(nullable = false)
+    private LocalDateTime changedAt;
+
+    // Required by JPA
+    public MenuChange() {
+    }
+
+    public MenuChange(Long restaurantId, Long version, MenuEntityType entityType, Long entityId,
+            MenuChangeOperation operation, LocalDateTime changedAt) {
+        this.restaurantId = restaurantId;
+        this.version = version;
+        this.entityType = entityType;
+        this.entityId = entityId;
+        this.operation = operation;
+        this.changedAt = changedAt;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public Long getRestaurantId() {
+        return restaurantId;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public MenuEntityType getEntityType() {
+        return entityType;
+    }
+
+    public Long getEntityId() {
+        return entityId;
+    }
+
+    public MenuChangeOperation getOperation() {
+        return operation;
+    }
+
+    public LocalDateTime getChangedAt() {
+        return changedAt;
+    }
+}
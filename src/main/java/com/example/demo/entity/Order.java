@@ -4,16 +4,24 @@ import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import com.example.demo.enums.OrderStatus;
 import com.example.demo.enums.PaymentMethod;
+import com.example.demo.pricing.Money;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Currency;
 import java.util.List;
 
 @Entity
-@Table(name = "orders")
+@Table(name = "orders", indexes = {
+        @Index(name = "idx_orders_customer_created", columnList = "user_id, created_at, id"),
+        @Index(name = "idx_orders_restaurant_status_created", columnList = "restaurant_id, status, created_at, id"),
+        @Index(name = "idx_orders_delivery_status_created", columnList = "delivery_id, status, created_at, id"),
+        @Index(name = "idx_orders_status_created", columnList = "status, created_at, id")
+})
 public class Order {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "orders_seq")
+    @SequenceGenerator(name = "orders_seq", sequenceName = "orders_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne
@@ -35,8 +43,17 @@ public class Order {
     @Enumerated(EnumType.STRING)
     private OrderStatus status;
 
-    private Double totalPrice;
-    private Double shippingPrice; // Shipping/delivery fee
+    // Optimistic lock; status transitions bump it in the same conditional UPDATE
+    @Version
+    @Column(nullable = false, columnDefinition = "bigint default 0")
+    private Long version;
+
+    // Amounts are stored exactly as minor units (e.g. cents) of the order currency
+    private Long totalPriceMinor;
+    private Long shippingPriceMinor; // Shipping/delivery fee
+
+    @Column(length = 3)
+    private String currency; // ISO 4217 code, e.g. "USD"
     private LocalDateTime createdAt;
 
     // Payment
@@ -103,20 +120,58 @@ public class Order {
         this.status = status;
     }
 
+    // Decimal view for the API
     public Double getTotalPrice() {
-        return totalPrice;
+        return totalPriceMinor != null ? Money.toMajor(totalPriceMinor, currencyOrThrow()) : null;
     }
 
-    public void setTotalPrice(Double totalPrice) {
-        this.totalPrice = totalPrice;
+    public Double getShippingPrice() {
+        return shippingPriceMinor != null ? Money.toMajor(shippingPriceMinor, currencyOrThrow()) : null;
     }
 
-    public Double getShippingPrice() {
-        return shippingPrice;
+    @JsonIgnore
+    public Money getTotal() {
+        return totalPriceMinor != null ? Money.ofMinor(totalPriceMinor, currencyOrThrow()) : null;
+    }
+
+    public void setTotal(Money total) {
+        this.totalPriceMinor = total != null ? total.getMinorUnits() : null;
+        if (total != null) {
+            this.currency = total.getCurrency().getCurrencyCode();
+        }
+    }
+
+    @JsonIgnore
+    public Money getShipping() {
+        return shippingPriceMinor != null ? Money.ofMinor(shippingPriceMinor, currencyOrThrow()) : null;
+    }
+
+    public void setShipping(Money shipping) {
+        this.shippingPriceMinor = shipping != null ? shipping.getMinorUnits() : null;
+        if (shipping != null) {
+            this.currency = shipping.getCurrency().getCurrencyCode();
+        }
+    }
+
+    @JsonIgnore
+    public Long getTotalPriceMinor() {
+        return totalPriceMinor;
+    }
+
+    @JsonIgnore
+    public Long getShippingPriceMinor() {
+        return shippingPriceMinor;
     }
 
-    public void setShippingPrice(Double shippingPrice) {
-        this.shippingPrice = shippingPrice;
+    public String getCurrency() {
+        return currency;
+    }
+
+    private Currency currencyOrThrow() {
+        if (currency == null) {
+            throw new IllegalStateException("Order " + id + " has amounts but no currency");
+        }
+        return Currency.getInstance(currency);
     }
 
     public List<OrderItem> getItems() {
@@ -143,6 +198,10 @@ public class Order {
         this.feedbackComment = feedbackComment;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
     public LocalDateTime getCreatedAt() {
         return createdAt;
     }
@@ -2,8 +2,8 @@ package com.example.demo.entity;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
-import org.hibernate.annotations.JdbcTypeCode;
-import org.hibernate.type.SqlTypes;
+import com.example.demo.pricing.Money;
+import java.util.Currency;
 import java.util.List;
 
 @Entity
@@ -11,7 +11,8 @@ import java.util.List;
 public class OrderItem {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "order_items_seq")
+    @SequenceGenerator(name = "order_items_seq", sequenceName = "order_items_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne
@@ -27,33 +28,33 @@ public class OrderItem {
     private String itemNameSnapshot;
 
     // --- DECORATOR RESULT ---
-    // Example: ["Extra Cheese", "No Onions"]
-    @JdbcTypeCode(SqlTypes.JSON)
-    @Column(columnDefinition = "jsonb")
-    private List<String> selectedAdditions;
+    // Selected additions as a bitmask over the food item's addition slots,
+    // e.g. 0b101 = slots 0 and 2 ("Extra Cheese", "No Onions")
+    @Column(nullable = false, columnDefinition = "bigint default 0")
+    private long additionMask;
 
     private Integer quantity = 1; // Default quantity is 1
 
-    private Double calculatedPrice; // Total price for this item (unitPrice * quantity)
+    // Total price for this item (unitPrice * quantity), exact minor units of the currency
+    private Long calculatedPriceMinor;
+
+    @Column(length = 3)
+    private String currency;
 
     // --- CONSTRUCTORS ---
     public OrderItem() {
     }
 
-    public OrderItem(FoodItem foodItem, List<String> selectedAdditions, Double calculatedPrice) {
-        this.foodItem = foodItem;
-        this.itemNameSnapshot = foodItem.getName();
-        this.selectedAdditions = selectedAdditions;
-        this.quantity = 1;
-        this.calculatedPrice = calculatedPrice;
+    public OrderItem(FoodItem foodItem, long additionMask, Money calculatedPrice) {
+        this(foodItem, additionMask, 1, calculatedPrice);
     }
 
-    public OrderItem(FoodItem foodItem, List<String> selectedAdditions, Integer quantity, Double calculatedPrice) {
+    public OrderItem(FoodItem foodItem, long additionMask, Integer quantity, Money calculatedPrice) {
         this.foodItem = foodItem;
         this.itemNameSnapshot = foodItem.getName();
-        this.selectedAdditions = selectedAdditions;
+        this.additionMask = additionMask;
         this.quantity = quantity != null ? quantity : 1;
-        this.calculatedPrice = calculatedPrice;
+        setCalculated(calculatedPrice);
     }
 
     // --- GETTERS & SETTERS ---
@@ -89,20 +90,46 @@ public class OrderItem {
         this.itemNameSnapshot = itemNameSnapshot;
     }
 
+    // Name view of the mask for the API
     public List<String> getSelectedAdditions() {
-        return selectedAdditions;
+        return foodItem != null ? foodItem.decodeAdditions(additionMask) : List.of();
     }
 
-    public void setSelectedAdditions(List<String> selectedAdditions) {
-        this.selectedAdditions = selectedAdditions;
+    @JsonIgnore
+    public long getAdditionMask() {
+        return additionMask;
     }
 
+    public void setAdditionMask(long additionMask) {
+        this.additionMask = additionMask;
+    }
+
+    // Decimal view for the API
     public Double getCalculatedPrice() {
-        return calculatedPrice;
+        return calculatedPriceMinor != null
+                ? Money.toMajor(calculatedPriceMinor, Currency.getInstance(currency))
+                : null;
+    }
+
+    @JsonIgnore
+    public Money getCalculated() {
+        return calculatedPriceMinor != null
+                ? Money.ofMinor(calculatedPriceMinor, Currency.getInstance(currency))
+                : null;
+    }
+
+    public void setCalculated(Money calculatedPrice) {
+        this.calculatedPriceMinor = calculatedPrice != null ? calculatedPrice.getMinorUnits() : null;
+        this.currency = calculatedPrice != null ? calculatedPrice.getCurrency().getCurrencyCode() : null;
+    }
+
+    @JsonIgnore
+    public Long getCalculatedPriceMinor() {
+        return calculatedPriceMinor;
     }
 
-    public void setCalculatedPrice(Double calculatedPrice) {
-        this.calculatedPrice = calculatedPrice;
+    public String getCurrency() {
+        return currency;
     }
 
     public Integer getQuantity() {
@@ -11,10 +11,38 @@ import java.util.List;
 public class Restaurant extends User {
 
     private String description;
+
+    // Running feedback aggregate; only ever changed by SQL (one atomic UPDATE per
+    // feedback, and reconciliation), so saving a loaded Restaurant can never
+    // overwrite a newer value
+    @Column(insertable = false, updatable = false)
     private Double avgRating;
+
+    @JsonIgnore
+    @Column(nullable = false, insertable = false, updatable = false, columnDefinition = "bigint default 0")
+    private Long ratingSum;
+
+    @JsonIgnore
+    @Column(nullable = false, insertable = false, updatable = false, columnDefinition = "bigint default 0")
+    private Long ratingCount;
     private String deliveryTimeEst;
     private Double shippingPrice; // Delivery/shipping fee for this restaurant
 
+    // WGS 84 degrees; restaurants without a location are not found by nearby search
+    private Double latitude;
+    private Double longitude;
+
+    // Menu change log position; only ever changed by SQL in MenuChangeLog, so
+    // saving a loaded Restaurant can never move it back
+    @JsonIgnore
+    @Column(nullable = false, insertable = false, updatable = false, columnDefinition = "bigint default 0")
+    private Long menuVersion;
+
+    // Highest version whose change log entries may have been compacted away
+    @JsonIgnore
+    @Column(nullable = false, insertable = false, updatable = false, columnDefinition = "bigint default 0")
+    private Long menuLogFloor;
+
     // Directly links to Categories (No Menu Table)
     @OneToMany(mappedBy = "restaurant", cascade = CascadeType.ALL)
     @JsonIgnore
@@ -37,8 +65,12 @@ public class Restaurant extends User {
         return avgRating;
     }
 
-    public void setAvgRating(Double avgRating) {
-        this.avgRating = avgRating;
+    public Long getRatingSum() {
+        return ratingSum;
+    }
+
+    public Long getRatingCount() {
+        return ratingCount;
     }
 
     public String getDeliveryTimeEst() {
@@ -64,4 +96,28 @@ public class Restaurant extends User {
     public void setShippingPrice(Double shippingPrice) {
         this.shippingPrice = shippingPrice;
     }
-}
\ No newline at end of file
+
+    public Double getLatitude() {
+        return latitude;
+    }
+
+    public void setLatitude(Double latitude) {
+        this.latitude = latitude;
+    }
+
+    public Double getLongitude() {
+        return longitude;
+    }
+
+    public void setLongitude(Double longitude) {
+        this.longitude = longitude;
+    }
+
+    public Long getMenuVersion() {
+        return menuVersion;
+    }
+
+    public Long getMenuLogFloor() {
+        return menuLogFloor;
+    }
+}
@@ -1,9 +1,30 @@
 package com.example.demo.enums;
 
+import java.util.EnumSet;
+import java.util.Set;
+
 public enum OrderStatus {
     PLACED,
     COOKING,
     OUT_FOR_DELIVERY,
     DELIVERED,
-    CANCELLED
+    CANCELLED;
+
+    /**
+     * Allowed lifecycle transitions:
+     * PLACED -> COOKING -> OUT_FOR_DELIVERY -> DELIVERED,
+     * and PLACED / COOKING -> CANCELLED.
+     */
+    public Set<OrderStatus> nextStatuses() {
+        return switch (this) {
+            case PLACED -> EnumSet.of(COOKING, CANCELLED);
+            case COOKING -> EnumSet.of(OUT_FOR_DELIVERY, CANCELLED);
+            case OUT_FOR_DELIVERY -> EnumSet.of(DELIVERED);
+            case DELIVERED, CANCELLED -> EnumSet.noneOf(OrderStatus.class);
+        };
+    }
+
+    public boolean canTransitionTo(OrderStatus next) {
+        return next != null && nextStatuses().contains(next);
+    }
 }
@@ -0,0 +1,8 @@
+package com.example.demo.enums;
+
+public enum SubmissionStatus {
+    QUEUED,
+    PROCESSING,
+    COMPLETED,
+    FAILED
+}
@@ -0,0 +1,81 @@
+package com.example.demo.feed;
+
+import com.example.demo.entity.Order;
+import com.example.demo.enums.OrderStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * Order delta pushed to dashboard subscribers. Published as a Spring
+ * application event when an order is created or changes status.
+ */
+public class OrderEvent {
+
+    public enum Type {
+        ORDER_CREATED,
+        STATUS_CHANGED
+    }
+
+    private final Type type;
+    private final Long orderId;
+    private final Long restaurantId;
+    private final Long deliveryStaffId;
+    private final OrderStatus status;
+    private final Long version;
+    private final Double totalPrice;
+    private final LocalDateTime occurredAt;
+
+    public OrderEvent(Type type, Long orderId, Long restaurantId, Long deliveryStaffId,
+            OrderStatus status, Long version, Double totalPrice) {
+        this.type = type;
+        this.orderId = orderId;
+        this.restaurantId = restaurantId;
+        this.deliveryStaffId = deliveryStaffId;
+        this.status = status;
+        this.version = version;
+        this.totalPrice = totalPrice;
+        this.occurredAt = LocalDateTime.now();
+    }
+
+    public static OrderEvent created(Order order) {
+        return new OrderEvent(Type.ORDER_CREATED,
+                order.getId(),
+                order.getRestaurant() != null ? order.getRestaurant().getId() : null,
+                order.getDeliveryStaff() != null ? order.getDeliveryStaff().getId() : null,
+                order.getStatus(),
+                order.getVersion(),
+                order.getTotalPrice());
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public Long getOrderId() {
+        return orderId;
+    }
+
+    public Long getRestaurantId() {
+        return restaurantId;
+    }
+
+    public Long getDeliveryStaffId() {
+        return deliveryStaffId;
+    }
+
+    public OrderStatus getStatus() {
+        return status;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public Double getTotalPrice() {
+        return totalPrice;
+    }
+
+    public LocalDateTime getOccurredAt() {
+        return occurredAt;
+    }
+}
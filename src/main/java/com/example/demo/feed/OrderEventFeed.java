@@ -0,0 +1,371 @@
+package com.example.demo.feed;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Server-Sent Events feed of order deltas, one channel per restaurant and per
+ * delivery staff member.
+ *
+ * Connections are servlet async requests (SseEmitter), so an idle subscriber
+ * costs no thread. Every event gets a resume token {@code <epoch>-<sequence>};
+ * a reconnecting client sends it back as Last-Event-ID and receives the events
+ * it missed from the channel's bounded history. If the token is from an earlier
+ * process or older than the history, the client gets a {@code RESYNC} event and
+ * should reload its dashboard once.
+ *
+ * Each channel numbers its events under its own lock as they are appended, in
+ * the order their transactions committed, and one task at a time writes them
+ * to the channel's subscribers in that order. Nothing is written to a socket
+ * while the lock is held. A resuming subscriber is registered as replaying
+ * together with taking its missed events; live events for it are queued until
+ * its replay has been written, so they can neither overtake the replay nor be
+ * sent twice.
+ */
+@Service
+public class OrderEventFeed {
+
+    static final String RESYNC_EVENT = "RESYNC";
+
+    // Distinguishes tokens of this process from tokens handed out before a restart
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36)
+            + Integer.toString(ThreadLocalRandom.current().nextInt(1296), 36);
+    private final AtomicLong sequence = new AtomicLong();
+
+    private final ConcurrentHashMap<String, Channel> channels = new ConcurrentHashMap<>();
+    private final TaskExecutor taskExecutor;
+    private final int historySize;
+    private final long emitterTimeoutMillis;
+    private final Duration idleChannelRetention;
+
+    public OrderEventFeed(@Qualifier("applicationTaskExecutor") TaskExecutor taskExecutor,
+            @Value("${feed.orders.history-size:256}") int historySize,
+            @Value("${feed.orders.emitter-timeout:30m}") Duration emitterTimeout,
+            @Value("${feed.orders.idle-channel-retention:1h}") Duration idleChannelRetention) {
+        this.taskExecutor = taskExecutor;
+        this.historySize = historySize;
+        this.emitterTimeoutMillis = emitterTimeout.toMillis();
+        this.idleChannelRetention = idleChannelRetention;
+    }
+
+    public static String restaurantChannel(Long restaurantId) {
+        return "restaurant:" + restaurantId;
+    }
+
+    public static String deliveryChannel(Long deliveryStaffId) {
+        return "delivery:" + deliveryStaffId;
+    }
+
+    /**
+     * Opens a subscription and replays everything after the resume token.
+     *
+     * @param channelKey  Channel to subscribe to
+     * @param resumeToken Last-Event-ID sent by the client, or null for a fresh subscription
+     * @return The emitter to return from the controller
+     */
+    public SseEmitter subscribe(String channelKey, String resumeToken) {
+        SseEmitter emitter = new SseEmitter(emitterTimeoutMillis);
+        boolean resuming = resumeToken != null && !resumeToken.isBlank();
+        long after = resuming ? parseSequence(resumeToken) : 0L;
+        Subscriber subscriber = new Subscriber(emitter);
+
+        // Registered inside compute, so an idle channel cannot be dropped under a new subscriber
+        Channel channel = channels.compute(channelKey, (key, existing) -> {
+            Channel target = existing != null ? existing : new Channel(sequence.get());
+            target.add(subscriber, resuming, after);
+            return target;
+        });
+
+        Runnable remove = () -> channel.subscribers.remove(subscriber);
+        emitter.onCompletion(remove);
+        emitter.onTimeout(remove);
+        emitter.onError(e -> remove.run());
+
+        if (resuming) {
+            replay(channel, subscriber);
+        }
+        return emitter;
+    }
+
+    // Writes the missed events, then whatever the sender queued meanwhile, outside the channel lock
+    private void replay(Channel channel, Subscriber subscriber) {
+        try {
+            if (subscriber.missed == null) {
+                subscriber.emitter.send(SseEmitter.event().name(RESYNC_EVENT).data("{}", MediaType.APPLICATION_JSON));
+            } else {
+                for (Entry entry : subscriber.missed) {
+                    send(subscriber.emitter, entry);
+                }
+            }
+            for (List<Entry> queued = channel.takeQueued(subscriber); !queued.isEmpty();
+                    queued = channel.takeQueued(subscriber)) {
+                for (Entry entry : queued) {
+                    send(subscriber.emitter, entry);
+                }
+            }
+        } catch (IOException | IllegalStateException e) {
+            channel.subscribers.remove(subscriber);
+            subscriber.emitter.completeWithError(e);
+        }
+    }
+
+    /**
+     * Fans committed order changes out to the restaurant and delivery channels.
+     * Appending runs on the committing thread, so events are numbered in commit
+     * order; the writes to subscriber sockets run on the task executor so
+     * request threads never block on them.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onOrderEvent(OrderEvent event) {
+        if (event.getRestaurantId() != null) {
+            publish(restaurantChannel(event.getRestaurantId()), event);
+        }
+        if (event.getDeliveryStaffId() != null) {
+            publish(deliveryChannel(event.getDeliveryStaffId()), event);
+        }
+    }
+
+    private void publish(String channelKey, OrderEvent event) {
+        Channel channel = channels.compute(channelKey, (key, existing) -> {
+            Channel target = existing != null ? existing : new Channel(sequence.get());
+            target.append(event, sequence, historySize);
+            return target;
+        });
+        if (channel.resumeSending()) {
+            startSending(channel);
+        }
+    }
+
+    private void startSending(Channel channel) {
+        try {
+            taskExecutor.execute(() -> sendPending(channel));
+        } catch (RejectedExecutionException e) {
+            // Left pending; the next event or heartbeat tries again
+            channel.stopSending();
+        }
+    }
+
+    // Only one of these runs per channel at a time, so subscribers see the channel's order
+    private void sendPending(Channel channel) {
+        while (true) {
+            List<Entry> pending;
+            List<Subscriber> live;
+            synchronized (channel) {
+                pending = channel.takePending();
+                if (pending.isEmpty()) {
+                    channel.stopSending();
+                    return;
+                }
+                live = channel.liveSubscribers(pending);
+            }
+            for (Subscriber subscriber : live) {
+                try {
+                    for (Entry entry : pending) {
+                        send(subscriber.emitter, entry);
+                    }
+                } catch (IOException | IllegalStateException e) {
+                    channel.subscribers.remove(subscriber);
+                }
+            }
+        }
+    }
+
+    private void send(SseEmitter emitter, Entry entry) throws IOException {
+        emitter.send(SseEmitter.event()
+                .id(epoch + "-" + entry.sequence)
+                .name(entry.event.getType().name())
+                .data(entry.event, MediaType.APPLICATION_JSON));
+    }
+
+    private long parseSequence(String token) {
+        int dash = token.lastIndexOf('-');
+        if (dash <= 0 || !token.substring(0, dash).equals(epoch)) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(token.substring(dash + 1));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * Keeps proxies from closing idle streams, detects dead subscribers and
+     * drops channels nobody listens to or writes to any more.
+     */
+    @Scheduled(fixedDelayString = "${feed.orders.heartbeat-interval:30s}")
+    public void heartbeat() {
+        long idleCutoff = System.currentTimeMillis() - idleChannelRetention.toMillis();
+        channels.forEach((key, channel) -> {
+            for (Subscriber subscriber : channel.subscribers) {
+                try {
+                    subscriber.emitter.send(SseEmitter.event().comment("keep-alive"));
+                } catch (IOException | IllegalStateException e) {
+                    channel.subscribers.remove(subscriber);
+                }
+            }
+            if (channel.resumeSending()) {
+                startSending(channel);
+            }
+            // Atomic with subscribe and publish, which register inside compute
+            channels.computeIfPresent(key, (k, current) -> current.isIdle(idleCutoff) ? null : current);
+        });
+    }
+
+    public int getSubscriberCount() {
+        int count = 0;
+        for (Channel channel : channels.values()) {
+            count += channel.subscribers.size();
+        }
+        return count;
+    }
+
+    private static final class Entry {
+        final long sequence;
+        final OrderEvent event;
+
+        Entry(long sequence, OrderEvent event) {
+            this.sequence = sequence;
+            this.event = event;
+        }
+    }
+
+    private static final class Subscriber {
+        final SseEmitter emitter;
+        // Set when registered: entries to replay, null if the client must resync
+        List<Entry> missed;
+        // Live entries held back until the replay is written; null once live. Guarded by the channel lock
+        List<Entry> queued;
+
+        Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+    }
+
+    private static final class Channel {
+        final Set<Subscriber> subscribers = new CopyOnWriteArraySet<>();
+        private final Deque<Entry> history = new ArrayDeque<>();
+        // Appended but not yet taken by the sender, in sequence order
+        private final Deque<Entry> pending = new ArrayDeque<>();
+        private boolean sending;
+        private long lastEventAt = System.currentTimeMillis();
+        // Highest sequence that fell out of the history (or predates the channel);
+        // older tokens cannot be replayed
+        private long evictedUpTo;
+
+        Channel(long startSequence) {
+            this.evictedUpTo = startSequence;
+        }
+
+        /**
+         * Numbers the event and appends it. The sequence is taken under the
+         * channel lock, so history and pending stay in sequence order.
+         */
+        synchronized void append(OrderEvent event, AtomicLong sequence, int limit) {
+            Entry entry = new Entry(sequence.incrementAndGet(), event);
+            history.addLast(entry);
+            while (history.size() > limit) {
+                evictedUpTo = history.removeFirst().sequence;
+            }
+            pending.addLast(entry);
+            lastEventAt = System.currentTimeMillis();
+        }
+
+        /**
+         * Registers a subscriber. A resuming one takes the entries the sender
+         * already took after {@code after}, and is held back from live entries
+         * until it has written them.
+         */
+        synchronized void add(Subscriber subscriber, boolean resuming, long after) {
+            if (resuming) {
+                subscriber.missed = after < 0 ? null : since(after);
+                subscriber.queued = new ArrayList<>();
+            }
+            subscribers.add(subscriber);
+        }
+
+        // Subscribers to send the entries to; replaying ones queue them instead
+        synchronized List<Subscriber> liveSubscribers(List<Entry> entries) {
+            List<Subscriber> live = new ArrayList<>(subscribers.size());
+            for (Subscriber subscriber : subscribers) {
+                if (subscriber.queued != null) {
+                    subscriber.queued.addAll(entries);
+                } else {
+                    live.add(subscriber);
+                }
+            }
+            return live;
+        }
+
+        // Entries queued for a replaying subscriber; empty once it has caught up and gone live
+        synchronized List<Entry> takeQueued(Subscriber subscriber) {
+            List<Entry> taken = subscriber.queued;
+            subscriber.queued = taken.isEmpty() ? null : new ArrayList<>();
+            return taken;
+        }
+
+        synchronized List<Entry> takePending() {
+            List<Entry> taken = new ArrayList<>(pending);
+            pending.clear();
+            return taken;
+        }
+
+        synchronized void stopSending() {
+            sending = false;
+        }
+
+        // Claims the sender if entries are pending and none runs (e.g. its start was rejected);
+        // true if the caller must start it
+        synchronized boolean resumeSending() {
+            if (sending || pending.isEmpty()) {
+                return false;
+            }
+            sending = true;
+            return true;
+        }
+
+        /**
+         * Entries after the sequence that the sender already took; newer ones
+         * are still pending and reach every subscriber through the sender.
+         *
+         * @return The entries, or null if some were already evicted
+         */
+        synchronized List<Entry> since(long after) {
+            if (after < evictedUpTo) {
+                return null;
+            }
+            long firstPending = pending.isEmpty() ? Long.MAX_VALUE : pending.peekFirst().sequence;
+            List<Entry> missed = new ArrayList<>();
+            for (Entry entry : history) {
+                if (entry.sequence > after && entry.sequence < firstPending) {
+                    missed.add(entry);
+                }
+            }
+            return missed;
+        }
+
+        synchronized boolean isIdle(long idleCutoff) {
+            return subscribers.isEmpty() && lastEventAt < idleCutoff;
+        }
+    }
+}
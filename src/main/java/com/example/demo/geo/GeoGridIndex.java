@@ -0,0 +1,232 @@
+package com.example.demo.geo;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory index of restaurant locations on a fixed latitude/longitude grid.
+ *
+ * Each restaurant sits in the cell containing its location. A nearest-K query
+ * scans only the cells overlapping the bounding box of a search circle,
+ * starting with a circle about one cell wide and doubling it until K
+ * restaurants lie inside it or the maximum radius is reached. Every location
+ * inside the circle is in a scanned cell, so the result is exact; its cost
+ * depends on how many restaurants are near the point, not on the total.
+ *
+ * Updates carry a sequence number and an older one never overwrites a newer
+ * one, so concurrent reloads may finish in any order.
+ *
+ * Thread-safe: queries share a read lock, updates take the write lock.
+ */
+public class GeoGridIndex {
+
+    // Mean earth radius (IUGG)
+    static final double EARTH_RADIUS_METERS = 6_371_008.8;
+    private static final double METERS_PER_DEGREE = Math.PI * EARTH_RADIUS_METERS / 180;
+
+    private final double cellSizeDegrees;
+    private final int rows;
+    private final int columns;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Map<Long, Entry> entries = new HashMap<>();
+    private final Map<Long, List<Entry>> cells = new HashMap<>();
+    private final Map<Long, Long> sequences = new HashMap<>();
+
+    private record Entry(Long restaurantId, String name, double latitude, double longitude, long cell) {
+    }
+
+    /**
+     * @param cellSizeDegrees Grid cell edge; about 111 km per degree of latitude
+     */
+    public GeoGridIndex(double cellSizeDegrees) {
+        if (!(cellSizeDegrees > 0) || cellSizeDegrees > 90) {
+            throw new IllegalArgumentException("Cell size must be between 0 and 90 degrees");
+        }
+        this.cellSizeDegrees = cellSizeDegrees;
+        this.rows = (int) Math.ceil(180 / cellSizeDegrees);
+        this.columns = (int) Math.ceil(360 / cellSizeDegrees);
+    }
+
+    /**
+     * @throws IllegalArgumentException if the coordinates are missing or out of range
+     */
+    public static void checkCoordinates(Double latitude, Double longitude) {
+        if (latitude == null || longitude == null) {
+            throw new IllegalArgumentException("Latitude and longitude are required");
+        }
+        if (!(latitude >= -90 && latitude <= 90)) {
+            throw new IllegalArgumentException("Latitude must be between -90 and 90");
+        }
+        if (!(longitude >= -180 && longitude <= 180)) {
+            throw new IllegalArgumentException("Longitude must be between -180 and 180");
+        }
+    }
+
+    /**
+     * Sets or clears the location of a restaurant.
+     *
+     * @param sequence Increasing number taken before the location was loaded
+     * @param name     The restaurant name
+     * @param latitude The latitude, or null to remove the restaurant
+     * @return false if a newer update had already been applied
+     */
+    public boolean put(Long restaurantId, long sequence, String name, Double latitude, Double longitude) {
+        lock.writeLock().lock();
+        try {
+            Long applied = sequences.get(restaurantId);
+            if (applied != null && applied > sequence) {
+                return false;
+            }
+            sequences.put(restaurantId, sequence);
+
+            Entry previous = entries.remove(restaurantId);
+            if (previous != null) {
+                List<Entry> cell = cells.get(previous.cell());
+                cell.remove(previous);
+                if (cell.isEmpty()) {
+                    cells.remove(previous.cell());
+                }
+            }
+            if (latitude == null || longitude == null) {
+                return true;
+            }
+
+            Entry entry = new Entry(restaurantId, name, latitude, longitude, cellOf(latitude, longitude));
+            entries.put(restaurantId, entry);
+            cells.computeIfAbsent(entry.cell(), key -> new ArrayList<>()).add(entry);
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Finds the restaurants closest to a point by great-circle distance.
+     *
+     * @param limit           Maximum number of restaurants (K)
+     * @param maxRadiusMeters Restaurants farther away are never returned
+     * @return Up to {@code limit} restaurants, nearest first
+     */
+    public List<NearbyRestaurant> nearest(double latitude, double longitude, int limit, double maxRadiusMeters) {
+        if (limit <= 0 || !(maxRadiusMeters > 0)) {
+            return List.of();
+        }
+        // Max-heap on distance: the root is the worst of the best K so far
+        PriorityQueue<NearbyRestaurant> best = new PriorityQueue<>(limit + 1,
+                Comparator.comparingDouble(NearbyRestaurant::getDistanceMeters).reversed());
+
+        lock.readLock().lock();
+        try {
+            double radius = Math.min(cellSizeDegrees * METERS_PER_DEGREE, maxRadiusMeters);
+            while (true) {
+                best.clear();
+                scan(latitude, longitude, radius, limit, best);
+                if (best.size() >= limit || radius >= maxRadiusMeters) {
+                    break;
+                }
+                radius = Math.min(radius * 2, maxRadiusMeters);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        List<NearbyRestaurant> result = new ArrayList<>(best);
+        result.sort(Comparator.comparingDouble(NearbyRestaurant::getDistanceMeters));
+        return result;
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return entries.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Offers every restaurant within radius of the point to the heap
+    private void scan(double latitude, double longitude, double radius, int limit,
+            PriorityQueue<NearbyRestaurant> best) {
+        double angular = radius / EARTH_RADIUS_METERS;
+        double latRad = Math.toRadians(latitude);
+        double minLat = Math.toDegrees(latRad - angular);
+        double maxLat = Math.toDegrees(latRad + angular);
+
+        // Bounding box of the circle; all longitudes if it reaches a pole
+        int firstColumn;
+        int columnCount;
+        if (minLat <= -90 || maxLat >= 90) {
+            firstColumn = 0;
+            columnCount = columns;
+        } else {
+            double deltaLon = Math.toDegrees(Math.asin(Math.sin(angular) / Math.cos(latRad)));
+            firstColumn = column(longitude - deltaLon);
+            columnCount = Math.min(columns, column(longitude + deltaLon) - firstColumn + 1);
+        }
+        int firstRow = row(Math.max(minLat, -90));
+        int lastRow = row(Math.min(maxLat, 90));
+
+        for (int row = firstRow; row <= lastRow; row++) {
+            for (int i = 0; i < columnCount; i++) {
+                // Wraps around the antimeridian
+                List<Entry> cell = cells.get(cellKey(row, Math.floorMod(firstColumn + i, columns)));
+                if (cell == null) {
+                    continue;
+                }
+                for (Entry entry : cell) {
+                    double distance = distanceMeters(latitude, longitude, entry.latitude(), entry.longitude());
+                    if (distance > radius) {
+                        continue;
+                    }
+                    if (best.size() < limit) {
+                        best.add(toResult(entry, distance));
+                    } else if (distance < best.peek().getDistanceMeters()) {
+                        best.poll();
+                        best.add(toResult(entry, distance));
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Haversine distance between two points.
+     */
+    static double distanceMeters(double lat1, double lon1, double lat2, double lon2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLon = Math.toRadians(lon2 - lon1);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2))
+                * Math.sin(dLon / 2) * Math.sin(dLon / 2);
+        return 2 * EARTH_RADIUS_METERS * Math.asin(Math.min(1, Math.sqrt(a)));
+    }
+
+    private static NearbyRestaurant toResult(Entry entry, double distance) {
+        return new NearbyRestaurant(entry.restaurantId(), entry.name(), entry.latitude(), entry.longitude(),
+                distance);
+    }
+
+    private long cellOf(double latitude, double longitude) {
+        return cellKey(row(latitude), Math.floorMod(column(longitude), columns));
+    }
+
+    private long cellKey(int row, int column) {
+        return (long) row * columns + column;
+    }
+
+    private int row(double latitude) {
+        return Math.min(rows - 1, (int) Math.floor((latitude + 90) / cellSizeDegrees));
+    }
+
+    // Not wrapped: callers wrap with floorMod
+    private int column(double longitude) {
+        return (int) Math.floor((longitude + 180) / cellSizeDegrees);
+    }
+}
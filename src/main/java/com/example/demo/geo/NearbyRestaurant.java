@@ -0,0 +1,42 @@
+package com.example.demo.geo;
+
+/**
+ * One result of a nearby-restaurant search.
+ */
+public class NearbyRestaurant {
+
+    private final Long restaurantId;
+    private final String name;
+    private final double latitude;
+    private final double longitude;
+    private final double distanceMeters;
+
+    public NearbyRestaurant(Long restaurantId, String name, double latitude, double longitude,
+            double distanceMeters) {
+        this.restaurantId = restaurantId;
+        this.name = name;
+        this.latitude = latitude;
+        this.longitude = longitude;
+        this.distanceMeters = distanceMeters;
+    }
+
+    public Long getRestaurantId() {
+        return restaurantId;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public double getLatitude() {
+        return latitude;
+    }
+
+    public double getLongitude() {
+        return longitude;
+    }
+
+    public double getDistanceMeters() {
+        return distanceMeters;
+    }
+}
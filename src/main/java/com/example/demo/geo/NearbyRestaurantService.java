@@ -0,0 +1,179 @@
+package com.example.demo.geo;
+
+import com.example.demo.audit.AuditLogger;
+import com.example.demo.entity.Address;
+import com.example.demo.repository.AddressRepository;
+import com.example.demo.repository.RestaurantRepository;
+import com.example.demo.repository.RestaurantRepository.RestaurantLocationRow;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Nearby-restaurant discovery backed by an in-memory {@link GeoGridIndex}, so
+ * finding the closest restaurants to an address does not touch the database.
+ *
+ * The index is loaded from the database once the application is ready and a
+ * restaurant is reloaded in the background after a
+ * {@link RestaurantLocationChangedEvent} commits. Customer addresses are
+ * located with {@link #updateAddressLocation} and read from the database at
+ * query time.
+ */
+@Service
+public class NearbyRestaurantService {
+
+    public static final int DEFAULT_LIMIT = 10;
+    public static final int MAX_LIMIT = 50;
+
+    private final AuditLogger audit = AuditLogger.getInstance();
+
+    private final AtomicLong loadSequence = new AtomicLong();
+    private final GeoGridIndex index;
+
+    private final RestaurantRepository restaurantRepository;
+    private final AddressRepository addressRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final int rebuildBatchSize;
+    private final double maxRadiusMeters;
+
+    public NearbyRestaurantService(RestaurantRepository restaurantRepository, AddressRepository addressRepository,
+            PlatformTransactionManager transactionManager,
+            @Value("${nearby.index.cell-size-degrees:0.05}") double cellSizeDegrees,
+            @Value("${nearby.index.rebuild-batch-size:1000}") int rebuildBatchSize,
+            @Value("${nearby.max-radius-km:30}") double maxRadiusKm) {
+        this.restaurantRepository = restaurantRepository;
+        this.addressRepository = addressRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.index = new GeoGridIndex(cellSizeDegrees);
+        this.rebuildBatchSize = rebuildBatchSize;
+        this.maxRadiusMeters = maxRadiusKm * 1000;
+    }
+
+    /**
+     * Restaurants closest to a point.
+     *
+     * @param limit Maximum number of restaurants, clamped to {@link #MAX_LIMIT}
+     * @return Restaurants within {@code nearby.max-radius-km}, nearest first
+     * @throws IllegalArgumentException if the coordinates are missing or out of range
+     */
+    public List<NearbyRestaurant> findNearby(Double latitude, Double longitude, Integer limit) {
+        GeoGridIndex.checkCoordinates(latitude, longitude);
+        int size = limit == null ? DEFAULT_LIMIT : Math.max(1, Math.min(limit, MAX_LIMIT));
+        return index.nearest(latitude, longitude, size, maxRadiusMeters);
+    }
+
+    /**
+     * Sets where a saved address is, so nearby search can start from it.
+     *
+     * @throws IllegalArgumentException if the address does not exist or the coordinates are invalid
+     */
+    @Transactional
+    public void updateAddressLocation(Long addressId, Double latitude, Double longitude) {
+        GeoGridIndex.checkCoordinates(latitude, longitude);
+        Address address = addressRepository.findById(addressId)
+                .orElseThrow(() -> new IllegalArgumentException("Address not found"));
+        address.setLatitude(latitude);
+        address.setLongitude(longitude);
+    }
+
+    /**
+     * Restaurants closest to a saved address.
+     *
+     * @throws IllegalArgumentException if the address does not exist or has no coordinates
+     */
+    public List<NearbyRestaurant> findNearbyAddress(Long addressId, Integer limit) {
+        AddressRepository.AddressLocationRow address = addressRepository.findLocationById(addressId)
+                .orElseThrow(() -> new IllegalArgumentException("Address not found"));
+        if (address.getLatitude() == null || address.getLongitude() == null) {
+            throw new IllegalArgumentException("Address has no coordinates");
+        }
+        return findNearby(address.getLatitude(), address.getLongitude(), limit);
+    }
+
+    /**
+     * Restaurants closest to the oldest geocoded address of a user, or an empty
+     * list if the user has none.
+     */
+    public List<NearbyRestaurant> findNearbyUser(Long userId, Integer limit) {
+        List<AddressRepository.AddressLocationRow> addresses = addressRepository.findLocatedByUserId(userId,
+                Limit.of(1));
+        if (addresses.isEmpty()) {
+            return List.of();
+        }
+        return findNearby(addresses.get(0).getLatitude(), addresses.get(0).getLongitude(), limit);
+    }
+
+    /**
+     * Loads every located restaurant into the index, a batch per read-only
+     * transaction. Location changes committed meanwhile are applied as they
+     * come; the sequence numbers keep a batch loaded earlier from overwriting
+     * them.
+     */
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long started = System.nanoTime();
+        try {
+            Long afterId = 0L;
+            while (afterId != null) {
+                Long from = afterId;
+                afterId = readOnlyTransaction.execute(status -> indexBatch(from));
+            }
+            audit.info("nearby.index.rebuilt", "restaurants", index.size(),
+                    "durationMs", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+        } catch (RuntimeException e) {
+            audit.error("nearby.index.rebuild_failed", "error", e.getMessage());
+        }
+    }
+
+    /**
+     * Reloads a restaurant after its location changed. Runs on the task
+     * executor once the change is committed.
+     */
+    @Async
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onLocationChanged(RestaurantLocationChangedEvent event) {
+        Long restaurantId = event.getRestaurantId();
+        if (restaurantId == null) {
+            return;
+        }
+        try {
+            long sequence = loadSequence.incrementAndGet();
+            RestaurantLocationRow row = readOnlyTransaction.execute(
+                    status -> restaurantRepository.findLocationById(restaurantId).orElse(null));
+            if (row != null) {
+                index.put(restaurantId, sequence, row.getName(), row.getLatitude(), row.getLongitude());
+            } else {
+                index.put(restaurantId, sequence, null, null, null);
+            }
+        } catch (RuntimeException e) {
+            audit.warn("nearby.index.update_failed", "restaurantId", restaurantId, "error", e.getMessage());
+        }
+    }
+
+    /**
+     * @return ID of the last restaurant indexed, or null if there are no more
+     */
+    private Long indexBatch(Long afterId) {
+        long sequence = loadSequence.incrementAndGet();
+        List<RestaurantLocationRow> rows = restaurantRepository.findLocationPageAfter(afterId,
+                Limit.of(rebuildBatchSize));
+        for (RestaurantLocationRow row : rows) {
+            index.put(row.getId(), sequence, row.getName(), row.getLatitude(), row.getLongitude());
+        }
+        return rows.size() < rebuildBatchSize ? null : rows.get(rows.size() - 1).getId();
+    }
+}
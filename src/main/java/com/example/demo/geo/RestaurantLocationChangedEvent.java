@@ -0,0 +1,18 @@
+package com.example.demo.geo;
+
+/**
+ * Published as a Spring application event when a restaurant's location is set
+ * or changed.
+ */
+public class RestaurantLocationChangedEvent {
+
+    private final Long restaurantId;
+
+    public RestaurantLocationChangedEvent(Long restaurantId) {
+        this.restaurantId = restaurantId;
+    }
+
+    public Long getRestaurantId() {
+        return restaurantId;
+    }
+}
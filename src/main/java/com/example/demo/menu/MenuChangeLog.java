@@ -0,0 +1,174 @@
+package com.example.demo.menu;
+
+import com.example.demo.audit.AuditLogger;
+import com.example.demo.dto.MenuDelta;
+import com.example.demo.entity.MenuChange;
+import com.example.demo.enums.MenuChangeOperation;
+import com.example.demo.enums.MenuEntityType;
+import com.example.demo.repository.CategoryRepository;
+import com.example.demo.repository.FoodItemRepository;
+import com.example.demo.repository.MenuChangeRepository;
+import com.example.demo.repository.RestaurantRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Per-restaurant menu versions and the log of what changed in each, so clients
+ * holding a menu can fetch only what changed since their version.
+ *
+ * Every transaction that changes a menu claims the next version of that
+ * restaurant once, and logs the key and operation of each changed category or
+ * food item under it. Claiming the version locks the restaurant row until
+ * commit, so versions become visible in order and a client that has seen
+ * version N has seen every change up to N.
+ *
+ * The log only holds keys; deltas carry the current state of changed entities.
+ * Compaction therefore keeps only the newest entry per entity, and drops
+ * tombstones after {@code menu.changes.tombstone-retention}, raising the
+ * restaurant's log floor: clients older than the floor resync in full.
+ */
+@Service
+public class MenuChangeLog {
+
+    private final AuditLogger audit = AuditLogger.getInstance();
+
+    private final MenuChangeRepository menuChangeRepository;
+    private final RestaurantRepository restaurantRepository;
+    private final CategoryRepository categoryRepository;
+    private final FoodItemRepository foodItemRepository;
+    private final Duration tombstoneRetention;
+
+    public MenuChangeLog(MenuChangeRepository menuChangeRepository, RestaurantRepository restaurantRepository,
+            CategoryRepository categoryRepository, FoodItemRepository foodItemRepository,
+            @Value("${menu.changes.tombstone-retention:30d}") Duration tombstoneRetention) {
+        this.menuChangeRepository = menuChangeRepository;
+        this.restaurantRepository = restaurantRepository;
+        this.categoryRepository = categoryRepository;
+        this.foodItemRepository = foodItemRepository;
+        this.tombstoneRetention = tombstoneRetention;
+    }
+
+    /**
+     * Logs a change to a category or food item under the menu version of the
+     * current transaction.
+     *
+     * @throws IllegalArgumentException if the restaurant does not exist
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void record(Long restaurantId, MenuEntityType entityType, Long entityId, MenuChangeOperation operation) {
+        long version = claimVersion(restaurantId);
+        menuChangeRepository.save(new MenuChange(restaurantId, version, entityType, entityId, operation,
+                LocalDateTime.now()));
+    }
+
+    /**
+     * Changes to the menu of a restaurant since version {@code since}.
+     *
+     * @throws IllegalArgumentException if the restaurant does not exist
+     */
+    @Transactional(readOnly = true)
+    public MenuDelta getChanges(Long restaurantId, long since) {
+        RestaurantRepository.MenuVersionRow current = restaurantRepository.findMenuVersionById(restaurantId)
+                .orElseThrow(() -> new IllegalArgumentException("Restaurant not found"));
+        long version = current.getMenuVersion();
+        if (since < current.getMenuLogFloor() || since > version) {
+            return MenuDelta.fullResync(restaurantId, since, version);
+        }
+
+        // Bounded by the version read above; later changes are served next time
+        Set<Long> upsertedCategories = new HashSet<>();
+        Set<Long> upsertedFoodItems = new HashSet<>();
+        List<Long> deletedCategories = new ArrayList<>();
+        List<Long> deletedFoodItems = new ArrayList<>();
+        for (MenuChangeRepository.LatestChangeRow row : menuChangeRepository.findLatestChanges(
+                restaurantId, since, version)) {
+            boolean category = MenuEntityType.CATEGORY.name().equals(row.getEntityType());
+            if (MenuChangeOperation.DELETE.name().equals(row.getOperation())) {
+                (category ? deletedCategories : deletedFoodItems).add(row.getEntityId());
+            } else {
+                (category ? upsertedCategories : upsertedFoodItems).add(row.getEntityId());
+            }
+        }
+
+        List<MenuDelta.CategoryState> categories = new ArrayList<>();
+        if (!upsertedCategories.isEmpty()) {
+            for (CategoryRepository.CategoryDeltaRow row : categoryRepository.findDeltaRows(
+                    restaurantId, upsertedCategories)) {
+                categories.add(new MenuDelta.CategoryState(row.getId(), row.getName(), row.getParentId()));
+                upsertedCategories.remove(row.getId());
+            }
+            // Deleted by a transaction that committed after the version was read
+            deletedCategories.addAll(upsertedCategories);
+        }
+
+        List<MenuDelta.FoodItemState> foodItems = new ArrayList<>();
+        if (!upsertedFoodItems.isEmpty()) {
+            for (FoodItemRepository.FoodItemDeltaRow row : foodItemRepository.findDeltaRows(
+                    restaurantId, upsertedFoodItems)) {
+                foodItems.add(new MenuDelta.FoodItemState(row.getId(), row.getCategoryId(), row.getName(),
+                        row.getBasePrice(), row.getVersion(), row.getAvailableAdditions()));
+                upsertedFoodItems.remove(row.getId());
+            }
+            deletedFoodItems.addAll(upsertedFoodItems);
+        }
+
+        return new MenuDelta(restaurantId, since, version, false, categories, foodItems,
+                deletedCategories, deletedFoodItems);
+    }
+
+    /**
+     * Keeps the newest entry per category / food item and drops expired
+     * tombstones.
+     */
+    @Scheduled(fixedDelayString = "${menu.changes.compaction-interval:1h}")
+    @Transactional
+    public void compact() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(tombstoneRetention);
+        int superseded = menuChangeRepository.deleteSuperseded();
+        int floorsRaised = menuChangeRepository.raiseFloorsForTombstonesBefore(cutoff);
+        int tombstones = menuChangeRepository.deleteTombstonesBefore(cutoff);
+        audit.info("menu.changes.compacted", "superseded", superseded, "tombstones", tombstones,
+                "floorsRaised", floorsRaised);
+    }
+
+    // One version per restaurant per transaction, however many entities it changes
+    private long claimVersion(Long restaurantId) {
+        @SuppressWarnings("unchecked")
+        Map<Long, Long> claimed = (Map<Long, Long>) TransactionSynchronizationManager.getResource(this);
+        if (claimed == null) {
+            Map<Long, Long> versions = new HashMap<>();
+            TransactionSynchronizationManager.bindResource(this, versions);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(MenuChangeLog.this);
+                }
+            });
+            claimed = versions;
+        }
+
+        Long version = claimed.get(restaurantId);
+        if (version == null) {
+            version = restaurantRepository.incrementMenuVersion(restaurantId);
+            if (version == null) {
+                throw new IllegalArgumentException("Restaurant not found");
+            }
+            claimed.put(restaurantId, version);
+        }
+        return version;
+    }
+}
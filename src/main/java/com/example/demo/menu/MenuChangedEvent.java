@@ -0,0 +1,18 @@
+package com.example.demo.menu;
+
+/**
+ * Published as a Spring application event when a restaurant's categories or
+ * food items change.
+ */
+public class MenuChangedEvent {
+
+    private final Long restaurantId;
+
+    public MenuChangedEvent(Long restaurantId) {
+        this.restaurantId = restaurantId;
+    }
+
+    public Long getRestaurantId() {
+        return restaurantId;
+    }
+}
@@ -0,0 +1,171 @@
+package com.example.demo.menu;
+
+import com.example.demo.repository.FoodItemRepository;
+import com.example.demo.repository.FoodItemRepository.FoodItemExportRow;
+import com.example.demo.repository.RestaurantRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Writes the full menu of a restaurant, one food item per line, as JSON lines
+ * or CSV.
+ *
+ * Rows are read from a server-side cursor and written to the output as they
+ * arrive, so memory use stays the same whatever the size of the menu. Nothing
+ * is collected into lists and Jackson only ever sees one row.
+ */
+@Service
+public class MenuExportService {
+
+    public enum Format {
+        JSON_LINES("application/x-ndjson", "jsonl"),
+        CSV("text/csv;charset=UTF-8", "csv");
+
+        private final String contentType;
+        private final String fileExtension;
+
+        Format(String contentType, String fileExtension) {
+            this.contentType = contentType;
+            this.fileExtension = fileExtension;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        public String getFileExtension() {
+            return fileExtension;
+        }
+
+        /**
+         * @throws IllegalArgumentException if the format is not jsonl or csv
+         */
+        public static Format fromParameter(String value) {
+            if (value == null || value.isBlank()) {
+                return JSON_LINES;
+            }
+            return switch (value.toLowerCase(Locale.ROOT)) {
+                case "jsonl", "ndjson" -> JSON_LINES;
+                case "csv" -> CSV;
+                default -> throw new IllegalArgumentException("Unsupported export format: " + value);
+            };
+        }
+    }
+
+    private static final String CSV_HEADER =
+            "foodItemId,name,basePrice,version,categoryId,categoryName,parentCategoryId,availableAdditions\n";
+
+    private final FoodItemRepository foodItemRepository;
+    private final RestaurantRepository restaurantRepository;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate readOnlyTransaction;
+
+    public MenuExportService(FoodItemRepository foodItemRepository, RestaurantRepository restaurantRepository,
+            ObjectMapper objectMapper, PlatformTransactionManager transactionManager) {
+        this.foodItemRepository = foodItemRepository;
+        this.restaurantRepository = restaurantRepository;
+        this.objectMapper = objectMapper;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    /**
+     * Checks the restaurant up front, so a missing one is reported before the
+     * response is committed.
+     *
+     * @throws IllegalArgumentException if the restaurant does not exist
+     */
+    public void requireRestaurant(Long restaurantId) {
+        if (!restaurantRepository.existsById(restaurantId)) {
+            throw new IllegalArgumentException("Restaurant not found");
+        }
+    }
+
+    /**
+     * Streams the menu to {@code out}. The read-only transaction stays open
+     * until the last row is written.
+     */
+    public void export(Long restaurantId, Format format, OutputStream out) {
+        OutputStream buffered = new BufferedOutputStream(out, 16 * 1024);
+        readOnlyTransaction.executeWithoutResult(status -> {
+            try (Stream<FoodItemExportRow> rows = foodItemRepository.streamExportRowsByRestaurantId(restaurantId)) {
+                if (format == Format.CSV) {
+                    buffered.write(CSV_HEADER.getBytes(StandardCharsets.UTF_8));
+                }
+                Iterator<FoodItemExportRow> it = rows.iterator();
+                while (it.hasNext()) {
+                    FoodItemExportRow row = it.next();
+                    buffered.write(format == Format.CSV ? csvLine(row) : jsonLine(row));
+                }
+                buffered.flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    private byte[] jsonLine(FoodItemExportRow row) {
+        Map<String, Object> line = new LinkedHashMap<>();
+        line.put("foodItemId", row.getId());
+        line.put("name", row.getName());
+        line.put("basePrice", row.getBasePrice());
+        line.put("version", row.getVersion());
+        line.put("categoryId", row.getCategoryId());
+        line.put("categoryName", row.getCategoryName());
+        line.put("parentCategoryId", row.getParentCategoryId());
+        line.put("availableAdditions", row.getAvailableAdditions() != null ? row.getAvailableAdditions() : Map.of());
+
+        byte[] json = objectMapper.writeValueAsBytes(line);
+        byte[] withNewline = new byte[json.length + 1];
+        System.arraycopy(json, 0, withNewline, 0, json.length);
+        withNewline[json.length] = '\n';
+        return withNewline;
+    }
+
+    private static byte[] csvLine(FoodItemExportRow row) {
+        StringBuilder additions = new StringBuilder();
+        if (row.getAvailableAdditions() != null) {
+            for (Map.Entry<String, Double> entry : row.getAvailableAdditions().entrySet()) {
+                if (!additions.isEmpty()) {
+                    additions.append(';');
+                }
+                additions.append(entry.getKey()).append('=').append(entry.getValue());
+            }
+        }
+
+        StringBuilder line = new StringBuilder(128);
+        line.append(row.getId()).append(',')
+                .append(csvField(row.getName())).append(',')
+                .append(row.getBasePrice() != null ? row.getBasePrice() : "").append(',')
+                .append(row.getVersion() != null ? row.getVersion() : "").append(',')
+                .append(row.getCategoryId()).append(',')
+                .append(csvField(row.getCategoryName())).append(',')
+                .append(row.getParentCategoryId() != null ? row.getParentCategoryId() : "").append(',')
+                .append(csvField(additions.toString())).append('\n');
+        return line.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    // RFC 4180: quote fields containing a separator, quote or line break
+    private static String csvField(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
@@ -0,0 +1,113 @@
+package com.example.demo.menu;
+
+import com.example.demo.enums.SubmissionStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * Client-visible state of a menu import. Updated by the importing thread after
+ * every flushed batch and read by status polls.
+ */
+public class MenuImportJob {
+
+    private final String reference;
+    private final Long restaurantId;
+    private final int totalCategories;
+    private final int totalFoodItems;
+    private final LocalDateTime submittedAt;
+
+    private volatile SubmissionStatus status = SubmissionStatus.QUEUED;
+    private volatile int importedCategories;
+    private volatile int importedFoodItems;
+    private volatile String error;
+    private volatile LocalDateTime updatedAt;
+
+    MenuImportJob(String reference, Long restaurantId, int totalCategories, int totalFoodItems) {
+        this.reference = reference;
+        this.restaurantId = restaurantId;
+        this.totalCategories = totalCategories;
+        this.totalFoodItems = totalFoodItems;
+        this.submittedAt = LocalDateTime.now();
+        this.updatedAt = submittedAt;
+    }
+
+    void markProcessing() {
+        this.status = SubmissionStatus.PROCESSING;
+        this.updatedAt = LocalDateTime.now();
+    }
+
+    void markProgress(int importedCategories, int importedFoodItems) {
+        this.importedCategories = importedCategories;
+        this.importedFoodItems = importedFoodItems;
+        this.updatedAt = LocalDateTime.now();
+    }
+
+    void markCompleted() {
+        this.updatedAt = LocalDateTime.now();
+        this.status = SubmissionStatus.COMPLETED;
+    }
+
+    void markFailed(String error) {
+        // Nothing was committed, so nothing counts as imported
+        this.importedCategories = 0;
+        this.importedFoodItems = 0;
+        this.error = error;
+        this.updatedAt = LocalDateTime.now();
+        this.status = SubmissionStatus.FAILED;
+    }
+
+    public boolean isFinished() {
+        return status == SubmissionStatus.COMPLETED || status == SubmissionStatus.FAILED;
+    }
+
+    /**
+     * @return Share of the menu written so far, 0-100
+     */
+    public int getProgressPercent() {
+        if (status == SubmissionStatus.COMPLETED) {
+            return 100;
+        }
+        int total = totalCategories + totalFoodItems;
+        return total == 0 ? 0 : (int) ((importedCategories + importedFoodItems) * 100L / total);
+    }
+
+    public String getReference() {
+        return reference;
+    }
+
+    public Long getRestaurantId() {
+        return restaurantId;
+    }
+
+    public SubmissionStatus getStatus() {
+        return status;
+    }
+
+    public int getTotalCategories() {
+        return totalCategories;
+    }
+
+    public int getTotalFoodItems() {
+        return totalFoodItems;
+    }
+
+    public int getImportedCategories() {
+        return importedCategories;
+    }
+
+    public int getImportedFoodItems() {
+        return importedFoodItems;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public LocalDateTime getSubmittedAt() {
+        return submittedAt;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+}
@@ -0,0 +1,313 @@
+package com.example.demo.menu;
+
+import com.example.demo.audit.AuditLogger;
+import com.example.demo.dto.MenuImportRequest;
+import com.example.demo.entity.Category;
+import com.example.demo.entity.FoodItem;
+import com.example.demo.entity.Restaurant;
+import com.example.demo.enums.MenuChangeOperation;
+import com.example.demo.enums.MenuEntityType;
+import com.example.demo.enums.SubmissionStatus;
+import com.example.demo.repository.RestaurantRepository;
+import jakarta.persistence.EntityManager;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Imports a whole menu document (category tree, food items and their
+ * additions) for a restaurant.
+ *
+ * The document is validated in memory first; nothing is written unless all of
+ * it is valid. It is then written in one transaction: entities are persisted
+ * with pooled sequence ids and flushed every {@code menu.import.flush-size}
+ * rows, which Hibernate sends as JDBC batches (hibernate.jdbc.batch_size), and
+ * the persistence context is cleared after each flush so it never holds more
+ * than one batch. Parents are referenced by id, so no collection is loaded.
+ *
+ * Progress is reported on a {@link MenuImportJob} after every flush. Jobs live
+ * in memory and are forgotten some time after they finish.
+ */
+@Service
+public class MenuImportService {
+
+    // Deeper trees are almost certainly a malformed document
+    private static final int MAX_DEPTH = 16;
+    // Keep error responses readable for badly broken documents
+    private static final int MAX_REPORTED_ERRORS = 20;
+
+    private final AuditLogger audit = AuditLogger.getInstance();
+
+    private final RestaurantRepository restaurantRepository;
+    private final EntityManager entityManager;
+    private final MenuChangeLog menuChangeLog;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transaction;
+    private final TaskExecutor taskExecutor;
+    private final int flushSize;
+    private final int maxFoodItems;
+    private final Duration retention;
+
+    private final ConcurrentHashMap<String, MenuImportJob> jobs = new ConcurrentHashMap<>();
+
+    public MenuImportService(RestaurantRepository restaurantRepository, EntityManager entityManager,
+            MenuChangeLog menuChangeLog, ApplicationEventPublisher eventPublisher, PlatformTransactionManager transactionManager,
+            @Qualifier("applicationTaskExecutor") TaskExecutor taskExecutor,
+            @Value("${menu.import.flush-size:500}") int flushSize,
+            @Value("${menu.import.max-food-items:20000}") int maxFoodItems,
+            @Value("${menu.import.retention:1h}") Duration retention) {
+        this.restaurantRepository = restaurantRepository;
+        this.entityManager = entityManager;
+        this.menuChangeLog = menuChangeLog;
+        this.eventPublisher = eventPublisher;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.taskExecutor = taskExecutor;
+        this.flushSize = flushSize;
+        this.maxFoodItems = maxFoodItems;
+        this.retention = retention;
+    }
+
+    /**
+     * Imports the menu on the calling thread.
+     *
+     * @return The finished job
+     * @throws IllegalArgumentException if the restaurant does not exist or the document is invalid
+     */
+    public MenuImportJob importMenu(Long restaurantId, MenuImportRequest request) {
+        MenuImportJob job = prepare(restaurantId, request);
+        run(job, request);
+        if (job.getStatus() != SubmissionStatus.COMPLETED) {
+            throw new IllegalStateException(job.getError());
+        }
+        return job;
+    }
+
+    /**
+     * Validates the menu now and imports it on the task executor.
+     *
+     * @return The queued job to poll
+     * @throws IllegalArgumentException   if the restaurant does not exist or the document is invalid
+     * @throws RejectedExecutionException if the executor does not accept more work
+     */
+    public MenuImportJob submit(Long restaurantId, MenuImportRequest request) {
+        MenuImportJob job = prepare(restaurantId, request);
+        try {
+            taskExecutor.execute(() -> run(job, request));
+        } catch (RejectedExecutionException e) {
+            jobs.remove(job.getReference());
+            throw e;
+        }
+        return job;
+    }
+
+    public Optional<MenuImportJob> getJob(Long restaurantId, String reference) {
+        MenuImportJob job = jobs.get(reference);
+        return job != null && job.getRestaurantId().equals(restaurantId) ? Optional.of(job) : Optional.empty();
+    }
+
+    /**
+     * Forgets finished jobs once clients had time to poll them.
+     */
+    @Scheduled(fixedDelayString = "${menu.import.cleanup-interval:5m}")
+    public void purgeFinished() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(retention);
+        jobs.values().removeIf(job -> job.isFinished() && job.getUpdatedAt().isBefore(cutoff));
+    }
+
+    private MenuImportJob prepare(Long restaurantId, MenuImportRequest request) {
+        if (!restaurantRepository.existsById(restaurantId)) {
+            throw new IllegalArgumentException("Restaurant not found");
+        }
+
+        Validation validation = new Validation();
+        List<MenuImportRequest.CategoryImport> categories =
+                request.getCategories() != null ? request.getCategories() : List.of();
+        if (categories.isEmpty()) {
+            validation.error("categories", "menu must contain at least one category");
+        }
+        for (int i = 0; i < categories.size(); i++) {
+            validation.category(categories.get(i), "categories[" + i + "]", 1);
+        }
+        if (validation.foodItems > maxFoodItems) {
+            validation.error("categories", "menu has " + validation.foodItems
+                    + " food items, at most " + maxFoodItems + " can be imported at once");
+        }
+        if (!validation.errors.isEmpty()) {
+            throw new IllegalArgumentException("Invalid menu: " + String.join("; ", validation.errors));
+        }
+
+        MenuImportJob job = new MenuImportJob(UUID.randomUUID().toString(), restaurantId,
+                validation.categories, validation.foodItems);
+        jobs.put(job.getReference(), job);
+        return job;
+    }
+
+    private void run(MenuImportJob job, MenuImportRequest request) {
+        job.markProcessing();
+        long started = System.nanoTime();
+        try {
+            transaction.executeWithoutResult(status -> {
+                Writer writer = new Writer(job);
+                for (MenuImportRequest.CategoryImport category : request.getCategories()) {
+                    writer.category(category, null);
+                }
+                writer.flush();
+                // One event for the whole import; snapshot and search index reload once
+                eventPublisher.publishEvent(new MenuChangedEvent(job.getRestaurantId()));
+            });
+            job.markCompleted();
+            audit.info("menu.import.completed", "restaurantId", job.getRestaurantId(),
+                    "foodItems", job.getTotalFoodItems(),
+                    "durationMs", Duration.ofNanos(System.nanoTime() - started).toMillis());
+        } catch (RuntimeException e) {
+            job.markFailed(e.getMessage());
+            audit.warn("menu.import.failed", "restaurantId", job.getRestaurantId(),
+                    "error", e.getClass().getSimpleName());
+        }
+    }
+
+    /**
+     * Collects every problem of the document, with its path, and counts what
+     * will be written.
+     */
+    private final class Validation {
+        final List<String> errors = new ArrayList<>();
+        int categories;
+        int foodItems;
+
+        void category(MenuImportRequest.CategoryImport category, String path, int depth) {
+            if (category == null) {
+                error(path, "category is missing");
+                return;
+            }
+            categories++;
+            if (depth > MAX_DEPTH) {
+                error(path, "categories can be nested at most " + MAX_DEPTH + " levels deep");
+                return;
+            }
+            if (category.getName() == null || category.getName().isBlank()) {
+                error(path + ".name", "category name is required");
+            }
+            List<MenuImportRequest.FoodItemImport> items = category.getFoodItems();
+            for (int i = 0; i < items.size(); i++) {
+                foodItem(items.get(i), path + ".foodItems[" + i + "]");
+            }
+            List<MenuImportRequest.CategoryImport> children = category.getSubCategories();
+            for (int i = 0; i < children.size(); i++) {
+                category(children.get(i), path + ".subCategories[" + i + "]", depth + 1);
+            }
+        }
+
+        void foodItem(MenuImportRequest.FoodItemImport foodItem, String path) {
+            if (foodItem == null) {
+                error(path, "food item is missing");
+                return;
+            }
+            foodItems++;
+            if (foodItem.getName() == null || foodItem.getName().isBlank()) {
+                error(path + ".name", "food item name is required");
+            }
+            Double basePrice = foodItem.getBasePrice();
+            if (basePrice == null || !(basePrice > 0) || basePrice.isInfinite()) {
+                error(path + ".basePrice", "base price must be positive");
+            }
+            Map<String, Double> additions = foodItem.getAvailableAdditions();
+            if (additions == null) {
+                return;
+            }
+            if (additions.size() > FoodItem.MAX_ADDITION_SLOTS) {
+                error(path + ".availableAdditions", "at most " + FoodItem.MAX_ADDITION_SLOTS + " additions");
+            }
+            for (Map.Entry<String, Double> addition : additions.entrySet()) {
+                if (addition.getKey() == null || addition.getKey().isBlank()) {
+                    error(path + ".availableAdditions", "addition name is required");
+                }
+                Double price = addition.getValue();
+                if (price == null || !(price >= 0) || price.isInfinite()) {
+                    error(path + ".availableAdditions." + addition.getKey(), "price must be zero or positive");
+                }
+            }
+        }
+
+        void error(String path, String message) {
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add(path + ": " + message);
+            }
+        }
+    }
+
+    /**
+     * Persists the tree depth-first inside the import transaction.
+     */
+    private final class Writer {
+        final MenuImportJob job;
+        int categories;
+        int foodItems;
+        int pending;
+
+        Writer(MenuImportJob job) {
+            this.job = job;
+        }
+
+        void category(MenuImportRequest.CategoryImport source, Long parentId) {
+            Category category = new Category();
+            category.setName(source.getName());
+            category.setRestaurant(entityManager.getReference(Restaurant.class, job.getRestaurantId()));
+            if (parentId != null) {
+                category.setParentCategory(entityManager.getReference(Category.class, parentId));
+            }
+            entityManager.persist(category);
+            // Pooled sequence: the id is known without a round trip, and stays
+            // usable as a reference after the context is cleared
+            Long categoryId = category.getId();
+            menuChangeLog.record(job.getRestaurantId(), MenuEntityType.CATEGORY, categoryId,
+                    MenuChangeOperation.UPSERT);
+            categories++;
+            written();
+
+            for (MenuImportRequest.FoodItemImport item : source.getFoodItems()) {
+                FoodItem foodItem = new FoodItem();
+                foodItem.setName(item.getName());
+                foodItem.setBasePrice(item.getBasePrice());
+                foodItem.setAvailableAdditions(item.getAvailableAdditions());
+                foodItem.setCategory(entityManager.getReference(Category.class, categoryId));
+                entityManager.persist(foodItem);
+                menuChangeLog.record(job.getRestaurantId(), MenuEntityType.FOOD_ITEM, foodItem.getId(),
+                        MenuChangeOperation.UPSERT);
+                foodItems++;
+                written();
+            }
+            for (MenuImportRequest.CategoryImport child : source.getSubCategories()) {
+                category(child, categoryId);
+            }
+        }
+
+        void written() {
+            if (++pending >= flushSize) {
+                flush();
+            }
+        }
+
+        void flush() {
+            entityManager.flush();
+            entityManager.clear();
+            pending = 0;
+            job.markProgress(categories, foodItems);
+        }
+    }
+}
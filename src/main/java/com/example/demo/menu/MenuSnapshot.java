@@ -0,0 +1,49 @@
+package com.example.demo.menu;
+
+import java.time.Instant;
+
+/**
+ * Serialized menu of one restaurant, ready to be written to the response as is.
+ */
+public final class MenuSnapshot {
+
+    private final Long restaurantId;
+    private final byte[] body;
+    private final String eTag;
+    private final long buildSequence;
+    private final Instant builtAt;
+
+    MenuSnapshot(Long restaurantId, byte[] body, String eTag, long buildSequence) {
+        this.restaurantId = restaurantId;
+        this.body = body;
+        this.eTag = eTag;
+        this.buildSequence = buildSequence;
+        this.builtAt = Instant.now();
+    }
+
+    public Long getRestaurantId() {
+        return restaurantId;
+    }
+
+    /**
+     * @return The JSON bytes; shared, must not be modified
+     */
+    public byte[] getBody() {
+        return body;
+    }
+
+    /**
+     * @return Strong entity tag (quoted hash of the body)
+     */
+    public String getETag() {
+        return eTag;
+    }
+
+    long getBuildSequence() {
+        return buildSequence;
+    }
+
+    public Instant getBuiltAt() {
+        return builtAt;
+    }
+}
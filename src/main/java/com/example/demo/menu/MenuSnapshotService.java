@@ -0,0 +1,226 @@
+package com.example.demo.menu;
+
+import com.example.demo.audit.AuditLogger;
+import com.example.demo.dto.CategoryTreeNode;
+import com.example.demo.dto.DashboardData;
+import com.example.demo.dto.RestaurantSummary;
+import com.example.demo.rating.RestaurantRatingChangedEvent;
+import com.example.demo.repository.RestaurantRepository;
+import com.example.demo.service.CategoryService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+import tools.jackson.databind.ObjectMapper;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps the serialized menu of each restaurant so GET /api/restaurants/{id}/menu
+ * is a map lookup and a byte copy instead of two queries and a serialization.
+ *
+ * A snapshot is built on first request and rebuilt in the background after a
+ * {@link MenuChangedEvent} or {@link RestaurantRatingChangedEvent} commits (the
+ * snapshot includes the average rating); until the rebuild finishes the previous
+ * snapshot keeps being served. Builds are numbered so a slow, older build never
+ * replaces a newer one.
+ *
+ * Ratings change far more often than menus, so rating changes only mark the
+ * snapshot and marked snapshots are rebuilt together every
+ * {@code menu.snapshot.rating-refresh-interval}, once per restaurant however
+ * many ratings came in.
+ *
+ * Concurrent requests for a menu that is not cached share one build. At most
+ * {@code menu.snapshot.max-entries} snapshots are kept, least recently used
+ * evicted first.
+ */
+@Service
+public class MenuSnapshotService {
+
+    private final AuditLogger audit = AuditLogger.getInstance();
+
+    private final RestaurantRepository restaurantRepository;
+    private final CategoryService categoryService;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate readOnlyTransaction;
+    private final int maxSnapshots;
+
+    // Snapshots, least recently used evicted first
+    private final Map<Long, MenuSnapshot> snapshots;
+    // Builds started by requests that found no snapshot, keyed by restaurant
+    private final ConcurrentHashMap<Long, CompletableFuture<MenuSnapshot>> building = new ConcurrentHashMap<>();
+    private final AtomicLong buildSequence = new AtomicLong();
+    // Restaurants whose rating changed since their snapshot was last rebuilt
+    private final Set<Long> ratingChanged = ConcurrentHashMap.newKeySet();
+
+    public MenuSnapshotService(RestaurantRepository restaurantRepository, CategoryService categoryService,
+            ObjectMapper objectMapper, PlatformTransactionManager transactionManager,
+            @Value("${menu.snapshot.max-entries:10000}") int maxSnapshots) {
+        this.restaurantRepository = restaurantRepository;
+        this.categoryService = categoryService;
+        this.objectMapper = objectMapper;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.maxSnapshots = maxSnapshots;
+        this.snapshots = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, MenuSnapshot> eldest) {
+                return size() > MenuSnapshotService.this.maxSnapshots;
+            }
+        };
+    }
+
+    /**
+     * Gets the current menu snapshot, building it if there is none yet.
+     *
+     * @param restaurantId The restaurant ID
+     * @return The snapshot
+     * @throws IllegalArgumentException if the restaurant does not exist
+     */
+    public MenuSnapshot getSnapshot(Long restaurantId) {
+        MenuSnapshot snapshot;
+        synchronized (snapshots) {
+            snapshot = snapshots.get(restaurantId);
+        }
+        if (snapshot != null) {
+            return snapshot;
+        }
+
+        CompletableFuture<MenuSnapshot> future = new CompletableFuture<>();
+        CompletableFuture<MenuSnapshot> existing = building.putIfAbsent(restaurantId, future);
+        if (existing != null) {
+            try {
+                return existing.join();
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof RuntimeException cause ? cause : e;
+            }
+        }
+        try {
+            MenuSnapshot built = build(restaurantId);
+            future.complete(built);
+            return built;
+        } catch (RuntimeException e) {
+            future.completeExceptionally(e);
+            throw e;
+        } finally {
+            building.remove(restaurantId, future);
+        }
+    }
+
+    /**
+     * Rebuilds the snapshot of a restaurant after its menu changed. Runs on the
+     * task executor once the change is committed.
+     */
+    @Async
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onMenuChanged(MenuChangedEvent event) {
+        rebuild(event.getRestaurantId());
+    }
+
+    /**
+     * Marks a cached snapshot for rebuilding after the restaurant's rating
+     * changed; menus not cached yet are left to be built on request.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onRatingChanged(RestaurantRatingChangedEvent event) {
+        if (event.getRestaurantId() != null && isCached(event.getRestaurantId())) {
+            ratingChanged.add(event.getRestaurantId());
+        }
+    }
+
+    /**
+     * Rebuilds the snapshots marked since the last run.
+     */
+    @Scheduled(fixedDelayString = "${menu.snapshot.rating-refresh-interval:5s}")
+    public void rebuildRated() {
+        for (Long restaurantId : ratingChanged) {
+            // Removed first, so a rating committed during the build marks it again
+            if (ratingChanged.remove(restaurantId)) {
+                rebuild(restaurantId);
+            }
+        }
+    }
+
+    private void rebuild(Long restaurantId) {
+        if (restaurantId == null) {
+            return;
+        }
+        try {
+            build(restaurantId);
+        } catch (RuntimeException e) {
+            // Never serve a menu we know is outdated; the next request rebuilds it
+            synchronized (snapshots) {
+                snapshots.remove(restaurantId);
+            }
+            audit.warn("menu.snapshot.rebuild_failed", "restaurantId", restaurantId, "error", e.getMessage());
+        }
+    }
+
+    private MenuSnapshot build(Long restaurantId) {
+        long sequence = buildSequence.incrementAndGet();
+        byte[] body = readOnlyTransaction.execute(status -> serializeMenu(restaurantId));
+        MenuSnapshot built = new MenuSnapshot(restaurantId, body, eTagOf(body), sequence);
+
+        synchronized (snapshots) {
+            MenuSnapshot current = snapshots.get(restaurantId);
+            if (current != null && current.getBuildSequence() > sequence) {
+                return current;
+            }
+            snapshots.put(restaurantId, built);
+            return built;
+        }
+    }
+
+    private boolean isCached(Long restaurantId) {
+        synchronized (snapshots) {
+            return snapshots.containsKey(restaurantId);
+        }
+    }
+
+    private byte[] serializeMenu(Long restaurantId) {
+        RestaurantSummary restaurant = restaurantRepository.findSummaryById(restaurantId)
+                .orElseThrow(() -> new IllegalArgumentException("Restaurant not found"));
+        // Read before the tree: the snapshot holds at least this version, so
+        // deltas fetched from it may repeat changes but never miss one
+        Long menuVersion = restaurantRepository.findMenuVersionById(restaurantId)
+                .map(RestaurantRepository.MenuVersionRow::getMenuVersion)
+                .orElse(0L);
+
+        // Whole category tree (subcategories and food items) in one query
+        List<CategoryTreeNode> categories = categoryService.getCategoryTree(restaurantId);
+
+        Map<String, Object> menuData = new LinkedHashMap<>();
+        menuData.put("restaurantId", restaurant.getId());
+        menuData.put("restaurantName", restaurant.getName());
+        menuData.put("description", restaurant.getDescription());
+        menuData.put("avgRating", restaurant.getAvgRating());
+        menuData.put("deliveryTimeEst", restaurant.getDeliveryTimeEst());
+        menuData.put("menuVersion", menuVersion);
+        menuData.put("categories", categories);
+
+        return objectMapper.writeValueAsBytes(new DashboardData(menuData));
+    }
+
+    private static String eTagOf(byte[] body) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(body);
+            return "\"" + HexFormat.of().formatHex(digest, 0, 16) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
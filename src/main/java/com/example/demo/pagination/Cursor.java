@@ -0,0 +1,73 @@
+package com.example.demo.pagination;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Position in a keyset-paginated listing: the sort key of the last row of the
+ * previous page, {@code (createdAt, id)} or just {@code id} for listings that
+ * are ordered by id only.
+ *
+ * Clients see it as an opaque URL-safe token and must send it back unchanged.
+ */
+public final class Cursor {
+
+    private static final String VERSION = "1";
+    private static final char SEPARATOR = '|';
+
+    private final LocalDateTime createdAt;
+    private final Long id;
+
+    private Cursor(LocalDateTime createdAt, Long id) {
+        this.createdAt = createdAt;
+        this.id = id;
+    }
+
+    public static Cursor of(LocalDateTime createdAt, Long id) {
+        return new Cursor(createdAt, id);
+    }
+
+    public static Cursor ofId(Long id) {
+        return new Cursor(null, id);
+    }
+
+    /**
+     * Parses a token produced by {@link #encode()}.
+     *
+     * @param token The token, or null/blank for the first page
+     * @return The cursor, or null for the first page
+     * @throws IllegalArgumentException if the token is malformed
+     */
+    public static Cursor decode(String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|", -1);
+            if (parts.length != 3 || !VERSION.equals(parts[0])) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            LocalDateTime createdAt = parts[1].isEmpty() ? null : LocalDateTime.parse(parts[1]);
+            return new Cursor(createdAt, Long.parseLong(parts[2]));
+        } catch (DateTimeParseException | IllegalArgumentException e) {
+            // NumberFormatException and Base64 errors are IllegalArgumentExceptions too
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+    }
+
+    public String encode() {
+        String raw = VERSION + SEPARATOR + (createdAt != null ? createdAt.toString() : "") + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public Long getId() {
+        return id;
+    }
+}
@@ -0,0 +1,240 @@
+package com.example.demo.pipeline;
+
+import com.example.demo.audit.AuditLogger;
+import com.example.demo.dto.CreateOrderRequest;
+import com.example.demo.dto.OrderPlacement;
+import com.example.demo.dto.OrderPlacementResult;
+import com.example.demo.dto.PaymentInfo;
+import com.example.demo.entity.*;
+import com.example.demo.service.OrderService;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Accept-then-process order pipeline.
+ *
+ * {@link #submit} only enqueues the order and returns a reference; a fixed set
+ * of workers drains the bounded queue in batches and places each batch through
+ * the regular OrderService (proxy checks, pricing, payment, persistence) in one
+ * transaction, with one food item query and batched inserts. Orders of a batch
+ * that fail their checks or payment fail on their own; the others are placed.
+ * A batch that fails as a whole is not placed again, since its payments may
+ * already have been taken.
+ * When the queue is full, submit is rejected so callers can shed load instead
+ * of piling up request threads.
+ *
+ * Submissions live in memory only: orders still queued when the process dies
+ * are lost, so clients should treat a missing reference like a failed order.
+ */
+@Service
+public class OrderPipeline implements SmartLifecycle {
+
+    private static final long POLL_MILLIS = 200;
+
+    private final OrderService orderService;
+    private final AuditLogger audit = AuditLogger.getInstance();
+
+    private final BlockingQueue<Command> queue;
+    private final ConcurrentHashMap<String, OrderSubmission> submissions = new ConcurrentHashMap<>();
+    private final int workerCount;
+    private final int batchSize;
+    private final Duration retention;
+    private final ThreadFactory threadFactory;
+
+    private final List<Thread> workers = new ArrayList<>();
+    private volatile boolean running;
+
+    public OrderPipeline(@Qualifier("orderService") OrderService orderService,
+            @Value("${order.pipeline.queue-capacity:1000}") int queueCapacity,
+            @Value("${order.pipeline.workers:4}") int workerCount,
+            @Value("${order.pipeline.batch-size:20}") int batchSize,
+            @Value("${order.pipeline.retention:1h}") Duration retention,
+            @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        this.orderService = orderService;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.workerCount = workerCount;
+        this.batchSize = batchSize;
+        this.retention = retention;
+        this.threadFactory = virtualThreads
+                ? Thread.ofVirtual().name("order-pipeline-", 0).factory()
+                : Thread.ofPlatform().name("order-pipeline-", 0).daemon(true).factory();
+    }
+
+    /**
+     * Enqueues an order for asynchronous processing.
+     *
+     * @return The submission to report back to the client
+     * @throws IllegalArgumentException   if the order is obviously invalid
+     * @throws RejectedExecutionException if the queue is full
+     */
+    public OrderSubmission submit(User customer, Restaurant restaurant, Address deliveryAddress,
+            List<CreateOrderRequest.OrderItemRequest> orderItems, PaymentInfo paymentInfo, String notes) {
+        // Cheap checks up front; the full proxy checks run again on the worker
+        if (orderItems == null || orderItems.isEmpty()) {
+            throw new IllegalArgumentException("Order must contain at least one item");
+        }
+        if (paymentInfo == null) {
+            throw new IllegalArgumentException("Payment information is required");
+        }
+
+        OrderSubmission submission = new OrderSubmission(UUID.randomUUID().toString());
+        Command command = new Command(submission,
+                new OrderPlacement(customer, restaurant, deliveryAddress, orderItems, paymentInfo, notes));
+
+        submissions.put(submission.getReference(), submission);
+        if (!queue.offer(command)) {
+            submissions.remove(submission.getReference());
+            throw new RejectedExecutionException("Order queue is full, please retry later");
+        }
+        audit.debug("pipeline.enqueued", "reference", submission.getReference(), "queued", queue.size());
+        return submission;
+    }
+
+    public Optional<OrderSubmission> getSubmission(String reference) {
+        return Optional.ofNullable(submissions.get(reference));
+    }
+
+    public int getQueueDepth() {
+        return queue.size();
+    }
+
+    private void workerLoop() {
+        List<Command> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                Command first = queue.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                processBatch(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void processBatch(List<Command> batch) {
+        if (batch.size() == 1) {
+            process(batch.get(0));
+            return;
+        }
+        List<OrderPlacement> placements = new ArrayList<>(batch.size());
+        for (Command command : batch) {
+            command.submission.markProcessing();
+            placements.add(command.placement);
+        }
+
+        List<OrderPlacementResult> results;
+        try {
+            results = orderService.createOrders(placements);
+        } catch (RuntimeException e) {
+            // Rolled back after payments may have been taken; placing the orders again could charge twice
+            audit.warn("pipeline.batch_failed", "orders", batch.size(), "error", e.getClass().getSimpleName());
+            for (Command command : batch) {
+                command.submission.markFailed(e.getMessage());
+            }
+            return;
+        }
+        for (int i = 0; i < batch.size(); i++) {
+            OrderSubmission submission = batch.get(i).submission;
+            OrderPlacementResult result = results.get(i);
+            if (result.isPlaced()) {
+                submission.markCompleted(result.getOrder().getId(), result.getOrder().getTotalPrice());
+            } else {
+                submission.markFailed(result.getError().getMessage());
+                audit.warn("pipeline.failed", "reference", submission.getReference(),
+                        "error", result.getError().getClass().getSimpleName());
+            }
+        }
+    }
+
+    private void process(Command command) {
+        OrderSubmission submission = command.submission;
+        OrderPlacement placement = command.placement;
+        submission.markProcessing();
+        try {
+            Order order = orderService.createOrder(placement.getCustomer(), placement.getRestaurant(),
+                    placement.getDeliveryAddress(), placement.getOrderItems(), placement.getPaymentInfo(),
+                    placement.getNotes());
+            submission.markCompleted(order.getId(), order.getTotalPrice());
+        } catch (RuntimeException e) {
+            submission.markFailed(e.getMessage());
+            audit.warn("pipeline.failed", "reference", submission.getReference(),
+                    "error", e.getClass().getSimpleName());
+        }
+    }
+
+    /**
+     * Forgets finished submissions once clients had time to poll them.
+     */
+    @Scheduled(fixedDelayString = "${order.pipeline.cleanup-interval:5m}")
+    public void purgeFinished() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(retention);
+        submissions.values().removeIf(s -> s.isFinished() && s.getUpdatedAt().isBefore(cutoff));
+    }
+
+    @Override
+    public synchronized void start() {
+        running = true;
+        for (int i = 0; i < workerCount; i++) {
+            Thread worker = threadFactory.newThread(this::workerLoop);
+            workers.add(worker);
+            worker.start();
+        }
+    }
+
+    @Override
+    public synchronized void stop() {
+        // Workers finish what is already queued before exiting
+        running = false;
+        for (Thread worker : workers) {
+            try {
+                worker.join(TimeUnit.SECONDS.toMillis(30));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        workers.clear();
+    }
+
+    @Override
+    public synchronized boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Queued order with everything needed to run it; dropped (including payment
+     * details) as soon as it has been processed.
+     */
+    private static final class Command {
+        final OrderSubmission submission;
+        final OrderPlacement placement;
+
+        Command(OrderSubmission submission, OrderPlacement placement) {
+            this.submission = submission;
+            this.placement = placement;
+        }
+    }
+}
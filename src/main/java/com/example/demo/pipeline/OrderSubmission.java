@@ -0,0 +1,77 @@
+package com.example.demo.pipeline;
+
+import com.example.demo.enums.SubmissionStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * Client-visible state of an order accepted by the asynchronous pipeline.
+ * Updated by the worker thread and read by status polls.
+ */
+public class OrderSubmission {
+
+    private final String reference;
+    private final LocalDateTime submittedAt;
+
+    private volatile SubmissionStatus status = SubmissionStatus.QUEUED;
+    private volatile Long orderId;
+    private volatile Double totalPrice;
+    private volatile String error;
+    private volatile LocalDateTime updatedAt;
+
+    public OrderSubmission(String reference) {
+        this.reference = reference;
+        this.submittedAt = LocalDateTime.now();
+        this.updatedAt = submittedAt;
+    }
+
+    void markProcessing() {
+        this.status = SubmissionStatus.PROCESSING;
+        this.updatedAt = LocalDateTime.now();
+    }
+
+    void markCompleted(Long orderId, Double totalPrice) {
+        this.orderId = orderId;
+        this.totalPrice = totalPrice;
+        this.updatedAt = LocalDateTime.now();
+        this.status = SubmissionStatus.COMPLETED;
+    }
+
+    void markFailed(String error) {
+        this.error = error;
+        this.updatedAt = LocalDateTime.now();
+        this.status = SubmissionStatus.FAILED;
+    }
+
+    public boolean isFinished() {
+        return status == SubmissionStatus.COMPLETED || status == SubmissionStatus.FAILED;
+    }
+
+    public String getReference() {
+        return reference;
+    }
+
+    public SubmissionStatus getStatus() {
+        return status;
+    }
+
+    public Long getOrderId() {
+        return orderId;
+    }
+
+    public Double getTotalPrice() {
+        return totalPrice;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public LocalDateTime getSubmittedAt() {
+        return submittedAt;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+}
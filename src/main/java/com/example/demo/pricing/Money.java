@@ -0,0 +1,116 @@
+package com.example.demo.pricing;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Currency;
+import java.util.Objects;
+
+/**
+ * Fixed-point amount of money: a long count of minor units (e.g. cents) and a
+ * currency. Arithmetic is exact and primitive; decimal conversion only happens
+ * at the API and configuration edges.
+ */
+public final class Money implements Comparable<Money> {
+
+    private final long minorUnits;
+    private final Currency currency;
+
+    private Money(long minorUnits, Currency currency) {
+        this.minorUnits = minorUnits;
+        this.currency = Objects.requireNonNull(currency, "Currency cannot be null");
+    }
+
+    public static Money ofMinor(long minorUnits, Currency currency) {
+        return new Money(minorUnits, currency);
+    }
+
+    /**
+     * Converts a decimal amount (e.g. 12.5) using its shortest decimal
+     * representation, rounding half-up to the currency's minor unit.
+     */
+    public static Money ofMajor(double amount, Currency currency) {
+        return new Money(toMinor(amount, currency), currency);
+    }
+
+    public static Money zero(Currency currency) {
+        return new Money(0L, currency);
+    }
+
+    /**
+     * Decimal amount to minor units. Uses {@link BigDecimal#valueOf(double)} so
+     * 0.1 becomes exactly 10 cents instead of 9.999... cents.
+     */
+    public static long toMinor(double amount, Currency currency) {
+        return BigDecimal.valueOf(amount)
+                .setScale(fractionDigits(currency), RoundingMode.HALF_UP)
+                .unscaledValue()
+                .longValueExact();
+    }
+
+    public static double toMajor(long minorUnits, Currency currency) {
+        return BigDecimal.valueOf(minorUnits, fractionDigits(currency)).doubleValue();
+    }
+
+    private static int fractionDigits(Currency currency) {
+        return Math.max(0, currency.getDefaultFractionDigits());
+    }
+
+    public Money plus(Money other) {
+        checkCurrency(other);
+        return new Money(Math.addExact(minorUnits, other.minorUnits), currency);
+    }
+
+    public Money times(int quantity) {
+        return new Money(Math.multiplyExact(minorUnits, quantity), currency);
+    }
+
+    public long getMinorUnits() {
+        return minorUnits;
+    }
+
+    public Currency getCurrency() {
+        return currency;
+    }
+
+    public BigDecimal toBigDecimal() {
+        return BigDecimal.valueOf(minorUnits, fractionDigits(currency));
+    }
+
+    public double toDouble() {
+        return toMajor(minorUnits, currency);
+    }
+
+    private void checkCurrency(Money other) {
+        if (!currency.equals(other.currency)) {
+            throw new IllegalArgumentException("Currency mismatch: " + currency + " vs " + other.currency);
+        }
+    }
+
+    @Override
+    public int compareTo(Money other) {
+        checkCurrency(other);
+        return Long.compare(minorUnits, other.minorUnits);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof Money)) {
+            return false;
+        }
+        Money money = (Money) o;
+        return minorUnits == money.minorUnits && currency.equals(money.currency);
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(minorUnits) * 31 + currency.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return toBigDecimal().toPlainString() + " " + currency.getCurrencyCode();
+    }
+}
@@ -0,0 +1,203 @@
+package com.example.demo.pricing;
+
+import com.example.demo.entity.FoodItem;
+
+import java.util.Collection;
+import java.util.Currency;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable, pre-compiled pricing data of one food item version: a base price
+ * and a table of addition prices indexed by the item's addition slots, all in
+ * minor units of one currency.
+ *
+ * Selections are bitmasks over the item's addition slots (see {@link #encode}).
+ * Validating a mask is a single mask check and pricing it is one pass over its
+ * set bits with exact long arithmetic; neither allocates.
+ */
+public final class PricePlan {
+
+    private final Long foodItemId;
+    private final Long version;
+    private final String foodItemName;
+    private final Currency currency;
+    private final long basePrice;
+    private final String[] additionNames; // by slot, null for unused or retired slots
+    private final long[] additionPrices; // by slot
+    private final long availableMask;
+    private final long invalidPriceMask; // available additions with a null/negative price
+    private final Map<String, Integer> additionIndex;
+
+    private PricePlan(Long foodItemId, Long version, String foodItemName, Currency currency, long basePrice,
+            String[] additionNames, long[] additionPrices, long availableMask, long invalidPriceMask,
+            Map<String, Integer> additionIndex) {
+        this.foodItemId = foodItemId;
+        this.version = version;
+        this.foodItemName = foodItemName;
+        this.currency = currency;
+        this.basePrice = basePrice;
+        this.additionNames = additionNames;
+        this.additionPrices = additionPrices;
+        this.availableMask = availableMask;
+        this.invalidPriceMask = invalidPriceMask;
+        this.additionIndex = additionIndex;
+    }
+
+    /**
+     * Compiles the plan for the current state of the food item. Decimal prices
+     * are converted once here, exactly, to minor units of the currency.
+     */
+    public static PricePlan compile(FoodItem foodItem, Currency currency) {
+        if (foodItem == null) {
+            throw new IllegalArgumentException("FoodItem cannot be null");
+        }
+        String[] names = new String[FoodItem.MAX_ADDITION_SLOTS];
+        long[] prices = new long[FoodItem.MAX_ADDITION_SLOTS];
+        long available = 0L;
+        long invalid = 0L;
+        Map<String, Integer> index = new HashMap<>();
+
+        Map<String, Double> additions = foodItem.getAvailableAdditions();
+        Map<String, Integer> slots = foodItem.getAdditionSlots();
+        if (additions != null) {
+            for (Map.Entry<String, Double> entry : additions.entrySet()) {
+                Integer slot = slots.get(entry.getKey());
+                if (slot == null) {
+                    continue; // no slot yet, cannot be selected
+                }
+                Double price = entry.getValue();
+                long bit = 1L << slot;
+                names[slot] = entry.getKey();
+                available |= bit;
+                if (price == null || price < 0) {
+                    invalid |= bit;
+                } else {
+                    prices[slot] = Money.toMinor(price, currency);
+                }
+                index.put(entry.getKey(), slot);
+            }
+        }
+
+        long base = foodItem.getBasePrice() != null ? Money.toMinor(foodItem.getBasePrice(), currency) : 0L;
+        return new PricePlan(foodItem.getId(), foodItem.getVersion(), foodItem.getName(), currency, base,
+                names, prices, available, invalid, Map.copyOf(index));
+    }
+
+    /**
+     * Encodes addition names as a slot mask. Blank names are ignored and a
+     * name selected twice is only selected once.
+     *
+     * @throws IllegalArgumentException if an addition is not available
+     */
+    public long encode(Collection<String> selectedAdditions) {
+        long mask = 0L;
+        if (selectedAdditions == null) {
+            return mask;
+        }
+        for (String name : selectedAdditions) {
+            if (name == null || name.isBlank()) {
+                continue;
+            }
+            Integer slot = additionIndex.get(name);
+            if (slot == null) {
+                throw new IllegalArgumentException(
+                        String.format("Addition '%s' is not available for food item '%s'", name, foodItemName));
+            }
+            mask |= 1L << slot;
+        }
+        return mask;
+    }
+
+    /**
+     * Unit price of the selection in minor units: base price plus every
+     * selected addition.
+     *
+     * @throws IllegalArgumentException if an addition is not available
+     * @throws ArithmeticException if the sum overflows a long
+     */
+    public long price(long additionMask) {
+        if (!isValid(additionMask)) {
+            throw new IllegalArgumentException(
+                    String.format("Selected additions are not available for food item '%s'", foodItemName));
+        }
+        if ((additionMask & invalidPriceMask) != 0L) {
+            throw new IllegalArgumentException("Addition price cannot be null or negative");
+        }
+        long total = basePrice;
+        for (long rest = additionMask; rest != 0L; rest &= rest - 1) {
+            total = Math.addExact(total, additionPrices[Long.numberOfTrailingZeros(rest)]);
+        }
+        return total;
+    }
+
+    public long price(List<String> selectedAdditions) {
+        return price(encode(selectedAdditions));
+    }
+
+    public Money priceOf(long additionMask) {
+        return Money.ofMinor(price(additionMask), currency);
+    }
+
+    public Money priceOf(List<String> selectedAdditions) {
+        return priceOf(encode(selectedAdditions));
+    }
+
+    /**
+     * @return true if every selected slot is a currently available addition
+     */
+    public boolean isValid(long additionMask) {
+        return (additionMask & ~availableMask) == 0L;
+    }
+
+    /**
+     * @return true if every non-blank selected name is an available addition
+     */
+    public boolean isValid(List<String> selectedAdditions) {
+        if (selectedAdditions == null) {
+            return true;
+        }
+        for (int i = 0, n = selectedAdditions.size(); i < n; i++) {
+            String name = selectedAdditions.get(i);
+            if (name != null && !name.isBlank() && !additionIndex.containsKey(name)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public boolean matches(FoodItem foodItem, Currency currency) {
+        return foodItemId != null && foodItemId.equals(foodItem.getId())
+                && version != null && version.equals(foodItem.getVersion())
+                && this.currency.equals(currency);
+    }
+
+    public Long getFoodItemId() {
+        return foodItemId;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public Currency getCurrency() {
+        return currency;
+    }
+
+    public long getBasePrice() {
+        return basePrice;
+    }
+
+    public long getAvailableMask() {
+        return availableMask;
+    }
+
+    public String getAdditionName(int slot) {
+        return additionNames[slot];
+    }
+
+    public long getAdditionPrice(int slot) {
+        return additionPrices[slot];
+    }
+}
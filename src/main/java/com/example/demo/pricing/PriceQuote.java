@@ -0,0 +1,55 @@
+package com.example.demo.pricing;
+
+import java.util.List;
+import java.util.TreeSet;
+
+/**
+ * Unit price of one food item version with a canonical selection of additions.
+ */
+public final class PriceQuote {
+
+    private final Long foodItemId;
+    private final Long version;
+    private final List<String> additions;
+    private final Money unitPrice;
+
+    public PriceQuote(Long foodItemId, Long version, List<String> additions, Money unitPrice) {
+        this.foodItemId = foodItemId;
+        this.version = version;
+        this.additions = additions;
+        this.unitPrice = unitPrice;
+    }
+
+    /**
+     * Order-insensitive form of a selection: blank names and duplicates
+     * dropped, the rest sorted.
+     */
+    public static List<String> canonicalAdditions(List<String> selectedAdditions) {
+        if (selectedAdditions == null || selectedAdditions.isEmpty()) {
+            return List.of();
+        }
+        TreeSet<String> canonical = new TreeSet<>();
+        for (String name : selectedAdditions) {
+            if (name != null && !name.isBlank()) {
+                canonical.add(name);
+            }
+        }
+        return List.copyOf(canonical);
+    }
+
+    public Long getFoodItemId() {
+        return foodItemId;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public List<String> getAdditions() {
+        return additions;
+    }
+
+    public Money getUnitPrice() {
+        return unitPrice;
+    }
+}
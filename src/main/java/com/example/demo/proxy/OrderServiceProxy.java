@@ -1,16 +1,20 @@
 package com.example.demo.proxy;
 
+import com.example.demo.audit.AuditLevel;
+import com.example.demo.audit.AuditLogger;
 import com.example.demo.dto.CreateOrderRequest;
+import com.example.demo.dto.OrderPlacement;
+import com.example.demo.dto.OrderPlacementResult;
 import com.example.demo.dto.PaymentInfo;
 import com.example.demo.entity.*;
 import com.example.demo.enums.UserRole;
+import com.example.demo.ratelimit.SlidingWindowRateLimiter;
 import com.example.demo.service.OrderService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Service;
 
-import java.time.LocalDateTime;
-import java.util.HashMap;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 
@@ -22,12 +26,16 @@ public class OrderServiceProxy implements OrderService {
 
 	private final OrderService realOrderService;
 
-	// Simple rate limiting: customerId -> count of orders in last hour
-	private final Map<Long, Integer> orderCountCache = new HashMap<>();
+	private final AuditLogger audit = AuditLogger.getInstance();
+
+	// Rate limiting: customerId -> orders in the sliding window (default: 5 per hour)
+	private final SlidingWindowRateLimiter rateLimiter;
 
 	@Autowired
-	public OrderServiceProxy(@Qualifier("realOrderService") OrderService realOrderService) {
+	public OrderServiceProxy(@Qualifier("realOrderService") OrderService realOrderService,
+			SlidingWindowRateLimiter rateLimiter) {
 		this.realOrderService = realOrderService;
+		this.rateLimiter = rateLimiter;
 	}
 
 	@Override
@@ -35,26 +43,76 @@ public class OrderServiceProxy implements OrderService {
 			List<CreateOrderRequest.OrderItemRequest> orderItems,
 			PaymentInfo paymentInfo, String notes) {
 
-		System.out.println("=== Proxy: Order Creation Request ===");
-
 		checkAuthentication(customer);
 		validateInput(customer, restaurant, deliveryAddress, orderItems, paymentInfo);
 		checkRateLimit(customer.getId());
 		logRequest(customer, restaurant, orderItems);
 
-		Order order = realOrderService.createOrder(customer, restaurant, deliveryAddress,
-				orderItems, paymentInfo, notes);
-
-		updateRateLimit(customer.getId());
+		Order order;
+		try {
+			order = realOrderService.createOrder(customer, restaurant, deliveryAddress,
+					orderItems, paymentInfo, notes);
+		} catch (RuntimeException e) {
+			// Failed orders do not count against the customer's limit
+			rateLimiter.release(customer.getId());
+			audit.warn("order.failed", "customerId", customer.getId(), "error", e.getClass().getSimpleName());
+			throw e;
+		}
 
 		logSuccess(order);
 
 		return order;
 	}
 
-	private void checkAuthentication(User customer) {
-		System.out.println("Proxy: Checking authentication...");
+	@Override
+	public List<OrderPlacementResult> createOrders(List<OrderPlacement> placements) {
+		// Every order passes the same checks as a single one; those that fail are left out
+		OrderPlacementResult[] results = new OrderPlacementResult[placements.size()];
+		List<OrderPlacement> accepted = new ArrayList<>(placements.size());
+		List<Integer> positions = new ArrayList<>(placements.size());
+		for (int i = 0; i < results.length; i++) {
+			OrderPlacement placement = placements.get(i);
+			try {
+				checkAuthentication(placement.getCustomer());
+				validateInput(placement.getCustomer(), placement.getRestaurant(), placement.getDeliveryAddress(),
+						placement.getOrderItems(), placement.getPaymentInfo());
+				checkRateLimit(placement.getCustomer().getId());
+				accepted.add(placement);
+				positions.add(i);
+			} catch (RuntimeException e) {
+				results[i] = OrderPlacementResult.failed(e);
+			}
+		}
+
+		List<OrderPlacementResult> placed;
+		try {
+			placed = accepted.isEmpty() ? List.of() : realOrderService.createOrders(accepted);
+		} catch (RuntimeException e) {
+			// Nothing was placed, so no permit counts
+			for (OrderPlacement placement : accepted) {
+				rateLimiter.release(placement.getCustomer().getId());
+			}
+			throw e;
+		}
 
+		for (int j = 0; j < placed.size(); j++) {
+			OrderPlacement placement = accepted.get(j);
+			OrderPlacementResult result = placed.get(j);
+			results[positions.get(j)] = result;
+			if (result.isPlaced()) {
+				logRequest(placement.getCustomer(), placement.getRestaurant(), placement.getOrderItems());
+				logSuccess(result.getOrder());
+			} else {
+				// Failed orders do not count against the customer's limit
+				rateLimiter.release(placement.getCustomer().getId());
+				audit.warn("order.failed", "customerId", placement.getCustomer().getId(),
+						"error", result.getError().getClass().getSimpleName());
+			}
+		}
+		return List.of(results);
+	}
+
+	private void checkAuthentication(User customer) {
 		if (customer == null) {
 			throw new SecurityException("Customer not authenticated");
 		}
@@ -65,14 +123,12 @@ public class OrderServiceProxy implements OrderService {
 					customer.getUserRole());
 		}
 
-		System.out.println("Proxy: Authentication OK - Customer ID: " + customer.getId());
+		audit.debug("order.auth_ok", "customerId", customer.getId());
 	}
 
 	private void validateInput(User customer, Restaurant restaurant, Address deliveryAddress,
 			List<CreateOrderRequest.OrderItemRequest> orderItems,
 			PaymentInfo paymentInfo) {
-		System.out.println("Proxy: Validating input...");
-
 		if (restaurant == null) {
 			throw new IllegalArgumentException("Restaurant is required");
 		}
@@ -96,68 +152,47 @@ public class OrderServiceProxy implements OrderService {
 			}
 		}
 
-		System.out.println("Proxy: Input validation OK");
+		audit.debug("order.input_ok", "items", orderItems.size());
 	}
 
 	private void checkRateLimit(Long customerId) {
-		System.out.println("Proxy: Checking rate limit...");
-		int maxOrders = 5;
-		Integer currentCount = orderCountCache.get(customerId);
-
-		if (currentCount != null && currentCount >= maxOrders) {
+		// Takes the permit atomically so concurrent requests cannot both slip through
+		if (!rateLimiter.tryAcquire(customerId)) {
+			int maxOrders = rateLimiter.getPolicy(customerId).getMaxRequests();
+			audit.warn("order.rate_limited", "customerId", customerId, "max", maxOrders);
 			throw new SecurityException("Rate limit exceeded. Maximum " + maxOrders +
 					" orders allowed. Please wait.");
 		}
 
-		System.out.println("Proxy: Rate limit OK - Customer " + customerId +
-				" has " + (currentCount != null ? currentCount : 0) + " orders");
-	}
-
-	private void updateRateLimit(Long customerId) {
-		int currentCount = orderCountCache.getOrDefault(customerId, 0);
-		orderCountCache.put(customerId, currentCount + 1);
-
-		System.out.println("Proxy: Updated rate limit - Customer " + customerId +
-				" now has " + (currentCount + 1) + " orders");
+		if (audit.isEnabled(AuditLevel.DEBUG)) {
+			audit.debug("order.rate_ok", "customerId", customerId, "count", rateLimiter.getCount(customerId));
+		}
 	}
 
 	private void logRequest(User customer, Restaurant restaurant,
 			List<CreateOrderRequest.OrderItemRequest> orderItems) {
-		String logMessage = String.format(
-				"Proxy Log: Customer %s (ID: %d) placing order at %s (ID: %d) with %d items at %s",
-				customer.getEmail(),
-				customer.getId(),
-				restaurant.getName(),
-				restaurant.getId(),
-				orderItems.size(),
-				LocalDateTime.now());
-
-		System.out.println(logMessage);
+		audit.info("order.requested",
+				"customerId", customer.getId(),
+				"restaurantId", restaurant.getId(),
+				"items", orderItems.size());
 	}
 
 	private void logSuccess(Order order) {
-		String logMessage = String.format(
-				"Proxy Log: Order #%d created successfully. Total: $%.2f at %s",
-				order.getId(),
-				order.getTotalPrice(),
-				LocalDateTime.now());
-
-		System.out.println(logMessage);
-		System.out.println("=== Proxy: Order Creation Complete ===\n");
+		audit.info("order.created", "orderId", order.getId(), "total", order.getTotalPrice());
 	}
 
 	/**
 	 * Helper method to reset rate limits (for testing)
 	 */
 	public void resetRateLimits() {
-		orderCountCache.clear();
-		System.out.println("Proxy: Rate limits reset");
+		rateLimiter.reset();
+		audit.info("order.rate_limits_reset");
 	}
 
 	/**
 	 * Helper method to get current rate limit counts
 	 */
 	public Map<Long, Integer> getRateLimitCounts() {
-		return new HashMap<>(orderCountCache);
+		return rateLimiter.getCounts();
 	}
 }
\ No newline at end of file
@@ -0,0 +1,36 @@
+package com.example.demo.ratelimit;
+
+import java.time.Duration;
+
+/**
+ * Immutable rate limit policy: at most {@code maxRequests} within a sliding
+ * window of {@code window} length.
+ */
+public final class RateLimitPolicy {
+
+    private final int maxRequests;
+    private final long windowMillis;
+
+    public RateLimitPolicy(int maxRequests, Duration window) {
+        if (maxRequests <= 0) {
+            throw new IllegalArgumentException("Max requests must be positive");
+        }
+        if (window == null || window.isZero() || window.isNegative()) {
+            throw new IllegalArgumentException("Window must be a positive duration");
+        }
+        this.maxRequests = maxRequests;
+        this.windowMillis = window.toMillis();
+    }
+
+    public int getMaxRequests() {
+        return maxRequests;
+    }
+
+    public long getWindowMillis() {
+        return windowMillis;
+    }
+
+    public Duration getWindow() {
+        return Duration.ofMillis(windowMillis);
+    }
+}
@@ -0,0 +1,238 @@
+package com.example.demo.ratelimit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-key sliding-window rate limiter.
+ *
+ * Uses the sliding window counter approximation: each key keeps the count of
+ * the current and the previous fixed window, and the effective count is the
+ * current count plus the previous count weighted by how much of the previous
+ * window still overlaps the sliding window. Each key has its own small lock, so
+ * different customers never contend with each other.
+ *
+ * Memory is bounded by the keys active in the last two windows: a scheduled
+ * sweep (every {@code order.rate-limit.sweep-interval}) evicts entries idle for
+ * longer than that, off the request path. Permits are taken and entries
+ * evicted inside {@link ConcurrentHashMap#compute}, so a sweep can never drop
+ * a window between its lookup and a permit being counted on it.
+ */
+@Component
+public class SlidingWindowRateLimiter {
+
+    private final ConcurrentHashMap<Long, Window> windows = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Long, RateLimitPolicy> overrides = new ConcurrentHashMap<>();
+
+    private volatile RateLimitPolicy defaultPolicy;
+
+    public SlidingWindowRateLimiter(
+            @Value("${order.rate-limit.max-orders:5}") int maxOrders,
+            @Value("${order.rate-limit.window:PT1H}") Duration window) {
+        this.defaultPolicy = new RateLimitPolicy(maxOrders, window);
+    }
+
+    /**
+     * Tries to take one permit for the key.
+     *
+     * @param key The key to rate limit (e.g. customer ID)
+     * @return true if the request is allowed, false if the limit is reached
+     */
+    public boolean tryAcquire(Long key) {
+        return tryAcquire(key, System.currentTimeMillis());
+    }
+
+    boolean tryAcquire(Long key, long now) {
+        RateLimitPolicy policy = getPolicy(key);
+        boolean[] acquired = new boolean[1];
+        windows.compute(key, (k, window) -> {
+            Window current = window != null ? window : new Window(now);
+            acquired[0] = current.tryAcquire(now, policy);
+            return current;
+        });
+        return acquired[0];
+    }
+
+    /**
+     * Gives back the latest permit taken by {@link #tryAcquire(Long)}, e.g.
+     * when the guarded operation failed and should not count against the key.
+     * The permit is returned to the window it was counted in, also if that has
+     * become the previous window meanwhile.
+     *
+     * @param key The key the permit was taken for
+     */
+    public void release(Long key) {
+        release(key, System.currentTimeMillis());
+    }
+
+    void release(Long key, long now) {
+        RateLimitPolicy policy = getPolicy(key);
+        windows.computeIfPresent(key, (k, window) -> {
+            window.release(now, policy.getWindowMillis());
+            return window;
+        });
+    }
+
+    /**
+     * Gets the effective request count of the key in the current sliding window.
+     *
+     * @param key The key
+     * @return The estimated count, 0 if the key is not tracked
+     */
+    public int getCount(Long key) {
+        Window window = windows.get(key);
+        return window != null ? window.estimate(System.currentTimeMillis(), getPolicy(key)) : 0;
+    }
+
+    /**
+     * Snapshot of the effective counts of all tracked keys with a non-zero count.
+     *
+     * @return Copy of key -> count
+     */
+    public Map<Long, Integer> getCounts() {
+        long now = System.currentTimeMillis();
+        Map<Long, Integer> counts = new HashMap<>();
+        for (Map.Entry<Long, Window> entry : windows.entrySet()) {
+            int count = entry.getValue().estimate(now, getPolicy(entry.getKey()));
+            if (count > 0) {
+                counts.put(entry.getKey(), count);
+            }
+        }
+        return counts;
+    }
+
+    /**
+     * Removes all tracked state.
+     */
+    public void reset() {
+        windows.clear();
+    }
+
+    /**
+     * Removes the tracked state of a single key.
+     *
+     * @param key The key to reset
+     */
+    public void reset(Long key) {
+        windows.remove(key);
+    }
+
+    public RateLimitPolicy getDefaultPolicy() {
+        return defaultPolicy;
+    }
+
+    public void setDefaultPolicy(RateLimitPolicy policy) {
+        if (policy == null) {
+            throw new IllegalArgumentException("Policy cannot be null");
+        }
+        this.defaultPolicy = policy;
+    }
+
+    /**
+     * Overrides the policy for a single key.
+     *
+     * @param key    The key
+     * @param policy The policy, or null to fall back to the default policy
+     */
+    public void setPolicy(Long key, RateLimitPolicy policy) {
+        if (policy == null) {
+            overrides.remove(key);
+        } else {
+            overrides.put(key, policy);
+        }
+    }
+
+    public RateLimitPolicy getPolicy(Long key) {
+        RateLimitPolicy policy = overrides.get(key);
+        return policy != null ? policy : defaultPolicy;
+    }
+
+    public int getTrackedKeyCount() {
+        return windows.size();
+    }
+
+    /**
+     * Evicts entries that have been idle for longer than two windows of their
+     * policy.
+     */
+    @Scheduled(fixedDelayString = "${order.rate-limit.sweep-interval:1m}")
+    public void evictIdle() {
+        evictIdle(System.currentTimeMillis());
+    }
+
+    void evictIdle(long now) {
+        for (Long key : windows.keySet()) {
+            RateLimitPolicy policy = getPolicy(key);
+            windows.computeIfPresent(key, (k, window) -> window.isIdle(now, policy) ? null : window);
+        }
+    }
+
+    /**
+     * Sliding window counter state for one key.
+     */
+    private static final class Window {
+        private long windowStart;
+        private int previousCount;
+        private int currentCount;
+        private long lastSeen;
+        private long lastAcquired;
+
+        Window(long now) {
+            this.windowStart = now;
+            this.lastSeen = now;
+        }
+
+        synchronized boolean tryAcquire(long now, RateLimitPolicy policy) {
+            roll(now, policy.getWindowMillis());
+            lastSeen = now;
+            if (weighted(now, policy.getWindowMillis()) >= policy.getMaxRequests()) {
+                return false;
+            }
+            currentCount++;
+            lastAcquired = now;
+            return true;
+        }
+
+        synchronized void release(long now, long windowMillis) {
+            roll(now, windowMillis);
+            if (lastAcquired >= windowStart) {
+                if (currentCount > 0) {
+                    currentCount--;
+                }
+            } else if (lastAcquired >= windowStart - windowMillis && previousCount > 0) {
+                previousCount--;
+            }
+        }
+
+        synchronized int estimate(long now, RateLimitPolicy policy) {
+            roll(now, policy.getWindowMillis());
+            return (int) Math.ceil(weighted(now, policy.getWindowMillis()));
+        }
+
+        synchronized boolean isIdle(long now, RateLimitPolicy policy) {
+            return now - lastSeen > 2 * policy.getWindowMillis();
+        }
+
+        private void roll(long now, long windowMillis) {
+            long elapsed = now - windowStart;
+            if (elapsed < windowMillis) {
+                return;
+            }
+            long windowsPassed = elapsed / windowMillis;
+            previousCount = windowsPassed == 1 ? currentCount : 0;
+            currentCount = 0;
+            windowStart += windowsPassed * windowMillis;
+        }
+
+        private double weighted(long now, long windowMillis) {
+            double overlap = 1.0 - (double) (now - windowStart) / windowMillis;
+            return previousCount * overlap + currentCount;
+        }
+    }
+}
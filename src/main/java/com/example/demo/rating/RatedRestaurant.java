@@ -0,0 +1,35 @@
+package com.example.demo.rating;
+
+/**
+ * One result of a top-rated query.
+ */
+public class RatedRestaurant {
+
+    private final Long restaurantId;
+    private final String name;
+    private final double avgRating;
+    private final long ratingCount;
+
+    public RatedRestaurant(Long restaurantId, String name, double avgRating, long ratingCount) {
+        this.restaurantId = restaurantId;
+        this.name = name;
+        this.avgRating = avgRating;
+        this.ratingCount = ratingCount;
+    }
+
+    public Long getRestaurantId() {
+        return restaurantId;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public double getAvgRating() {
+        return avgRating;
+    }
+
+    public long getRatingCount() {
+        return ratingCount;
+    }
+}
@@ -0,0 +1,103 @@
+package com.example.demo.rating;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory index of rated restaurants, kept sorted best first (average
+ * rating, then number of ratings, then id).
+ *
+ * "Top rated" reads the first entries and a threshold query stops at the first
+ * entry below the threshold, so both cost O(limit) whatever the number of
+ * restaurants. Updates are O(log n).
+ *
+ * Updates carry a sequence number and an older one never overwrites a newer
+ * one, so concurrent reloads may finish in any order.
+ *
+ * Thread-safe: queries share a read lock, updates take the write lock.
+ */
+public class RatingIndex {
+
+    private static final Comparator<Entry> BEST_FIRST = Comparator.comparingDouble(Entry::avgRating).reversed()
+            .thenComparing(Comparator.comparingLong(Entry::ratingCount).reversed())
+            .thenComparing(Entry::restaurantId);
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final TreeSet<Entry> sorted = new TreeSet<>(BEST_FIRST);
+    private final Map<Long, Entry> entries = new HashMap<>();
+    private final Map<Long, Long> sequences = new HashMap<>();
+
+    private record Entry(Long restaurantId, String name, double avgRating, long ratingCount) {
+    }
+
+    /**
+     * Sets or clears the rating of a restaurant.
+     *
+     * @param sequence    Increasing number taken before the rating was loaded
+     * @param avgRating   The average rating, or null to remove the restaurant
+     * @param ratingCount Number of ratings; 0 removes the restaurant
+     * @return false if a newer update had already been applied
+     */
+    public boolean put(Long restaurantId, long sequence, String name, Double avgRating, long ratingCount) {
+        lock.writeLock().lock();
+        try {
+            Long applied = sequences.get(restaurantId);
+            if (applied != null && applied > sequence) {
+                return false;
+            }
+            sequences.put(restaurantId, sequence);
+
+            Entry previous = entries.remove(restaurantId);
+            if (previous != null) {
+                sorted.remove(previous);
+            }
+            if (avgRating == null || ratingCount <= 0) {
+                return true;
+            }
+
+            Entry entry = new Entry(restaurantId, name, avgRating, ratingCount);
+            entries.put(restaurantId, entry);
+            sorted.add(entry);
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * @param minRating Only restaurants rated at least this, or null for all
+     * @param limit     Maximum number of restaurants
+     * @return Restaurants best first
+     */
+    public List<RatedRestaurant> best(Double minRating, int limit) {
+        List<RatedRestaurant> result = new ArrayList<>(Math.max(0, Math.min(limit, 64)));
+        lock.readLock().lock();
+        try {
+            for (Entry entry : sorted) {
+                if (result.size() >= limit || (minRating != null && entry.avgRating() < minRating)) {
+                    break;
+                }
+                result.add(new RatedRestaurant(entry.restaurantId(), entry.name(), entry.avgRating(),
+                        entry.ratingCount()));
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return result;
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return entries.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.example.demo.rating;
+
+/**
+ * Published as a Spring application event when a restaurant's rating
+ * aggregate changes.
+ */
+public class RestaurantRatingChangedEvent {
+
+    private final Long restaurantId;
+
+    public RestaurantRatingChangedEvent(Long restaurantId) {
+        this.restaurantId = restaurantId;
+    }
+
+    public Long getRestaurantId() {
+        return restaurantId;
+    }
+}
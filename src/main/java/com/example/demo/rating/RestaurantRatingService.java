@@ -0,0 +1,211 @@
+package com.example.demo.rating;
+
+import com.example.demo.audit.AuditLogger;
+import com.example.demo.entity.Order;
+import com.example.demo.enums.OrderStatus;
+import com.example.demo.repository.OrderRepository;
+import com.example.demo.repository.RestaurantRepository;
+import com.example.demo.repository.RestaurantRepository.RestaurantRatingRow;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Order feedback and the restaurant ratings derived from it.
+ *
+ * Submitting feedback writes the order and adds the stars to the restaurant's
+ * running sum and count in the same transaction, each with one conditional
+ * UPDATE, so the aggregate never needs the order history to be read.
+ * Top-rated and threshold queries are served from an in-memory
+ * {@link RatingIndex}, loaded once the application is ready and updated after
+ * every committed change.
+ *
+ * A periodic reconciliation recounts feedback from the orders table and fixes
+ * any restaurant whose aggregate drifted (e.g. orders changed by hand).
+ */
+@Service
+public class RestaurantRatingService {
+
+    public static final int DEFAULT_LIMIT = 20;
+    public static final int MAX_LIMIT = 100;
+
+    private final AuditLogger audit = AuditLogger.getInstance();
+
+    private final RatingIndex index = new RatingIndex();
+    private final AtomicLong loadSequence = new AtomicLong();
+
+    private final OrderRepository orderRepository;
+    private final RestaurantRepository restaurantRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transaction;
+    private final TransactionTemplate readOnlyTransaction;
+    private final int batchSize;
+
+    public RestaurantRatingService(OrderRepository orderRepository, RestaurantRepository restaurantRepository,
+            ApplicationEventPublisher eventPublisher, PlatformTransactionManager transactionManager,
+            @Value("${rating.batch-size:500}") int batchSize) {
+        this.orderRepository = orderRepository;
+        this.restaurantRepository = restaurantRepository;
+        this.eventPublisher = eventPublisher;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Records the customer's feedback on a delivered order and credits it to
+     * the restaurant. Feedback can be given once per order.
+     *
+     * @return The ID of the rated restaurant
+     * @throws IllegalArgumentException if the order does not exist or the stars are not 1-5
+     * @throws IllegalStateException    if the order is not delivered or already has feedback
+     */
+    @Transactional
+    public Long submitFeedback(Long orderId, int stars, String comment) {
+        if (stars < 1 || stars > 5) {
+            throw new IllegalArgumentException("Stars must be between 1 and 5");
+        }
+
+        List<Long> rated = orderRepository.recordFeedback(orderId, stars, comment);
+        if (rated.isEmpty()) {
+            Order order = orderRepository.findById(orderId)
+                    .orElseThrow(() -> new IllegalArgumentException("Order not found"));
+            if (order.getStatus() != OrderStatus.DELIVERED) {
+                throw new IllegalStateException("Only delivered orders can be rated");
+            }
+            throw new IllegalStateException("Feedback was already submitted for order " + orderId);
+        }
+
+        Long restaurantId = rated.get(0);
+        restaurantRepository.addRating(restaurantId, stars);
+        eventPublisher.publishEvent(new RestaurantRatingChangedEvent(restaurantId));
+        return restaurantId;
+    }
+
+    /**
+     * @param minRating Only restaurants rated at least this, or null for all
+     * @param limit     Maximum number of restaurants, clamped to {@link #MAX_LIMIT}
+     * @return Rated restaurants, best first
+     * @throws IllegalArgumentException if the minimum rating is not between 0 and 5
+     */
+    public List<RatedRestaurant> getTopRated(Double minRating, Integer limit) {
+        if (minRating != null && !(minRating >= 0 && minRating <= 5)) {
+            throw new IllegalArgumentException("Minimum rating must be between 0 and 5");
+        }
+        int size = limit == null ? DEFAULT_LIMIT : Math.max(1, Math.min(limit, MAX_LIMIT));
+        return index.best(minRating, size);
+    }
+
+    /**
+     * Loads every rated restaurant into the index, a batch per read-only
+     * transaction. Ratings committed meanwhile are applied as they come; the
+     * sequence numbers keep a batch loaded earlier from overwriting them.
+     */
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long started = System.nanoTime();
+        try {
+            Long afterId = 0L;
+            while (afterId != null) {
+                Long from = afterId;
+                afterId = readOnlyTransaction.execute(status -> indexBatch(from));
+            }
+            audit.info("rating.index.rebuilt", "restaurants", index.size(),
+                    "durationMs", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+        } catch (RuntimeException e) {
+            audit.error("rating.index.rebuild_failed", "error", e.getMessage());
+        }
+    }
+
+    /**
+     * Reloads a restaurant after its rating changed. Runs on the task executor
+     * once the change is committed.
+     */
+    @Async
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onRatingChanged(RestaurantRatingChangedEvent event) {
+        Long restaurantId = event.getRestaurantId();
+        if (restaurantId == null) {
+            return;
+        }
+        try {
+            long sequence = loadSequence.incrementAndGet();
+            RestaurantRatingRow row = readOnlyTransaction.execute(
+                    status -> restaurantRepository.findRatingById(restaurantId).orElse(null));
+            if (row != null) {
+                index.put(restaurantId, sequence, row.getName(), row.getAvgRating(), row.getRatingCount());
+            } else {
+                index.put(restaurantId, sequence, null, null, 0);
+            }
+        } catch (RuntimeException e) {
+            audit.warn("rating.index.update_failed", "restaurantId", restaurantId, "error", e.getMessage());
+        }
+    }
+
+    /**
+     * Recounts feedback from the orders table, a batch of restaurants per
+     * transaction. The batch is locked before the recount, so feedback being
+     * submitted for it either is counted or adds itself after the fix.
+     */
+    @Scheduled(fixedDelayString = "${rating.reconcile-interval:6h}")
+    public void reconcile() {
+        long started = System.nanoTime();
+        int corrected = 0;
+        try {
+            Long afterId = 0L;
+            while (afterId != null) {
+                Long from = afterId;
+                ReconciledBatch batch = transaction.execute(status -> reconcileBatch(from));
+                for (Long restaurantId : batch.corrected()) {
+                    eventPublisher.publishEvent(new RestaurantRatingChangedEvent(restaurantId));
+                }
+                corrected += batch.corrected().size();
+                afterId = batch.lastId();
+            }
+            audit.info("rating.reconciled", "corrected", corrected,
+                    "durationMs", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+        } catch (RuntimeException e) {
+            audit.error("rating.reconcile_failed", "error", e.getMessage());
+        }
+    }
+
+    private record ReconciledBatch(List<Long> corrected, Long lastId) {
+    }
+
+    private ReconciledBatch reconcileBatch(Long afterId) {
+        List<Long> ids = restaurantRepository.lockIdsAfter(afterId, batchSize);
+        if (ids.isEmpty()) {
+            return new ReconciledBatch(List.of(), null);
+        }
+        List<Long> corrected = restaurantRepository.reconcileRatings(ids);
+        return new ReconciledBatch(corrected, ids.size() < batchSize ? null : ids.get(ids.size() - 1));
+    }
+
+    /**
+     * @return ID of the last restaurant indexed, or null if there are no more
+     */
+    private Long indexBatch(Long afterId) {
+        long sequence = loadSequence.incrementAndGet();
+        List<RestaurantRatingRow> rows = restaurantRepository.findRatingPageAfter(afterId, Limit.of(batchSize));
+        for (RestaurantRatingRow row : rows) {
+            index.put(row.getId(), sequence, row.getName(), row.getAvgRating(), row.getRatingCount());
+        }
+        return rows.size() < batchSize ? null : rows.get(rows.size() - 1).getId();
+    }
+}
@@ -1,8 +1,29 @@
 package com.example.demo.repository;
 import com.example.demo.entity.Address;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import java.util.List;
+import java.util.Optional;
 public interface AddressRepository extends JpaRepository<Address, Long> {
     List<Address> findByUserId(Long userId);
+
+    @Query("SELECT a.id AS id, a.latitude AS latitude, a.longitude AS longitude FROM Address a "
+            + "WHERE a.id = :addressId")
+    Optional<AddressLocationRow> findLocationById(@Param("addressId") Long addressId);
+
+    // Geocoded addresses of a user, oldest first
+    @Query("SELECT a.id AS id, a.latitude AS latitude, a.longitude AS longitude FROM Address a "
+            + "WHERE a.user.id = :userId AND a.latitude IS NOT NULL AND a.longitude IS NOT NULL ORDER BY a.id")
+    List<AddressLocationRow> findLocatedByUserId(@Param("userId") Long userId, Limit limit);
+
+    interface AddressLocationRow {
+        Long getId();
+
+        Double getLatitude();
+
+        Double getLongitude();
+    }
 }
@@ -6,7 +6,9 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 @Repository
 public interface CategoryRepository extends JpaRepository<Category, Long> {
@@ -33,4 +35,46 @@ public interface CategoryRepository extends JpaRepository<Category, Long> {
     @EntityGraph(attributePaths = { "foodItems", "restaurant" })
     @Query("SELECT c FROM Category c WHERE c.id = :categoryId")
     java.util.Optional<Category> findByIdWithFoodItems(@Param("categoryId") Long categoryId);
-}
\ No newline at end of file
+
+    // The whole category tree of a restaurant as flat rows, one per (category, food
+    // item) pair; categories without food items get one row with null food item
+    // columns. One statement regardless of tree depth or breadth.
+    @Query("SELECT c.id AS categoryId, c.name AS categoryName, p.id AS parentId, "
+            + "f.id AS foodItemId, f.name AS foodItemName, f.basePrice AS basePrice, "
+            + "f.version AS version, f.availableAdditions AS availableAdditions "
+            + "FROM Category c LEFT JOIN c.parentCategory p LEFT JOIN c.foodItems f "
+            + "WHERE c.restaurant.id = :restaurantId ORDER BY c.id, f.id")
+    List<CategoryTreeRow> findTreeRowsByRestaurantId(@Param("restaurantId") Long restaurantId);
+
+    // Current state of the given categories, for menu deltas
+    @Query("SELECT c.id AS id, c.name AS name, c.parentCategory.id AS parentId FROM Category c "
+            + "WHERE c.restaurant.id = :restaurantId AND c.id IN :ids")
+    List<CategoryDeltaRow> findDeltaRows(@Param("restaurantId") Long restaurantId,
+            @Param("ids") Collection<Long> ids);
+
+    interface CategoryDeltaRow {
+        Long getId();
+
+        String getName();
+
+        Long getParentId();
+    }
+
+    interface CategoryTreeRow {
+        Long getCategoryId();
+
+        String getCategoryName();
+
+        Long getParentId();
+
+        Long getFoodItemId();
+
+        String getFoodItemName();
+
+        Double getBasePrice();
+
+        Long getVersion();
+
+        Map<String, Double> getAvailableAdditions();
+    }
+}
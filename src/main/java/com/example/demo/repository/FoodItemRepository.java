@@ -1,16 +1,110 @@
 package com.example.demo.repository;
 
+import com.example.demo.dto.FoodItemSummary;
 import com.example.demo.entity.FoodItem;
+import org.springframework.data.domain.Limit;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface FoodItemRepository extends JpaRepository<FoodItem, Long> {
 
-    // Get all food items in a specific category (e.g., all Burgers)
-    List<FoodItem> findByCategoryId(Long categoryId);
+    // Get all food items in a specific category (e.g., all Burgers), ordered by id
+    @Query("SELECT new com.example.demo.dto.FoodItemSummary(f.id, f.name, f.basePrice, f.version, f.availableAdditions) "
+            + "FROM FoodItem f WHERE f.category.id = :categoryId ORDER BY f.id")
+    List<FoodItemSummary> findSummariesByCategoryId(@Param("categoryId") Long categoryId);
 
-    // Search for food globally (e.g., "Pizza")
-    List<FoodItem> findByNameContainingIgnoreCase(String name);
-}
\ No newline at end of file
+    @Query("SELECT new com.example.demo.dto.FoodItemSummary(f.id, f.name, f.basePrice, f.version, f.availableAdditions) "
+            + "FROM FoodItem f WHERE f.id = :id")
+    Optional<FoodItemSummary> findSummaryById(@Param("id") Long id);
+
+    // Resolve every food item of an order in one round trip, with the category
+    // and its restaurant fetched so ownership can be checked without extra queries
+    @Query("SELECT f FROM FoodItem f JOIN FETCH f.category c JOIN FETCH c.restaurant WHERE f.id IN :ids")
+    List<FoodItem> findAllByIdWithRestaurant(@Param("ids") Collection<Long> ids);
+
+    // Keyset page of a restaurant's food items (all categories), ordered by id
+    @Query("SELECT new com.example.demo.dto.FoodItemSummary(f.id, f.name, f.basePrice, f.version, f.availableAdditions) "
+            + "FROM FoodItem f WHERE f.category.restaurant.id = :restaurantId AND f.id > :afterId ORDER BY f.id")
+    List<FoodItemSummary> findSummariesByRestaurantIdAfter(@Param("restaurantId") Long restaurantId,
+            @Param("afterId") Long afterId, Limit limit);
+
+    // What the search index needs of every food item of the given restaurants
+    @Query("SELECT f.id AS id, f.name AS name, c.restaurant.id AS restaurantId, "
+            + "f.availableAdditions AS availableAdditions "
+            + "FROM FoodItem f JOIN f.category c WHERE c.restaurant.id IN :restaurantIds")
+    List<FoodItemSearchRow> findSearchRowsByRestaurantIdIn(@Param("restaurantIds") Collection<Long> restaurantIds);
+
+    // Whole menu of a restaurant for export, grouped by category. Streamed from a
+    // server-side cursor: the driver holds one fetch of rows at a time and the
+    // projection rows are never attached to the persistence context. The caller
+    // must consume and close the stream inside a transaction.
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT f.id AS id, f.name AS name, f.basePrice AS basePrice, f.version AS version, "
+            + "f.availableAdditions AS availableAdditions, c.id AS categoryId, c.name AS categoryName, "
+            + "c.parentCategory.id AS parentCategoryId "
+            + "FROM FoodItem f JOIN f.category c WHERE c.restaurant.id = :restaurantId ORDER BY c.id, f.id")
+    Stream<FoodItemExportRow> streamExportRowsByRestaurantId(@Param("restaurantId") Long restaurantId);
+
+    // Current state of the given food items, for menu deltas
+    @Query("SELECT f.id AS id, c.id AS categoryId, f.name AS name, f.basePrice AS basePrice, "
+            + "f.version AS version, f.availableAdditions AS availableAdditions "
+            + "FROM FoodItem f JOIN f.category c WHERE c.restaurant.id = :restaurantId AND f.id IN :ids")
+    List<FoodItemDeltaRow> findDeltaRows(@Param("restaurantId") Long restaurantId,
+            @Param("ids") Collection<Long> ids);
+
+    interface FoodItemDeltaRow {
+        Long getId();
+
+        Long getCategoryId();
+
+        String getName();
+
+        Double getBasePrice();
+
+        Long getVersion();
+
+        Map<String, Double> getAvailableAdditions();
+    }
+
+    interface FoodItemExportRow {
+        Long getId();
+
+        String getName();
+
+        Double getBasePrice();
+
+        Long getVersion();
+
+        Map<String, Double> getAvailableAdditions();
+
+        Long getCategoryId();
+
+        String getCategoryName();
+
+        Long getParentCategoryId();
+    }
+
+    interface FoodItemSearchRow {
+        Long getId();
+
+        String getName();
+
+        Long getRestaurantId();
+
+        Map<String, Double> getAvailableAdditions();
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.demo.repository;
+
+import com.example.demo.entity.IdempotencyRecord;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, String> {
+
+    // Claims the key with a pending row (no status yet). Returns 1 for the one
+    // caller that inserted it, or took over an expired or abandoned row, and 0
+    // for everyone else, whichever instance they run on.
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT INTO idempotency_keys (idempotency_key, request_hash, created_at, expires_at) "
+            + "VALUES (:key, :requestHash, :now, :expiresAt) "
+            + "ON CONFLICT (idempotency_key) DO UPDATE SET request_hash = EXCLUDED.request_hash, "
+            + "status_code = NULL, response_body = NULL, location = NULL, created_at = EXCLUDED.created_at, "
+            + "expires_at = EXCLUDED.expires_at WHERE idempotency_keys.expires_at < :now", nativeQuery = true)
+    int reserve(@Param("key") String key, @Param("requestHash") String requestHash,
+            @Param("now") LocalDateTime now, @Param("expiresAt") LocalDateTime expiresAt);
+
+    // Stores the response on the pending row this caller reserved
+    @Modifying
+    @Transactional
+    @Query("UPDATE IdempotencyRecord r SET r.statusCode = :statusCode, r.responseBody = :responseBody, "
+            + "r.location = :location, r.expiresAt = :expiresAt WHERE r.key = :key AND r.statusCode IS NULL")
+    int complete(@Param("key") String key, @Param("statusCode") Integer statusCode,
+            @Param("responseBody") String responseBody, @Param("location") String location,
+            @Param("expiresAt") LocalDateTime expiresAt);
+
+    // Drops a pending row so the next retry runs the action again
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.key = :key AND r.statusCode IS NULL")
+    int release(@Param("key") String key);
+
+    // Purge expired keys in one statement instead of loading them
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.expiresAt < :now")
+    int deleteExpired(@Param("now") LocalDateTime now);
+}
@@ -0,0 +1,54 @@
+package com.example.demo.repository;
+
+import com.example.demo.entity.MenuChange;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface MenuChangeRepository extends JpaRepository<MenuChange, Long> {
+
+    // Latest logged operation per category / food item in (since, upTo]
+    @Query(value = "SELECT DISTINCT ON (entity_type, entity_id) entity_type AS entityType, "
+            + "entity_id AS entityId, operation "
+            + "FROM menu_changes WHERE restaurant_id = :restaurantId AND version > :since AND version <= :upTo "
+            + "ORDER BY entity_type, entity_id, version DESC", nativeQuery = true)
+    List<LatestChangeRow> findLatestChanges(@Param("restaurantId") Long restaurantId,
+            @Param("since") long since, @Param("upTo") long upTo);
+
+    // Compaction step 1: drop entries superseded by a newer entry for the same
+    // category / food item. Any client behind the dropped entry also gets the newer one.
+    // Each probe is a lookup in idx_menu_changes_entity_version.
+    @Modifying
+    @Query(value = "DELETE FROM menu_changes m WHERE EXISTS (SELECT 1 FROM menu_changes n "
+            + "WHERE n.restaurant_id = m.restaurant_id AND n.entity_type = m.entity_type "
+            + "AND n.entity_id = m.entity_id AND n.version > m.version)", nativeQuery = true)
+    int deleteSuperseded();
+
+    // Compaction step 2: before dropping old tombstones, raise each restaurant's floor
+    // to the newest of them, so clients that may have missed one resync in full
+    @Modifying
+    @Query(value = "UPDATE restaurants r SET menu_log_floor = t.max_version "
+            + "FROM (SELECT restaurant_id, MAX(version) AS max_version FROM menu_changes "
+            + "WHERE operation = 'DELETE' AND changed_at < :cutoff GROUP BY restaurant_id) t "
+            + "WHERE r.user_id = t.restaurant_id AND t.max_version > r.menu_log_floor", nativeQuery = true)
+    int raiseFloorsForTombstonesBefore(@Param("cutoff") LocalDateTime cutoff);
+
+    @Modifying
+    @Query("DELETE FROM MenuChange c WHERE c.operation = com.example.demo.enums.MenuChangeOperation.DELETE "
+            + "AND c.changedAt < :cutoff")
+    int deleteTombstonesBefore(@Param("cutoff") LocalDateTime cutoff);
+
+    interface LatestChangeRow {
+        String getEntityType();
+
+        Long getEntityId();
+
+        String getOperation();
+    }
+}
@@ -2,11 +2,51 @@ package com.example.demo.repository;
 
 import com.example.demo.entity.OrderItem;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
 
 @Repository
 public interface OrderItemRepository extends JpaRepository<OrderItem, Long> {
     // Usually not accessed directly, but useful for analytics
     // e.g., "How many times was a Burger ordered?"
     long countByFoodItemId(Long foodItemId);
+
+    // Union of the addition slots any stored order item of the food item selected;
+    // those slots must keep their names
+    @Query(value = "SELECT COALESCE(bit_or(addition_mask), 0) FROM order_items WHERE food_item_id = :foodItemId",
+            nativeQuery = true)
+    long findReferencedAdditionMask(@Param("foodItemId") Long foodItemId);
+
+    // Lines of a page of orders in one statement, with what is needed to name
+    // the selected additions
+    @Query("SELECT oi.order.id AS orderId, oi.id AS id, f.id AS foodItemId, "
+            + "oi.itemNameSnapshot AS itemName, oi.quantity AS quantity, oi.additionMask AS additionMask, "
+            + "oi.calculatedPriceMinor AS calculatedPriceMinor, oi.currency AS currency, "
+            + "f.additionSlots AS additionSlots "
+            + "FROM OrderItem oi LEFT JOIN oi.foodItem f WHERE oi.order.id IN :orderIds ORDER BY oi.id")
+    List<OrderItemRow> findRowsByOrderIdIn(@Param("orderIds") Collection<Long> orderIds);
+
+    interface OrderItemRow {
+        Long getOrderId();
+
+        Long getId();
+
+        Long getFoodItemId();
+
+        String getItemName();
+
+        Integer getQuantity();
+
+        Long getAdditionMask();
+
+        Long getCalculatedPriceMinor();
+
+        String getCurrency();
+
+        Map<String, Integer> getAdditionSlots();
+    }
 }
\ No newline at end of file
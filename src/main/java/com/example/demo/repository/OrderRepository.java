@@ -1,11 +1,15 @@
 package com.example.demo.repository;
 
+import com.example.demo.dto.OrderSummary;
 import com.example.demo.entity.Order;
 import com.example.demo.enums.OrderStatus;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -25,4 +29,80 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
 
     // Admin / Analytics: Find all active orders
     List<Order> findByStatusIn(List<OrderStatus> statuses);
+
+    // Read model for listings: scalar columns of the order and its related rows,
+    // so no entity is loaded or tracked
+    String ORDER_SUMMARY_SELECT = "SELECT new com.example.demo.dto.OrderSummary(o.id, o.status, o.version, "
+            + "o.totalPriceMinor, o.shippingPriceMinor, o.currency, o.createdAt, o.paymentMethod, o.notes, "
+            + "o.feedbackStars, o.feedbackComment, cu.id, cu.name, r.id, r.name, d.id, d.name, "
+            + "a.id, a.streetNumber, a.city, a.apartmentNumber) "
+            + "FROM Order o LEFT JOIN o.customer cu LEFT JOIN o.restaurant r "
+            + "LEFT JOIN o.deliveryStaff d LEFT JOIN o.deliveryAddress a ";
+
+    // Keyset pages on (createdAt, id), served by the composite indexes on orders.
+    // The row-value comparison continues strictly after the cursor row.
+    @Query(ORDER_SUMMARY_SELECT + "WHERE o.customer.id = :customerId "
+            + "AND (o.createdAt, o.id) < (:createdAt, :id) ORDER BY o.createdAt DESC, o.id DESC")
+    List<OrderSummary> findCustomerHistoryBefore(@Param("customerId") Long customerId,
+            @Param("createdAt") LocalDateTime createdAt, @Param("id") Long id, Limit limit);
+
+    @Query(ORDER_SUMMARY_SELECT + "WHERE o.restaurant.id = :restaurantId AND o.status = :status "
+            + "AND (o.createdAt, o.id) > (:createdAt, :id) ORDER BY o.createdAt, o.id")
+    List<OrderSummary> findByRestaurantIdAndStatusAfter(@Param("restaurantId") Long restaurantId,
+            @Param("status") OrderStatus status,
+            @Param("createdAt") LocalDateTime createdAt, @Param("id") Long id, Limit limit);
+
+    @Query(ORDER_SUMMARY_SELECT + "WHERE o.status IN :statuses "
+            + "AND (o.createdAt, o.id) > (:createdAt, :id) ORDER BY o.createdAt, o.id")
+    List<OrderSummary> findByStatusInAfter(@Param("statuses") Collection<OrderStatus> statuses,
+            @Param("createdAt") LocalDateTime createdAt, @Param("id") Long id, Limit limit);
+
+    @Query(ORDER_SUMMARY_SELECT + "WHERE o.deliveryStaff.id = :deliveryStaffId AND o.status = :status "
+            + "AND (o.createdAt, o.id) > (:createdAt, :id) ORDER BY o.createdAt, o.id")
+    List<OrderSummary> findByDeliveryStaffIdAndStatusAfter(@Param("deliveryStaffId") Long deliveryStaffId,
+            @Param("status") OrderStatus status,
+            @Param("createdAt") LocalDateTime createdAt, @Param("id") Long id, Limit limit);
+
+    long countByRestaurantIdAndStatus(Long restaurantId, OrderStatus status);
+
+    long countByDeliveryStaffIdAndStatus(Long deliveryStaffId, OrderStatus status);
+
+    // Status transitions as one conditional UPDATE; RETURNING gives the new state
+    // without a reload. Not @Modifying: the statement returns rows like a SELECT.
+    @Query(value = "UPDATE orders SET status = :toStatus, version = version + 1 "
+            + "WHERE id = :orderId AND status = :fromStatus "
+            + "RETURNING id AS orderId, status, version, restaurant_id AS restaurantId, delivery_id AS deliveryStaffId", nativeQuery = true)
+    List<OrderStatusRow> transitionStatus(@Param("orderId") Long orderId,
+            @Param("fromStatus") String fromStatus, @Param("toStatus") String toStatus);
+
+    @Query(value = "UPDATE orders SET status = :toStatus, version = version + 1 "
+            + "WHERE id = :orderId AND status = :fromStatus AND version = :version "
+            + "RETURNING id AS orderId, status, version, restaurant_id AS restaurantId, delivery_id AS deliveryStaffId", nativeQuery = true)
+    List<OrderStatusRow> transitionStatus(@Param("orderId") Long orderId,
+            @Param("fromStatus") String fromStatus, @Param("toStatus") String toStatus,
+            @Param("version") Long version);
+
+    @Query(value = "UPDATE orders SET status = :toStatus, version = version + 1 "
+            + "WHERE id IN (:orderIds) AND restaurant_id = :restaurantId AND status = :fromStatus "
+            + "RETURNING id AS orderId, status, version, restaurant_id AS restaurantId, delivery_id AS deliveryStaffId", nativeQuery = true)
+    List<OrderStatusRow> transitionStatusForRestaurant(@Param("restaurantId") Long restaurantId,
+            @Param("orderIds") Collection<Long> orderIds,
+            @Param("fromStatus") String fromStatus, @Param("toStatus") String toStatus);
+
+    // Records feedback once, for a delivered order; RETURNING gives the restaurant
+    // to credit. Not @Modifying: the statement returns rows like a SELECT.
+    @Query(value = "UPDATE orders SET feedback_stars = :stars, feedback_comment = :comment, version = version + 1 "
+            + "WHERE id = :orderId AND status = 'DELIVERED' AND feedback_stars IS NULL "
+            + "RETURNING restaurant_id", nativeQuery = true)
+    List<Long> recordFeedback(@Param("orderId") Long orderId, @Param("stars") int stars,
+            @Param("comment") String comment);
+
+    // Row returned by the transition queries
+    interface OrderStatusRow {
+        Long getOrderId();
+        String getStatus();
+        Long getVersion();
+        Long getRestaurantId();
+        Long getDeliveryStaffId();
+    }
 }
\ No newline at end of file
@@ -1,26 +1,117 @@
 package com.example.demo.repository;
 
+import com.example.demo.dto.RestaurantSummary;
 import com.example.demo.entity.Restaurant;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface RestaurantRepository extends JpaRepository<Restaurant, Long> {
 
-    // Find restaurants with a good rating
-    List<Restaurant> findByAvgRatingGreaterThanEqual(Double rating);
-
-    // Search by name (Case insensitive)
-    List<Restaurant> findByNameContainingIgnoreCase(String name);
-
     // Find restaurant with categories (without food items to avoid
     // MultipleBagFetchException)
     @EntityGraph(attributePaths = { "categories" })
     @Query("SELECT DISTINCT r FROM Restaurant r LEFT JOIN FETCH r.categories WHERE r.id = :restaurantId")
     Optional<Restaurant> findByIdWithCategories(@Param("restaurantId") Long restaurantId);
-}
\ No newline at end of file
+
+    String RESTAURANT_SUMMARY_SELECT = "SELECT new com.example.demo.dto.RestaurantSummary(r.id, r.name, "
+            + "r.description, r.avgRating, r.deliveryTimeEst, r.shippingPrice) FROM Restaurant r ";
+
+    @Query(RESTAURANT_SUMMARY_SELECT + "WHERE r.id = :restaurantId")
+    Optional<RestaurantSummary> findSummaryById(@Param("restaurantId") Long restaurantId);
+
+    // Claims the next menu version. The row lock is held until commit, so menu
+    // writes of one restaurant commit in version order. Not @Modifying: the
+    // statement returns a row like a SELECT.
+    @Query(value = "UPDATE restaurants SET menu_version = menu_version + 1 WHERE user_id = :restaurantId "
+            + "RETURNING menu_version", nativeQuery = true)
+    Long incrementMenuVersion(@Param("restaurantId") Long restaurantId);
+
+    @Query("SELECT r.menuVersion AS menuVersion, r.menuLogFloor AS menuLogFloor FROM Restaurant r "
+            + "WHERE r.id = :restaurantId")
+    Optional<MenuVersionRow> findMenuVersionById(@Param("restaurantId") Long restaurantId);
+
+    interface MenuVersionRow {
+        Long getMenuVersion();
+
+        Long getMenuLogFloor();
+    }
+
+    // Adds one feedback to the running aggregate. SET expressions see the old row,
+    // so concurrent feedback serializes on the row lock and none is lost. Not
+    // @Modifying: the statement returns a row like a SELECT.
+    @Query(value = "UPDATE restaurants SET rating_sum = rating_sum + :stars, rating_count = rating_count + 1, "
+            + "avg_rating = CAST(rating_sum + :stars AS double precision) / (rating_count + 1) "
+            + "WHERE user_id = :restaurantId RETURNING rating_count", nativeQuery = true)
+    Long addRating(@Param("restaurantId") Long restaurantId, @Param("stars") int stars);
+
+    // Reconciliation step 1: locks a keyset batch of restaurants, so no feedback
+    // for them commits between the recount and the write
+    @Query(value = "SELECT user_id FROM restaurants WHERE user_id > :afterId ORDER BY user_id "
+            + "LIMIT :limit FOR UPDATE", nativeQuery = true)
+    List<Long> lockIdsAfter(@Param("afterId") Long afterId, @Param("limit") int limit);
+
+    // Reconciliation step 2: recounts feedback from the orders table and fixes the
+    // restaurants whose aggregate drifted; returns their ids
+    @Query(value = "UPDATE restaurants r SET rating_sum = t.stars_sum, rating_count = t.stars_count, "
+            + "avg_rating = t.avg_stars "
+            + "FROM (SELECT x.user_id AS restaurant_id, COALESCE(SUM(o.feedback_stars), 0) AS stars_sum, "
+            + "COUNT(o.feedback_stars) AS stars_count, AVG(CAST(o.feedback_stars AS double precision)) AS avg_stars "
+            + "FROM restaurants x LEFT JOIN orders o ON o.restaurant_id = x.user_id "
+            + "WHERE x.user_id IN (:restaurantIds) GROUP BY x.user_id) t "
+            + "WHERE r.user_id = t.restaurant_id AND (r.rating_sum <> t.stars_sum "
+            + "OR r.rating_count <> t.stars_count OR (r.avg_rating IS NULL) <> (t.avg_stars IS NULL) "
+            + "OR abs(r.avg_rating - t.avg_stars) > 1e-9) "
+            + "RETURNING r.user_id", nativeQuery = true)
+    List<Long> reconcileRatings(@Param("restaurantIds") Collection<Long> restaurantIds);
+
+    // Keyset page of rated restaurants, ordered by id, for the rating index
+    @Query("SELECT r.id AS id, r.name AS name, r.avgRating AS avgRating, r.ratingCount AS ratingCount "
+            + "FROM Restaurant r WHERE r.id > :afterId AND r.ratingCount > 0 ORDER BY r.id")
+    List<RestaurantRatingRow> findRatingPageAfter(@Param("afterId") Long afterId, Limit limit);
+
+    @Query("SELECT r.id AS id, r.name AS name, r.avgRating AS avgRating, r.ratingCount AS ratingCount "
+            + "FROM Restaurant r WHERE r.id = :restaurantId")
+    Optional<RestaurantRatingRow> findRatingById(@Param("restaurantId") Long restaurantId);
+
+    interface RestaurantRatingRow {
+        Long getId();
+
+        String getName();
+
+        Double getAvgRating();
+
+        Long getRatingCount();
+    }
+
+    // Keyset page of located restaurants, ordered by id, for the nearby index
+    @Query("SELECT r.id AS id, r.name AS name, r.latitude AS latitude, r.longitude AS longitude "
+            + "FROM Restaurant r WHERE r.id > :afterId AND r.latitude IS NOT NULL AND r.longitude IS NOT NULL "
+            + "ORDER BY r.id")
+    List<RestaurantLocationRow> findLocationPageAfter(@Param("afterId") Long afterId, Limit limit);
+
+    @Query("SELECT r.id AS id, r.name AS name, r.latitude AS latitude, r.longitude AS longitude "
+            + "FROM Restaurant r WHERE r.id = :restaurantId")
+    Optional<RestaurantLocationRow> findLocationById(@Param("restaurantId") Long restaurantId);
+
+    interface RestaurantLocationRow {
+        Long getId();
+
+        String getName();
+
+        Double getLatitude();
+
+        Double getLongitude();
+    }
+
+    // Keyset page of the restaurant directory, ordered by id
+    @Query(RESTAURANT_SUMMARY_SELECT + "WHERE r.id > :afterId ORDER BY r.id")
+    List<RestaurantSummary> findSummaryPageAfter(@Param("afterId") Long afterId, Limit limit);
+}
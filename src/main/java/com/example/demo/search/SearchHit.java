@@ -0,0 +1,41 @@
+package com.example.demo.search;
+
+/**
+ * One ranked result of a catalog search.
+ */
+public class SearchHit {
+
+    private final SearchIndex.DocumentType type;
+    private final Long id;
+    private final Long restaurantId;
+    private final String name;
+    private final double score;
+
+    public SearchHit(SearchIndex.DocumentType type, Long id, Long restaurantId, String name, double score) {
+        this.type = type;
+        this.id = id;
+        this.restaurantId = restaurantId;
+        this.name = name;
+        this.score = score;
+    }
+
+    public SearchIndex.DocumentType getType() {
+        return type;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public Long getRestaurantId() {
+        return restaurantId;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public double getScore() {
+        return score;
+    }
+}
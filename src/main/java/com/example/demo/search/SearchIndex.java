@@ -0,0 +1,342 @@
+package com.example.demo.search;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * In-memory inverted index over restaurant names, food item names and the
+ * names of food item additions.
+ *
+ * Names are split into normalized terms (lower case, accents stripped). A query
+ * term matches an indexed term exactly, as a prefix, or - from three characters
+ * on - anywhere inside it through a trigram index, so "burg" also finds
+ * "Cheeseburger". Every query term has to match; hits are ranked by match
+ * quality, then by field (name above addition). A query only touches the
+ * postings of the terms it matches, and both the terms it expands to and the
+ * infix candidates it checks are capped, so its cost does not grow with the
+ * catalog.
+ *
+ * Documents are grouped per restaurant and replaced a whole restaurant at a
+ * time. Replacements carry a sequence number and an older one never overwrites
+ * a newer one, so concurrent reloads may finish in any order.
+ *
+ * Thread-safe: searches share a read lock, updates take the write lock.
+ */
+public class SearchIndex {
+
+    public enum DocumentType {
+        RESTAURANT,
+        FOOD_ITEM
+    }
+
+    /**
+     * Indexed view of one food item.
+     */
+    public record FoodItemDocument(Long id, String name, Collection<String> additions) {
+    }
+
+    // Upper bound on how many indexed terms one query term may expand to
+    private static final int MAX_EXPANSIONS = 64;
+    // Upper bound on how many indexed terms one query term checks for an infix match
+    private static final int MAX_INFIX_CANDIDATES = 1024;
+
+    private static final int FIELD_NAME = 1;
+    private static final int FIELD_ADDITION = 2;
+
+    private static final double EXACT_MATCH = 3.0;
+    private static final double PREFIX_MATCH = 2.0;
+    private static final double INFIX_MATCH = 1.0;
+    private static final double ADDITION_WEIGHT = 0.4;
+
+    private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern TERM_SEPARATOR = Pattern.compile("[^\\p{L}\\p{Nd}]+");
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Map<DocumentKey, IndexedDocument> documents = new HashMap<>();
+    private final TreeMap<String, Map<DocumentKey, Integer>> postings = new TreeMap<>();
+    private final Map<String, Set<String>> trigrams = new HashMap<>();
+    private final Map<Long, List<DocumentKey>> documentsByRestaurant = new HashMap<>();
+    private final Map<Long, Long> restaurantSequences = new HashMap<>();
+
+    private record DocumentKey(DocumentType type, Long id) {
+    }
+
+    private record IndexedDocument(DocumentKey key, Long restaurantId, String name, String normalizedName,
+            Map<String, Integer> terms) {
+    }
+
+    /**
+     * Replaces everything indexed for a restaurant: its own name and all of its
+     * food items. Food items missing from {@code foodItems} are removed.
+     *
+     * @param restaurantId   The restaurant ID
+     * @param sequence       Increasing number taken before the data was loaded
+     * @param restaurantName The restaurant name, or null if the restaurant no longer exists
+     * @param foodItems      All food items of the restaurant
+     * @return false if a newer replacement had already been applied
+     */
+    public boolean replaceRestaurant(Long restaurantId, long sequence, String restaurantName,
+            Collection<FoodItemDocument> foodItems) {
+        lock.writeLock().lock();
+        try {
+            Long applied = restaurantSequences.get(restaurantId);
+            if (applied != null && applied > sequence) {
+                return false;
+            }
+            restaurantSequences.put(restaurantId, sequence);
+
+            List<DocumentKey> previous = documentsByRestaurant.remove(restaurantId);
+            if (previous != null) {
+                for (DocumentKey key : previous) {
+                    remove(key);
+                }
+            }
+            if (restaurantName == null) {
+                return true;
+            }
+
+            List<DocumentKey> keys = new ArrayList<>(foodItems.size() + 1);
+            keys.add(add(new DocumentKey(DocumentType.RESTAURANT, restaurantId), restaurantId,
+                    restaurantName, List.of()));
+            for (FoodItemDocument foodItem : foodItems) {
+                keys.add(add(new DocumentKey(DocumentType.FOOD_ITEM, foodItem.id()), restaurantId,
+                        foodItem.name(), foodItem.additions()));
+            }
+            documentsByRestaurant.put(restaurantId, keys);
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Searches the index.
+     *
+     * @param query Free text; every term has to match
+     * @param type  Only return this kind of document, or null for both
+     * @param limit Maximum number of hits
+     * @return Hits, best first
+     */
+    public List<SearchHit> search(String query, DocumentType type, int limit) {
+        List<String> queryTerms = new ArrayList<>(new LinkedHashSet<>(terms(query)));
+        if (queryTerms.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        String normalizedQuery = String.join(" ", queryTerms);
+
+        lock.readLock().lock();
+        try {
+            Map<DocumentKey, Double> scores = null;
+            for (String queryTerm : queryTerms) {
+                Map<DocumentKey, Double> termScores = scoreTerm(queryTerm, type);
+                if (scores == null) {
+                    scores = termScores;
+                } else {
+                    scores.keySet().retainAll(termScores.keySet());
+                    scores.replaceAll((key, score) -> score + termScores.get(key));
+                }
+                if (scores.isEmpty()) {
+                    return List.of();
+                }
+            }
+            return topHits(scores, normalizedQuery, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return Number of indexed documents
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private DocumentKey add(DocumentKey key, Long restaurantId, String name, Collection<String> additions) {
+        // A food item moved to another restaurant is still indexed under the old one
+        IndexedDocument existing = documents.get(key);
+        if (existing != null) {
+            List<DocumentKey> owner = documentsByRestaurant.get(existing.restaurantId());
+            if (owner != null) {
+                owner.remove(key);
+            }
+            remove(key);
+        }
+
+        Map<String, Integer> terms = new HashMap<>();
+        List<String> nameTerms = terms(name);
+        for (String term : nameTerms) {
+            terms.merge(term, FIELD_NAME, (a, b) -> a | b);
+        }
+        if (additions != null) {
+            for (String addition : additions) {
+                for (String term : terms(addition)) {
+                    terms.merge(term, FIELD_ADDITION, (a, b) -> a | b);
+                }
+            }
+        }
+
+        documents.put(key, new IndexedDocument(key, restaurantId, name != null ? name : "",
+                String.join(" ", nameTerms), terms));
+        for (Map.Entry<String, Integer> entry : terms.entrySet()) {
+            postings.computeIfAbsent(entry.getKey(), this::newTerm).put(key, entry.getValue());
+        }
+        return key;
+    }
+
+    private void remove(DocumentKey key) {
+        IndexedDocument document = documents.remove(key);
+        if (document == null) {
+            return;
+        }
+        for (String term : document.terms().keySet()) {
+            Map<DocumentKey, Integer> termPostings = postings.get(term);
+            if (termPostings == null) {
+                continue;
+            }
+            termPostings.remove(key);
+            if (termPostings.isEmpty()) {
+                postings.remove(term);
+                for (String trigram : trigramsOf(term)) {
+                    Set<String> withTrigram = trigrams.get(trigram);
+                    if (withTrigram != null && withTrigram.remove(term) && withTrigram.isEmpty()) {
+                        trigrams.remove(trigram);
+                    }
+                }
+            }
+        }
+    }
+
+    private Map<DocumentKey, Integer> newTerm(String term) {
+        for (String trigram : trigramsOf(term)) {
+            trigrams.computeIfAbsent(trigram, t -> new HashSet<>()).add(term);
+        }
+        return new HashMap<>();
+    }
+
+    private Map<DocumentKey, Double> scoreTerm(String queryTerm, DocumentType type) {
+        Map<DocumentKey, Double> scores = new HashMap<>();
+        int expansions = 0;
+
+        // Exact and prefix matches: the indexed terms sorting right after the query term
+        for (Map.Entry<String, Map<DocumentKey, Integer>> entry : postings
+                .subMap(queryTerm, true, queryTerm + Character.MAX_VALUE, false).entrySet()) {
+            if (expansions++ >= MAX_EXPANSIONS) {
+                break;
+            }
+            double quality = entry.getKey().length() == queryTerm.length() ? EXACT_MATCH : PREFIX_MATCH;
+            collect(entry.getValue(), quality, type, scores);
+        }
+
+        // Matches inside a term; a candidate has to contain every trigram of the query term
+        if (queryTerm.length() >= 3 && expansions < MAX_EXPANSIONS) {
+            Set<String> candidates = null;
+            for (String trigram : trigramsOf(queryTerm)) {
+                Set<String> withTrigram = trigrams.get(trigram);
+                if (withTrigram == null) {
+                    return scores;
+                }
+                if (candidates == null || withTrigram.size() < candidates.size()) {
+                    candidates = withTrigram;
+                }
+            }
+            int examined = 0;
+            for (String term : candidates) {
+                if (examined++ >= MAX_INFIX_CANDIDATES) {
+                    break;
+                }
+                if (term.startsWith(queryTerm) || !term.contains(queryTerm)) {
+                    continue;
+                }
+                if (expansions++ >= MAX_EXPANSIONS) {
+                    break;
+                }
+                collect(postings.get(term), INFIX_MATCH, type, scores);
+            }
+        }
+        return scores;
+    }
+
+    private static void collect(Map<DocumentKey, Integer> termPostings, double quality, DocumentType type,
+            Map<DocumentKey, Double> scores) {
+        for (Map.Entry<DocumentKey, Integer> posting : termPostings.entrySet()) {
+            if (type != null && posting.getKey().type() != type) {
+                continue;
+            }
+            double weight = (posting.getValue() & FIELD_NAME) != 0 ? 1.0 : ADDITION_WEIGHT;
+            scores.merge(posting.getKey(), quality * weight, Math::max);
+        }
+    }
+
+    private List<SearchHit> topHits(Map<DocumentKey, Double> scores, String normalizedQuery, int limit) {
+        Comparator<SearchHit> ranking = Comparator.comparingDouble(SearchHit::getScore).reversed()
+                .thenComparingInt(hit -> hit.getName().length())
+                .thenComparing(SearchHit::getId);
+
+        // Worst hit on top, so it is the one dropped when the queue is full
+        PriorityQueue<SearchHit> best = new PriorityQueue<>(limit + 1, ranking.reversed());
+        for (Map.Entry<DocumentKey, Double> entry : scores.entrySet()) {
+            IndexedDocument document = documents.get(entry.getKey());
+            double score = entry.getValue();
+            if (document.normalizedName().equals(normalizedQuery)) {
+                score += 2.0;
+            } else if (document.normalizedName().startsWith(normalizedQuery)) {
+                score += 1.0;
+            }
+            best.add(new SearchHit(entry.getKey().type(), entry.getKey().id(), document.restaurantId(),
+                    document.name(), score));
+            if (best.size() > limit) {
+                best.poll();
+            }
+        }
+
+        List<SearchHit> hits = new ArrayList<>(best);
+        hits.sort(ranking);
+        return hits;
+    }
+
+    static List<String> terms(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        String folded = COMBINING_MARKS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("")
+                .toLowerCase(Locale.ROOT);
+        List<String> terms = new ArrayList<>();
+        for (String term : TERM_SEPARATOR.split(folded)) {
+            if (!term.isEmpty()) {
+                terms.add(term);
+            }
+        }
+        return terms;
+    }
+
+    private static List<String> trigramsOf(String term) {
+        if (term.length() < 3) {
+            return List.of();
+        }
+        List<String> result = new ArrayList<>(term.length() - 2);
+        for (int i = 0; i + 3 <= term.length(); i++) {
+            result.add(term.substring(i, i + 3));
+        }
+        return result;
+    }
+}
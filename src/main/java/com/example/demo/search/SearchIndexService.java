@@ -0,0 +1,180 @@
+package com.example.demo.search;
+
+import com.example.demo.audit.AuditLogger;
+import com.example.demo.dto.RestaurantSummary;
+import com.example.demo.menu.MenuChangedEvent;
+import com.example.demo.repository.FoodItemRepository;
+import com.example.demo.repository.FoodItemRepository.FoodItemSearchRow;
+import com.example.demo.repository.RestaurantRepository;
+import com.example.demo.service.RestaurantRegisteredEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Food item and restaurant search backed by an in-memory {@link SearchIndex}
+ * instead of LIKE '%x%' scans.
+ *
+ * The index is loaded from the database once the application is ready and a
+ * restaurant is reloaded in the background after a {@link MenuChangedEvent}
+ * or its {@link RestaurantRegisteredEvent} commits, so a restaurant registered
+ * since startup is searchable by name before its first menu change.
+ */
+@Service
+public class SearchIndexService {
+
+    public static final int DEFAULT_LIMIT = 20;
+    public static final int MAX_LIMIT = 100;
+    private static final int MAX_QUERY_LENGTH = 100;
+
+    private final AuditLogger audit = AuditLogger.getInstance();
+
+    private final SearchIndex index = new SearchIndex();
+    private final AtomicLong loadSequence = new AtomicLong();
+
+    private final RestaurantRepository restaurantRepository;
+    private final FoodItemRepository foodItemRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final int rebuildBatchSize;
+
+    public SearchIndexService(RestaurantRepository restaurantRepository, FoodItemRepository foodItemRepository,
+            PlatformTransactionManager transactionManager,
+            @Value("${search.index.rebuild-batch-size:500}") int rebuildBatchSize) {
+        this.restaurantRepository = restaurantRepository;
+        this.foodItemRepository = foodItemRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.rebuildBatchSize = rebuildBatchSize;
+    }
+
+    /**
+     * Searches restaurants and food items by name; food items also match on
+     * their addition names.
+     *
+     * @param query Free text
+     * @param type  Only return this kind of result, or null for both
+     * @param limit Maximum number of hits, clamped to {@link #MAX_LIMIT}
+     * @return Hits, best first
+     * @throws IllegalArgumentException if the query is blank or too long
+     */
+    public List<SearchHit> search(String query, SearchIndex.DocumentType type, Integer limit) {
+        if (query == null || query.isBlank()) {
+            throw new IllegalArgumentException("Search query is required");
+        }
+        if (query.length() > MAX_QUERY_LENGTH) {
+            throw new IllegalArgumentException("Search query must be at most " + MAX_QUERY_LENGTH + " characters");
+        }
+        int size = limit == null ? DEFAULT_LIMIT : Math.max(1, Math.min(limit, MAX_LIMIT));
+        return index.search(query, type, size);
+    }
+
+    /**
+     * Loads every restaurant and its food items into the index, a batch of
+     * restaurants per read-only transaction. Menu changes committed meanwhile
+     * are applied as they come; the sequence numbers keep a batch loaded
+     * earlier from overwriting them.
+     */
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long started = System.nanoTime();
+        try {
+            Long afterId = 0L;
+            while (afterId != null) {
+                Long from = afterId;
+                afterId = readOnlyTransaction.execute(status -> indexBatch(from));
+            }
+            audit.info("search.index.rebuilt", "documents", index.size(),
+                    "durationMs", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+        } catch (RuntimeException e) {
+            audit.error("search.index.rebuild_failed", "error", e.getMessage());
+        }
+    }
+
+    /**
+     * Reloads a restaurant after its menu changed. Runs on the task executor
+     * once the change is committed.
+     */
+    @Async
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onMenuChanged(MenuChangedEvent event) {
+        reloadRestaurant(event.getRestaurantId());
+    }
+
+    /**
+     * Adds a newly registered restaurant to the index.
+     */
+    @Async
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onRestaurantRegistered(RestaurantRegisteredEvent event) {
+        reloadRestaurant(event.getRestaurantId());
+    }
+
+    private void reloadRestaurant(Long restaurantId) {
+        if (restaurantId == null) {
+            return;
+        }
+        try {
+            long sequence = loadSequence.incrementAndGet();
+            readOnlyTransaction.executeWithoutResult(status -> {
+                String name = restaurantRepository.findSummaryById(restaurantId).map(RestaurantSummary::getName).orElse(null);
+                List<FoodItemSearchRow> rows = foodItemRepository.findSearchRowsByRestaurantIdIn(List.of(restaurantId));
+                List<SearchIndex.FoodItemDocument> foodItems = new ArrayList<>(rows.size());
+                for (FoodItemSearchRow row : rows) {
+                    foodItems.add(documentOf(row));
+                }
+                index.replaceRestaurant(restaurantId, sequence, name, foodItems);
+            });
+        } catch (RuntimeException e) {
+            audit.warn("search.index.update_failed", "restaurantId", restaurantId, "error", e.getMessage());
+        }
+    }
+
+    /**
+     * @return ID of the last restaurant indexed, or null if there are no more
+     */
+    private Long indexBatch(Long afterId) {
+        long sequence = loadSequence.incrementAndGet();
+        List<RestaurantSummary> restaurants = restaurantRepository.findSummaryPageAfter(afterId,
+                Limit.of(rebuildBatchSize));
+        if (restaurants.isEmpty()) {
+            return null;
+        }
+
+        Map<Long, List<SearchIndex.FoodItemDocument>> foodItemsByRestaurant = new HashMap<>();
+        for (RestaurantSummary restaurant : restaurants) {
+            foodItemsByRestaurant.put(restaurant.getId(), new ArrayList<>());
+        }
+        List<FoodItemSearchRow> rows = foodItemRepository.findSearchRowsByRestaurantIdIn(foodItemsByRestaurant.keySet());
+        for (FoodItemSearchRow row : rows) {
+            foodItemsByRestaurant.get(row.getRestaurantId()).add(documentOf(row));
+        }
+        for (RestaurantSummary restaurant : restaurants) {
+            index.replaceRestaurant(restaurant.getId(), sequence, restaurant.getName(),
+                    foodItemsByRestaurant.get(restaurant.getId()));
+        }
+
+        return restaurants.size() < rebuildBatchSize ? null : restaurants.get(restaurants.size() - 1).getId();
+    }
+
+    private static SearchIndex.FoodItemDocument documentOf(FoodItemSearchRow row) {
+        Map<String, Double> additions = row.getAvailableAdditions();
+        Set<String> additionNames = additions != null ? additions.keySet() : Set.of();
+        return new SearchIndex.FoodItemDocument(row.getId(), row.getName(), additionNames);
+    }
+}
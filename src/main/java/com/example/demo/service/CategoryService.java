@@ -1,23 +1,43 @@
 package com.example.demo.service;
 
+import com.example.demo.dto.CategoryTreeNode;
+import com.example.demo.dto.FoodItemSummary;
 import com.example.demo.entity.Category;
+import com.example.demo.entity.FoodItem;
 import com.example.demo.entity.Restaurant;
+import com.example.demo.enums.MenuChangeOperation;
+import com.example.demo.enums.MenuEntityType;
+import com.example.demo.menu.MenuChangeLog;
+import com.example.demo.menu.MenuChangedEvent;
 import com.example.demo.repository.CategoryRepository;
 import com.example.demo.repository.RestaurantRepository;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 @Service
 public class CategoryService {
 
     private final CategoryRepository categoryRepository;
     private final RestaurantRepository restaurantRepository;
+    private final PriceQuoteService priceQuoteService;
+    private final MenuChangeLog menuChangeLog;
+    private final ApplicationEventPublisher eventPublisher;
 
-    public CategoryService(CategoryRepository categoryRepository, RestaurantRepository restaurantRepository) {
+    public CategoryService(CategoryRepository categoryRepository, RestaurantRepository restaurantRepository,
+            PriceQuoteService priceQuoteService, MenuChangeLog menuChangeLog,
+            ApplicationEventPublisher eventPublisher) {
         this.categoryRepository = categoryRepository;
         this.restaurantRepository = restaurantRepository;
+        this.priceQuoteService = priceQuoteService;
+        this.menuChangeLog = menuChangeLog;
+        this.eventPublisher = eventPublisher;
     }
 
     @Transactional
@@ -32,7 +52,10 @@ public class CategoryService {
         // Maintain bidirectional relationship: add category to restaurant's list
         restaurant.getCategories().add(category);
 
-        return categoryRepository.save(category);
+        Category saved = categoryRepository.save(category);
+        menuChangeLog.record(restaurantId, MenuEntityType.CATEGORY, saved.getId(), MenuChangeOperation.UPSERT);
+        eventPublisher.publishEvent(new MenuChangedEvent(restaurantId));
+        return saved;
     }
 
     public Category getCategoryById(Long categoryId) {
@@ -45,6 +68,47 @@ public class CategoryService {
         return categoryRepository.findByRestaurantIdWithFoodItems(restaurantId);
     }
 
+    /**
+     * Loads the full category tree of a restaurant (subcategories and food items
+     * at every level) with a single query and assembles it in memory in O(n).
+     *
+     * @param restaurantId The restaurant ID
+     * @return Root categories, each with its subtree
+     */
+    @Transactional(readOnly = true)
+    public List<CategoryTreeNode> getCategoryTree(Long restaurantId) {
+        List<CategoryRepository.CategoryTreeRow> rows = categoryRepository.findTreeRowsByRestaurantId(restaurantId);
+
+        // Rows are ordered by category, so each category's rows are contiguous
+        Map<Long, CategoryTreeNode> nodes = new LinkedHashMap<>();
+        Map<Long, Long> parentIds = new HashMap<>();
+        for (CategoryRepository.CategoryTreeRow row : rows) {
+            CategoryTreeNode node = nodes.get(row.getCategoryId());
+            if (node == null) {
+                node = new CategoryTreeNode(row.getCategoryId(), row.getCategoryName());
+                nodes.put(row.getCategoryId(), node);
+                if (row.getParentId() != null) {
+                    parentIds.put(row.getCategoryId(), row.getParentId());
+                }
+            }
+            if (row.getFoodItemId() != null) {
+                node.getFoodItems().add(new FoodItemSummary(row.getFoodItemId(), row.getFoodItemName(),
+                        row.getBasePrice(), row.getVersion(), row.getAvailableAdditions()));
+            }
+        }
+
+        List<CategoryTreeNode> roots = new ArrayList<>();
+        for (CategoryTreeNode node : nodes.values()) {
+            CategoryTreeNode parent = nodes.get(parentIds.get(node.getId()));
+            if (parent != null) {
+                parent.getSubCategories().add(node);
+            } else {
+                roots.add(node);
+            }
+        }
+        return roots;
+    }
+
     @Transactional
     public Category updateCategory(Long categoryId, Long restaurantId, String name) {
         Category category = categoryRepository.findById(categoryId)
@@ -56,7 +120,10 @@ public class CategoryService {
         }
 
         category.setName(name);
-        return categoryRepository.save(category);
+        Category saved = categoryRepository.save(category);
+        menuChangeLog.record(restaurantId, MenuEntityType.CATEGORY, saved.getId(), MenuChangeOperation.UPSERT);
+        eventPublisher.publishEvent(new MenuChangedEvent(restaurantId));
+        return saved;
     }
 
     @Transactional
@@ -70,5 +137,21 @@ public class CategoryService {
         }
 
         categoryRepository.delete(category);
+        // Food items of the category and its subcategories are deleted by cascade
+        recordDeleted(category, restaurantId);
+        eventPublisher.publishEvent(new MenuChangedEvent(restaurantId));
+    }
+
+    // Invalidates quotes for, and logs the deletion of, everything in the subtree
+    private void recordDeleted(Category category, Long restaurantId) {
+        menuChangeLog.record(restaurantId, MenuEntityType.CATEGORY, category.getId(), MenuChangeOperation.DELETE);
+        for (FoodItem foodItem : category.getFoodItems()) {
+            priceQuoteService.invalidateAfterCommit(foodItem.getId());
+            menuChangeLog.record(restaurantId, MenuEntityType.FOOD_ITEM, foodItem.getId(),
+                    MenuChangeOperation.DELETE);
+        }
+        for (Category subCategory : category.getSubCategories()) {
+            recordDeleted(subCategory, restaurantId);
+        }
     }
 }
@@ -1,15 +1,17 @@
 package com.example.demo.service;
 
 import com.example.demo.dto.DashboardData;
+import com.example.demo.dto.OrderSummary;
+import com.example.demo.dto.RestaurantSummary;
 import com.example.demo.entity.User;
-import com.example.demo.entity.Order;
-import com.example.demo.entity.Restaurant;
+import com.example.demo.geo.NearbyRestaurant;
+import com.example.demo.geo.NearbyRestaurantService;
+import com.example.demo.pagination.CursorPage;
 import com.example.demo.repository.UserRepository;
-import com.example.demo.repository.OrderRepository;
-import com.example.demo.repository.RestaurantRepository;
 import com.example.demo.util.PasswordUtil;
 import com.example.demo.auth.JwtTokenUtil;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.HashMap;
 import java.util.List;
@@ -18,47 +20,62 @@ import java.util.Map;
 @Service
 public class CustomerService extends AuthenticationService {
 
-    private final OrderRepository orderRepository;
-    private final RestaurantRepository restaurantRepository;
+    // Dashboards show the first page; the rest is fetched with the returned cursors
+    private static final int DASHBOARD_PAGE_SIZE = 20;
+
+    private final OrderHistoryService orderHistoryService;
+    private final RestaurantDirectoryService restaurantDirectoryService;
+    private final NearbyRestaurantService nearbyRestaurantService;
 
     public CustomerService(UserRepository userRepository, PasswordUtil passwordUtil, 
-                          JwtTokenUtil jwtTokenUtil, OrderRepository orderRepository,
-                          RestaurantRepository restaurantRepository) {
+                          JwtTokenUtil jwtTokenUtil, OrderHistoryService orderHistoryService,
+                          RestaurantDirectoryService restaurantDirectoryService,
+                          NearbyRestaurantService nearbyRestaurantService) {
         super(userRepository, passwordUtil, jwtTokenUtil);
-        this.orderRepository = orderRepository;
-        this.restaurantRepository = restaurantRepository;
+        this.orderHistoryService = orderHistoryService;
+        this.restaurantDirectoryService = restaurantDirectoryService;
+        this.nearbyRestaurantService = nearbyRestaurantService;
     }
 
     @Override
+    @Transactional(readOnly = true)
     public DashboardData getDashboardData(Long userId) {
         User user = userRepository.findById(userId)
             .orElseThrow(() -> new IllegalArgumentException("User not found"));
 
-        // Get all orders made by this customer
-        List<Order> orders = orderRepository.findByCustomerId(userId);
+        // Most recent orders made by this customer
+        CursorPage<OrderSummary> orders = orderHistoryService.getCustomerOrders(userId, null, DASHBOARD_PAGE_SIZE);
+
+        // Restaurants near the customer's first geocoded address, from the in-memory index
+        List<NearbyRestaurant> nearby = nearbyRestaurantService.findNearbyUser(userId, DASHBOARD_PAGE_SIZE);
 
-        // Get all restaurants (simple fields for browsing)
-        List<Restaurant> restaurants = restaurantRepository.findAll();
+        // First page of restaurants (simple fields for browsing), from the cached directory
+        CursorPage<RestaurantSummary> restaurants = restaurantDirectoryService.getRestaurants(null, DASHBOARD_PAGE_SIZE);
 
         Map<String, Object> data = new HashMap<>();
         data.put("userId", userId);
         data.put("userName", user.getName());
         data.put("userEmail", user.getEmail());
-        data.put("orders", orders);
-        data.put("totalOrders", orders.size());
-        data.put("restaurants", restaurants);
-        data.put("totalRestaurants", restaurants.size());
+        data.put("orders", orders.getItems());
+        data.put("ordersNextCursor", orders.getNextCursor());
+        // No total: counting the whole history costs more than the page; the cursor tells if there is more
+        data.put("ordersHasMore", orders.isHasMore());
+        data.put("nearbyRestaurants", nearby);
+        data.put("restaurants", restaurants.getItems());
+        data.put("restaurantsNextCursor", restaurants.getNextCursor());
+        data.put("totalRestaurants", restaurantDirectoryService.countRestaurants());
 
         return new DashboardData(data);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public DashboardData getUserData(Long userId) {
         User user = userRepository.findById(userId)
             .orElseThrow(() -> new IllegalArgumentException("User not found"));
 
-        // Get order history
-        List<Order> orderHistory = orderRepository.findByCustomerId(userId);
+        // Most recent part of the order history
+        CursorPage<OrderSummary> orderHistory = orderHistoryService.getCustomerOrders(userId, null, DASHBOARD_PAGE_SIZE);
 
         Map<String, Object> data = new HashMap<>();
         data.put("id", user.getId());
@@ -67,8 +84,9 @@ public class CustomerService extends AuthenticationService {
         data.put("phone", user.getPhone());
         data.put("userRole", user.getUserRole());
         data.put("addresses", user.getAddresses());
-        data.put("orderHistory", orderHistory);
-        data.put("totalOrders", orderHistory.size());
+        data.put("orderHistory", orderHistory.getItems());
+        data.put("orderHistoryNextCursor", orderHistory.getNextCursor());
+        data.put("orderHistoryHasMore", orderHistory.isHasMore());
 
         return new DashboardData(data);
     }
@@ -1,67 +1,81 @@
 package com.example.demo.service;
 
 import com.example.demo.dto.DashboardData;
+import com.example.demo.dto.OrderSummary;
 import com.example.demo.entity.User;
-import com.example.demo.entity.Order;
 import com.example.demo.enums.OrderStatus;
+import com.example.demo.pagination.CursorPage;
 import com.example.demo.repository.UserRepository;
-import com.example.demo.repository.OrderRepository;
 import com.example.demo.util.PasswordUtil;
 import com.example.demo.auth.JwtTokenUtil;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
 
 @Service
 public class DeliveryService extends AuthenticationService {
 
-    private final OrderRepository orderRepository;
+    // Dashboards show the first page; the rest is fetched with the returned cursors
+    private static final int DASHBOARD_PAGE_SIZE = 20;
+
+    private final OrderHistoryService orderHistoryService;
 
     public DeliveryService(UserRepository userRepository, PasswordUtil passwordUtil,
-                          JwtTokenUtil jwtTokenUtil, OrderRepository orderRepository) {
+                          JwtTokenUtil jwtTokenUtil, OrderHistoryService orderHistoryService) {
         super(userRepository, passwordUtil, jwtTokenUtil);
-        this.orderRepository = orderRepository;
+        this.orderHistoryService = orderHistoryService;
     }
 
     @Override
+    @Transactional(readOnly = true)
     public DashboardData getDashboardData(Long userId) {
         User user = userRepository.findById(userId)
             .orElseThrow(() -> new IllegalArgumentException("User not found"));
 
         // Get active deliveries (not delivered or cancelled)
-        List<Order> activeDeliveries = orderRepository.findByDeliveryStaffIdAndStatus(
-            userId, 
-            OrderStatus.OUT_FOR_DELIVERY
+        CursorPage<OrderSummary> activeDeliveries = orderHistoryService.getDeliveryOrders(
+            userId,
+            OrderStatus.OUT_FOR_DELIVERY,
+            null,
+            DASHBOARD_PAGE_SIZE
         );
 
         // Also get orders that are cooking (potential future deliveries)
-        List<Order> cookingOrders = orderRepository.findByDeliveryStaffIdAndStatus(
+        CursorPage<OrderSummary> cookingOrders = orderHistoryService.getDeliveryOrders(
             userId,
-            OrderStatus.COOKING
+            OrderStatus.COOKING,
+            null,
+            DASHBOARD_PAGE_SIZE
         );
 
         Map<String, Object> data = new HashMap<>();
         data.put("deliveryStaffId", userId);
         data.put("deliveryStaffName", user.getName());
-        data.put("activeDeliveries", activeDeliveries);
-        data.put("cookingOrders", cookingOrders);
-        data.put("totalActiveDeliveries", activeDeliveries.size());
-        data.put("totalCookingOrders", cookingOrders.size());
+        data.put("activeDeliveries", activeDeliveries.getItems());
+        data.put("activeDeliveriesNextCursor", activeDeliveries.getNextCursor());
+        data.put("cookingOrders", cookingOrders.getItems());
+        data.put("cookingOrdersNextCursor", cookingOrders.getNextCursor());
+        data.put("totalActiveDeliveries",
+            orderHistoryService.countDeliveryOrders(userId, OrderStatus.OUT_FOR_DELIVERY));
+        data.put("totalCookingOrders", orderHistoryService.countDeliveryOrders(userId, OrderStatus.COOKING));
 
         return new DashboardData(data);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public DashboardData getUserData(Long userId) {
         User user = userRepository.findById(userId)
             .orElseThrow(() -> new IllegalArgumentException("User not found"));
 
-        // Get all orders delivered by this delivery staff
-        List<Order> deliveredOrders = orderRepository.findByDeliveryStaffIdAndStatus(
+        // First page of the orders delivered by this delivery staff
+        CursorPage<OrderSummary> deliveredOrders = orderHistoryService.getDeliveryOrders(
             userId,
-            OrderStatus.DELIVERED
+            OrderStatus.DELIVERED,
+            null,
+            DASHBOARD_PAGE_SIZE
         );
 
         Map<String, Object> data = new HashMap<>();
@@ -70,8 +84,9 @@ public class DeliveryService extends AuthenticationService {
         data.put("name", user.getName());
         data.put("phone", user.getPhone());
         data.put("userRole", user.getUserRole());
-        data.put("deliveryHistory", deliveredOrders);
-        data.put("totalDeliveries", deliveredOrders.size());
+        data.put("deliveryHistory", deliveredOrders.getItems());
+        data.put("deliveryHistoryNextCursor", deliveredOrders.getNextCursor());
+        data.put("totalDeliveries", orderHistoryService.countDeliveryOrders(userId, OrderStatus.DELIVERED));
 
         return new DashboardData(data);
     }
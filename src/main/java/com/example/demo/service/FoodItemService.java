@@ -1,9 +1,19 @@
 package com.example.demo.service;
 
+import com.example.demo.dto.FoodItemSummary;
 import com.example.demo.entity.FoodItem;
 import com.example.demo.entity.Category;
+import com.example.demo.enums.MenuChangeOperation;
+import com.example.demo.enums.MenuEntityType;
+import com.example.demo.menu.MenuChangeLog;
+import com.example.demo.menu.MenuChangedEvent;
+import com.example.demo.pagination.Cursor;
+import com.example.demo.pagination.CursorPage;
 import com.example.demo.repository.FoodItemRepository;
 import com.example.demo.repository.CategoryRepository;
+import com.example.demo.repository.OrderItemRepository;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -15,10 +25,23 @@ public class FoodItemService {
 
     private final FoodItemRepository foodItemRepository;
     private final CategoryRepository categoryRepository;
-
-    public FoodItemService(FoodItemRepository foodItemRepository, CategoryRepository categoryRepository) {
+    private final OrderItemRepository orderItemRepository;
+    private final PriceCalculationService priceCalculationService;
+    private final PriceQuoteService priceQuoteService;
+    private final MenuChangeLog menuChangeLog;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public FoodItemService(FoodItemRepository foodItemRepository, CategoryRepository categoryRepository,
+            OrderItemRepository orderItemRepository, PriceCalculationService priceCalculationService,
+            PriceQuoteService priceQuoteService, MenuChangeLog menuChangeLog,
+            ApplicationEventPublisher eventPublisher) {
         this.foodItemRepository = foodItemRepository;
         this.categoryRepository = categoryRepository;
+        this.orderItemRepository = orderItemRepository;
+        this.priceCalculationService = priceCalculationService;
+        this.priceQuoteService = priceQuoteService;
+        this.menuChangeLog = menuChangeLog;
+        this.eventPublisher = eventPublisher;
     }
 
     @Transactional
@@ -36,25 +59,39 @@ public class FoodItemService {
         // Maintain bidirectional relationship: add food item to category's list
         category.getFoodItems().add(foodItem);
 
-        return foodItemRepository.save(foodItem);
+        FoodItem saved = foodItemRepository.save(foodItem);
+        Long restaurantId = category.getRestaurant().getId();
+        menuChangeLog.record(restaurantId, MenuEntityType.FOOD_ITEM, saved.getId(), MenuChangeOperation.UPSERT);
+        eventPublisher.publishEvent(new MenuChangedEvent(restaurantId));
+        return saved;
     }
 
-    public FoodItem getFoodItemById(Long foodItemId) {
-        return foodItemRepository.findById(foodItemId)
+    @Transactional(readOnly = true)
+    public FoodItemSummary getFoodItemById(Long foodItemId) {
+        return foodItemRepository.findSummaryById(foodItemId)
                 .orElseThrow(() -> new IllegalArgumentException("Food item not found"));
     }
 
-    public List<FoodItem> getFoodItemsByCategory(Long categoryId) {
-        return foodItemRepository.findByCategoryId(categoryId);
+    @Transactional(readOnly = true)
+    public List<FoodItemSummary> getFoodItemsByCategory(Long categoryId) {
+        return foodItemRepository.findSummariesByCategoryId(categoryId);
     }
 
-    public List<FoodItem> getFoodItemsByRestaurant(Long restaurantId) {
-        // Get all categories for the restaurant (including subcategories), then get
-        // food items for each
-        List<Category> categories = categoryRepository.findAllByRestaurantIdWithFoodItems(restaurantId);
-        return categories.stream()
-                .flatMap(category -> category.getFoodItems().stream())
-                .toList();
+    /**
+     * One keyset page of a restaurant's food items across all its categories
+     * (including subcategories), ordered by id.
+     *
+     * @param cursor Opaque cursor from the previous page, null for the first page
+     * @param limit  Requested page size, clamped to {@link CursorPage#MAX_LIMIT}
+     * @throws IllegalArgumentException if the cursor is invalid
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<FoodItemSummary> getFoodItemsByRestaurant(Long restaurantId, String cursor, Integer limit) {
+        Cursor from = Cursor.decode(cursor);
+        int pageSize = CursorPage.limit(limit);
+        List<FoodItemSummary> fetched = foodItemRepository.findSummariesByRestaurantIdAfter(
+                restaurantId, from != null ? from.getId() : 0L, Limit.of(pageSize + 1));
+        return CursorPage.of(fetched, pageSize, item -> Cursor.ofId(item.getId()));
     }
 
     @Transactional
@@ -70,9 +107,18 @@ public class FoodItemService {
 
         foodItem.setName(name);
         foodItem.setBasePrice(basePrice);
-        foodItem.setAvailableAdditions(availableAdditions);
-
-        return foodItemRepository.save(foodItem);
+        // Addition slots still referenced by past orders must not be reassigned
+        foodItem.setAvailableAdditions(availableAdditions,
+                orderItemRepository.findReferencedAdditionMask(foodItemId));
+
+        // The version bump already makes the old plan unusable; this just frees it
+        priceCalculationService.invalidate(foodItemId);
+        priceQuoteService.invalidateAfterCommit(foodItemId);
+
+        FoodItem saved = foodItemRepository.save(foodItem);
+        menuChangeLog.record(restaurantId, MenuEntityType.FOOD_ITEM, foodItemId, MenuChangeOperation.UPSERT);
+        eventPublisher.publishEvent(new MenuChangedEvent(restaurantId));
+        return saved;
     }
 
     @Transactional
@@ -86,5 +132,9 @@ public class FoodItemService {
         }
 
         foodItemRepository.delete(foodItem);
+        priceCalculationService.invalidate(foodItemId);
+        priceQuoteService.invalidateAfterCommit(foodItemId);
+        menuChangeLog.record(restaurantId, MenuEntityType.FOOD_ITEM, foodItemId, MenuChangeOperation.DELETE);
+        eventPublisher.publishEvent(new MenuChangedEvent(restaurantId));
     }
 }
@@ -0,0 +1,268 @@
+package com.example.demo.service;
+
+import com.example.demo.entity.IdempotencyRecord;
+import com.example.demo.repository.IdempotencyRecordRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import tools.jackson.databind.ObjectMapper;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Executes a request at most once per Idempotency-Key.
+ *
+ * The first response for a key (status, body and Location header) is kept in a bounded in-memory LRU cache with a
+ * TTL and written to the idempotency_keys table, which serves keys that have
+ * been evicted from the cache. A request that arrives while the first one for
+ * the same key is still running waits for its result instead of executing
+ * again.
+ *
+ * Across instances the table decides: a request first inserts a pending row
+ * for its key and only the one whose insert succeeded runs the action. Others
+ * replay the stored response, or get 409 while it is still pending. A pending
+ * row left behind by a crashed instance is taken over once it is older than
+ * {@code order.idempotency.reservation-timeout}.
+ */
+@Service
+public class IdempotencyService {
+
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    private static final int MAX_KEY_LENGTH = 255;
+
+    private final IdempotencyRecordRepository recordRepository;
+    private final ObjectMapper objectMapper;
+
+    private final int cacheSize;
+    private final Duration cacheTtl;
+    private final Duration retention;
+    private final Duration waitTimeout;
+    private final Duration reservationTimeout;
+
+    // Requests currently executing, keyed by idempotency key
+    private final ConcurrentHashMap<String, CompletableFuture<IdempotencyRecord>> inFlight = new ConcurrentHashMap<>();
+
+    // Completed responses, least recently used evicted first
+    private final Map<String, IdempotencyRecord> completed;
+
+    public IdempotencyService(IdempotencyRecordRepository recordRepository, ObjectMapper objectMapper,
+            @Value("${order.idempotency.cache-size:10000}") int cacheSize,
+            @Value("${order.idempotency.cache-ttl:10m}") Duration cacheTtl,
+            @Value("${order.idempotency.retention:24h}") Duration retention,
+            @Value("${order.idempotency.wait-timeout:30s}") Duration waitTimeout,
+            @Value("${order.idempotency.reservation-timeout:5m}") Duration reservationTimeout) {
+        this.recordRepository = recordRepository;
+        this.objectMapper = objectMapper;
+        this.cacheSize = cacheSize;
+        this.cacheTtl = cacheTtl;
+        this.retention = retention;
+        this.waitTimeout = waitTimeout;
+        this.reservationTimeout = reservationTimeout;
+        this.completed = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, IdempotencyRecord> eldest) {
+                return size() > IdempotencyService.this.cacheSize;
+            }
+        };
+    }
+
+    /**
+     * Runs the action once for the key and replays its stored response for
+     * every later request with the same key.
+     *
+     * @param key     The Idempotency-Key header value
+     * @param request The request body, used to detect key reuse with a different payload
+     * @param action  The action producing the response
+     * @return The response of the first execution
+     */
+    public ResponseEntity<?> execute(String key, Object request, Supplier<ResponseEntity<?>> action) {
+        if (key.length() > MAX_KEY_LENGTH) {
+            return error(HttpStatus.BAD_REQUEST, "Idempotency-Key must be at most " + MAX_KEY_LENGTH + " characters");
+        }
+        String requestHash = hash(request);
+
+        IdempotencyRecord cached = getCached(key);
+        if (cached != null) {
+            return replay(cached, requestHash);
+        }
+
+        CompletableFuture<IdempotencyRecord> future = new CompletableFuture<>();
+        CompletableFuture<IdempotencyRecord> existing = inFlight.putIfAbsent(key, future);
+        if (existing != null) {
+            return awaitInFlight(existing, requestHash);
+        }
+
+        try {
+            // Claim the key in the table before running anything, so a request for the
+            // same key on another instance cannot run the action as well
+            LocalDateTime now = LocalDateTime.now();
+            if (recordRepository.reserve(key, requestHash, now, now.plus(reservationTimeout)) == 0) {
+                IdempotencyRecord stored = recordRepository.findById(key).orElse(null);
+                if (stored == null || stored.getStatusCode() == null) {
+                    // Still running elsewhere (or purged a moment ago): the client retries later
+                    future.completeExceptionally(new IllegalStateException("Idempotency-Key is being processed"));
+                    return error(HttpStatus.CONFLICT, "A request with this Idempotency-Key is still being processed");
+                }
+                cache(stored);
+                future.complete(stored);
+                return replay(stored, requestHash);
+            }
+
+            ResponseEntity<?> response;
+            try {
+                response = action.get();
+            } catch (RuntimeException e) {
+                release(key);
+                throw e;
+            }
+            IdempotencyRecord record = toRecord(key, requestHash, response);
+            if (record != null) {
+                store(record);
+            } else {
+                release(key);
+            }
+            // Waiters of an unstored (5xx) result get it replayed once; later retries run again
+            future.complete(record != null ? record : toTransientRecord(key, requestHash, response));
+            return response;
+        } catch (RuntimeException e) {
+            future.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, future);
+        }
+    }
+
+    private ResponseEntity<?> awaitInFlight(CompletableFuture<IdempotencyRecord> future, String requestHash) {
+        try {
+            IdempotencyRecord record = future.get(waitTimeout.toMillis(), TimeUnit.MILLISECONDS);
+            return replay(record, requestHash);
+        } catch (TimeoutException | ExecutionException e) {
+            return error(HttpStatus.CONFLICT, "A request with this Idempotency-Key is still being processed");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return error(HttpStatus.CONFLICT, "A request with this Idempotency-Key is still being processed");
+        }
+    }
+
+    private ResponseEntity<?> replay(IdempotencyRecord record, String requestHash) {
+        if (!record.getRequestHash().equals(requestHash)) {
+            return error(HttpStatus.UNPROCESSABLE_CONTENT,
+                    "Idempotency-Key was already used with a different request body");
+        }
+        ResponseEntity.BodyBuilder response = ResponseEntity.status(record.getStatusCode())
+                .contentType(MediaType.APPLICATION_JSON)
+                .header(REPLAYED_HEADER, "true");
+        if (record.getLocation() != null) {
+            response.header(HttpHeaders.LOCATION, record.getLocation());
+        }
+        return response.body(record.getResponseBody());
+    }
+
+    private IdempotencyRecord getCached(String key) {
+        synchronized (completed) {
+            IdempotencyRecord record = completed.get(key);
+            if (record == null) {
+                return null;
+            }
+            if (record.getCreatedAt().plus(cacheTtl).isBefore(LocalDateTime.now())) {
+                completed.remove(key);
+                return null;
+            }
+            return record;
+        }
+    }
+
+    private void cache(IdempotencyRecord record) {
+        synchronized (completed) {
+            completed.put(record.getKey(), record);
+        }
+    }
+
+    private void store(IdempotencyRecord record) {
+        cache(record);
+        // Zero rows only if the reservation timed out and another request took the key over
+        recordRepository.complete(record.getKey(), record.getStatusCode(), record.getResponseBody(),
+                record.getLocation(), record.getExpiresAt());
+    }
+
+    private void release(String key) {
+        try {
+            recordRepository.release(key);
+        } catch (RuntimeException e) {
+            // The pending row expires after the reservation timeout instead
+        }
+    }
+
+    /**
+     * Builds the record for a response, or null when the response should not be
+     * remembered (server errors are retried).
+     */
+    private IdempotencyRecord toRecord(String key, String requestHash, ResponseEntity<?> response) {
+        if (response.getStatusCode().is5xxServerError()) {
+            return null;
+        }
+        return toTransientRecord(key, requestHash, response);
+    }
+
+    private IdempotencyRecord toTransientRecord(String key, String requestHash, ResponseEntity<?> response) {
+        LocalDateTime now = LocalDateTime.now();
+        URI location = response.getHeaders().getLocation();
+        return new IdempotencyRecord(key, requestHash, response.getStatusCode().value(),
+                objectMapper.writeValueAsString(response.getBody()),
+                location != null ? location.toString() : null, now, now.plus(retention));
+    }
+
+    private String hash(Object request) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] body = objectMapper.writeValueAsString(request).getBytes(StandardCharsets.UTF_8);
+            return HexFormat.of().formatHex(digest.digest(body));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private ResponseEntity<?> error(HttpStatus status, String message) {
+        Map<String, String> error = new HashMap<>();
+        error.put("error", message);
+        return ResponseEntity.status(status).body(error);
+    }
+
+    /**
+     * Removes expired keys from the durable table.
+     */
+    @Scheduled(fixedDelayString = "${order.idempotency.cleanup-interval:1h}")
+    public void purgeExpired() {
+        recordRepository.deleteExpired(LocalDateTime.now());
+    }
+
+    public int getCachedCount() {
+        synchronized (completed) {
+            return completed.size();
+        }
+    }
+
+    public int getInFlightCount() {
+        return inFlight.size();
+    }
+}
@@ -0,0 +1,131 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.OrderItemSummary;
+import com.example.demo.dto.OrderSummary;
+import com.example.demo.entity.FoodItem;
+import com.example.demo.enums.OrderStatus;
+import com.example.demo.pagination.Cursor;
+import com.example.demo.pagination.CursorPage;
+import com.example.demo.repository.OrderItemRepository;
+import com.example.demo.repository.OrderItemRepository.OrderItemRow;
+import com.example.demo.repository.OrderRepository;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keyset-paginated order listings. Every page is one index range scan from the
+ * cursor, so its cost does not grow with the amount of history.
+ *
+ * Customer history is newest first; restaurant, delivery and status listings
+ * are work queues and run oldest first.
+ *
+ * Listings are read as {@link OrderSummary} projections in read-only
+ * transactions: one statement for the orders and one for the lines of the
+ * whole page, with nothing for the persistence context to track or flush.
+ */
+@Service
+@Transactional(readOnly = true)
+public class OrderHistoryService {
+
+    // Start positions for the first page of descending / ascending listings
+    private static final Cursor NEWEST = Cursor.of(LocalDateTime.of(9999, 12, 31, 23, 59), Long.MAX_VALUE);
+    private static final Cursor OLDEST = Cursor.of(LocalDateTime.of(1970, 1, 1, 0, 0), 0L);
+
+    private final OrderRepository orderRepository;
+    private final OrderItemRepository orderItemRepository;
+
+    public OrderHistoryService(OrderRepository orderRepository, OrderItemRepository orderItemRepository) {
+        this.orderRepository = orderRepository;
+        this.orderItemRepository = orderItemRepository;
+    }
+
+    /**
+     * @param cursor Opaque cursor from the previous page, null for the first page
+     * @param limit  Requested page size, clamped to {@link CursorPage#MAX_LIMIT}
+     * @throws IllegalArgumentException if the cursor is invalid
+     */
+    public CursorPage<OrderSummary> getCustomerOrders(Long customerId, String cursor, Integer limit) {
+        Cursor from = start(cursor, NEWEST);
+        int pageSize = CursorPage.limit(limit);
+        return page(orderRepository.findCustomerHistoryBefore(customerId, from.getCreatedAt(), from.getId(),
+                Limit.of(pageSize + 1)), pageSize);
+    }
+
+    public CursorPage<OrderSummary> getRestaurantOrders(Long restaurantId, OrderStatus status, String cursor, Integer limit) {
+        Cursor from = start(cursor, OLDEST);
+        int pageSize = CursorPage.limit(limit);
+        return page(orderRepository.findByRestaurantIdAndStatusAfter(restaurantId, status,
+                from.getCreatedAt(), from.getId(), Limit.of(pageSize + 1)), pageSize);
+    }
+
+    public CursorPage<OrderSummary> getOrdersByStatus(Collection<OrderStatus> statuses, String cursor, Integer limit) {
+        if (statuses == null || statuses.isEmpty()) {
+            throw new IllegalArgumentException("At least one status is required");
+        }
+        Cursor from = start(cursor, OLDEST);
+        int pageSize = CursorPage.limit(limit);
+        return page(orderRepository.findByStatusInAfter(statuses, from.getCreatedAt(), from.getId(),
+                Limit.of(pageSize + 1)), pageSize);
+    }
+
+    public CursorPage<OrderSummary> getDeliveryOrders(Long deliveryStaffId, OrderStatus status, String cursor,
+            Integer limit) {
+        Cursor from = start(cursor, OLDEST);
+        int pageSize = CursorPage.limit(limit);
+        return page(orderRepository.findByDeliveryStaffIdAndStatusAfter(deliveryStaffId, status,
+                from.getCreatedAt(), from.getId(), Limit.of(pageSize + 1)), pageSize);
+    }
+
+    public long countRestaurantOrders(Long restaurantId, OrderStatus status) {
+        return orderRepository.countByRestaurantIdAndStatus(restaurantId, status);
+    }
+
+    public long countDeliveryOrders(Long deliveryStaffId, OrderStatus status) {
+        return orderRepository.countByDeliveryStaffIdAndStatus(deliveryStaffId, status);
+    }
+
+    private static Cursor start(String token, Cursor first) {
+        Cursor cursor = Cursor.decode(token);
+        if (cursor == null) {
+            return first;
+        }
+        if (cursor.getCreatedAt() == null) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+        return cursor;
+    }
+
+    private CursorPage<OrderSummary> page(List<OrderSummary> fetched, int pageSize) {
+        CursorPage<OrderSummary> page = CursorPage.of(fetched, pageSize,
+                order -> Cursor.of(order.getCreatedAt(), order.getId()));
+        withItems(page.getItems());
+        return page;
+    }
+
+    private void withItems(List<OrderSummary> orders) {
+        if (orders.isEmpty()) {
+            return;
+        }
+        Map<Long, List<OrderItemSummary>> itemsByOrder = new HashMap<>();
+        for (OrderSummary order : orders) {
+            itemsByOrder.put(order.getId(), new ArrayList<>());
+        }
+        for (OrderItemRow row : orderItemRepository.findRowsByOrderIdIn(itemsByOrder.keySet())) {
+            long mask = row.getAdditionMask() != null ? row.getAdditionMask() : 0L;
+            itemsByOrder.get(row.getOrderId()).add(new OrderItemSummary(row.getId(), row.getFoodItemId(),
+                    row.getItemName(), row.getQuantity(), FoodItem.decodeAdditions(row.getAdditionSlots(), mask),
+                    row.getCalculatedPriceMinor(), row.getCurrency()));
+        }
+        for (OrderSummary order : orders) {
+            order.setItems(itemsByOrder.get(order.getId()));
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.OrderStatusChange;
+import com.example.demo.enums.OrderStatus;
+import com.example.demo.feed.OrderEvent;
+import com.example.demo.repository.OrderRepository;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+
+/**
+ * Applies order status transitions as compare-and-set UPDATEs.
+ *
+ * A transition is only written if the order is still in the expected status
+ * (and version, when given), so two concurrent updates can never both succeed
+ * and no load/mutate/save round trip is needed.
+ */
+@Service
+public class OrderLifecycleService {
+
+    private final OrderRepository orderRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public OrderLifecycleService(OrderRepository orderRepository, ApplicationEventPublisher eventPublisher) {
+        this.orderRepository = orderRepository;
+        this.eventPublisher = eventPublisher;
+    }
+
+    /**
+     * Moves one order from {@code from} to {@code to}.
+     *
+     * @param orderId         The order
+     * @param from            The status the caller expects the order to be in
+     * @param to              The new status
+     * @param expectedVersion Optional version the order must still have
+     * @return The new status and version
+     * @throws IllegalArgumentException if the transition is not allowed
+     * @throws IllegalStateException    if the order is no longer in the expected
+     *                                  state (concurrent update) or does not exist
+     */
+    @Transactional
+    public OrderStatusChange transition(Long orderId, OrderStatus from, OrderStatus to, Long expectedVersion) {
+        validateTransition(from, to);
+
+        List<OrderRepository.OrderStatusRow> rows = expectedVersion == null
+                ? orderRepository.transitionStatus(orderId, from.name(), to.name())
+                : orderRepository.transitionStatus(orderId, from.name(), to.name(), expectedVersion);
+
+        if (rows.isEmpty()) {
+            throw new IllegalStateException("Order " + orderId + " is not in status " + from
+                    + (expectedVersion != null ? " at version " + expectedVersion : "")
+                    + " (it was changed concurrently or does not exist)");
+        }
+        return toChange(rows.get(0));
+    }
+
+    /**
+     * Moves every listed order of the restaurant that is still in {@code from}
+     * to {@code to} with a single UPDATE. Orders in another status or belonging
+     * to another restaurant are left untouched and not returned.
+     *
+     * @return The orders that were transitioned, with their new version
+     */
+    @Transactional
+    public List<OrderStatusChange> transitionAll(Long restaurantId, List<Long> orderIds,
+            OrderStatus from, OrderStatus to) {
+        validateTransition(from, to);
+        if (orderIds == null || orderIds.isEmpty()) {
+            return List.of();
+        }
+
+        List<OrderRepository.OrderStatusRow> rows = orderRepository.transitionStatusForRestaurant(
+                restaurantId, new LinkedHashSet<>(orderIds), from.name(), to.name());
+
+        List<OrderStatusChange> changes = new ArrayList<>(rows.size());
+        for (OrderRepository.OrderStatusRow row : rows) {
+            changes.add(toChange(row));
+        }
+        return changes;
+    }
+
+    private void validateTransition(OrderStatus from, OrderStatus to) {
+        if (from == null || to == null) {
+            throw new IllegalArgumentException("Both current and new status are required");
+        }
+        if (!from.canTransitionTo(to)) {
+            throw new IllegalArgumentException("Cannot change order status from " + from + " to " + to
+                    + ". Allowed: " + from.nextStatuses());
+        }
+    }
+
+    private OrderStatusChange toChange(OrderRepository.OrderStatusRow row) {
+        OrderStatus status = OrderStatus.valueOf(row.getStatus());
+        // Delivered to dashboard subscribers once the transaction commits
+        eventPublisher.publishEvent(new OrderEvent(OrderEvent.Type.STATUS_CHANGED, row.getOrderId(),
+                row.getRestaurantId(), row.getDeliveryStaffId(), status, row.getVersion(), null));
+        return new OrderStatusChange(row.getOrderId(), status, row.getVersion());
+    }
+}
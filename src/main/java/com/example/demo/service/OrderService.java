@@ -1,6 +1,8 @@
 package com.example.demo.service;
 
 import com.example.demo.dto.CreateOrderRequest;
+import com.example.demo.dto.OrderPlacement;
+import com.example.demo.dto.OrderPlacementResult;
 import com.example.demo.dto.PaymentInfo;
 import com.example.demo.entity.*;
 import java.util.List;
@@ -9,4 +11,15 @@ public interface OrderService {
 	Order createOrder(User customer, Restaurant restaurant, Address deliveryAddress,
 			List<CreateOrderRequest.OrderItemRequest> orderItems,
 			PaymentInfo paymentInfo, String notes);
-}
\ No newline at end of file
+
+	/**
+	 * Places several independent orders in one transaction. Every placement is
+	 * checked and priced before any payment is taken; a placement that fails
+	 * its checks or its payment is left out and the others are still created.
+	 *
+	 * @return One result per placement, in the order of the placements
+	 * @throws RuntimeException if saving fails; payments may have been taken, so
+	 *                          the placements must not simply be placed again
+	 */
+	List<OrderPlacementResult> createOrders(List<OrderPlacement> placements);
+}
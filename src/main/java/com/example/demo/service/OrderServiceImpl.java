@@ -2,17 +2,28 @@ package com.example.demo.service;
 
 import com.example.demo.builder.OrderBuilder;
 import com.example.demo.dto.CreateOrderRequest;
+import com.example.demo.dto.OrderPlacement;
+import com.example.demo.dto.OrderPlacementResult;
 import com.example.demo.dto.PaymentInfo;
 import com.example.demo.entity.*;
 import com.example.demo.factory.PaymentStrategyFactory;
+import com.example.demo.feed.OrderEvent;
+import com.example.demo.pricing.Money;
+import com.example.demo.pricing.PricePlan;
 import com.example.demo.repository.FoodItemRepository;
 import com.example.demo.repository.OrderRepository;
 import com.example.demo.strategy.PaymentStrategy;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.ArrayList;
+import java.util.Currency;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 /**
  * Service for handling order operations using the Decorator pattern for price
@@ -25,15 +36,18 @@ public class OrderServiceImpl implements OrderService {
 	private final FoodItemRepository foodItemRepository;
 	private final PriceCalculationService priceCalculationService;
 	private final PaymentStrategyFactory paymentStrategyFactory;
+	private final ApplicationEventPublisher eventPublisher;
 
 	public OrderServiceImpl(OrderRepository orderRepository,
 			FoodItemRepository foodItemRepository,
 			PriceCalculationService priceCalculationService,
-			PaymentStrategyFactory paymentStrategyFactory) {
+			PaymentStrategyFactory paymentStrategyFactory,
+			ApplicationEventPublisher eventPublisher) {
 		this.orderRepository = orderRepository;
 		this.foodItemRepository = foodItemRepository;
 		this.priceCalculationService = priceCalculationService;
 		this.paymentStrategyFactory = paymentStrategyFactory;
+		this.eventPublisher = eventPublisher;
 	}
 
 	/**
@@ -50,20 +64,90 @@ public class OrderServiceImpl implements OrderService {
 		FoodItem foodItem = foodItemRepository.findById(foodItemId)
 				.orElseThrow(() -> new IllegalArgumentException("Food item not found with id: " + foodItemId));
 
-		// Validate additions
-		if (!priceCalculationService.validateAdditions(foodItem, selectedAdditions)) {
-			throw new IllegalArgumentException("One or more selected additions are not available for this food item");
-		}
+		return createOrderItem(foodItem, quantity, selectedAdditions);
+	}
 
-		// Calculate unit price using decorator pattern (base price + additions)
-		Double unitPrice = priceCalculationService.calculatePrice(foodItem, selectedAdditions);
+	/**
+	 * Creates an OrderItem for an already loaded food item.
+	 *
+	 * @param foodItem          The resolved food item
+	 * @param quantity          The quantity of this item
+	 * @param selectedAdditions List of addition names selected by the customer
+	 * @return A new OrderItem with calculated price (unitPrice * quantity)
+	 * @throws IllegalArgumentException if additions are invalid
+	 */
+	public OrderItem createOrderItem(FoodItem foodItem, Integer quantity, List<String> selectedAdditions) {
+		// Encode the selection as a slot mask, then validate and price it against the
+		// compiled price plan
+		PricePlan plan = priceCalculationService.getPricePlan(foodItem);
+		long additionMask;
+		Money unitPrice;
+		try {
+			additionMask = plan.encode(selectedAdditions);
+			unitPrice = plan.priceOf(additionMask);
+		} catch (IllegalArgumentException e) {
+			throw new IllegalArgumentException("One or more selected additions are not available for this food item", e);
+		}
 
 		// Calculate total price for this item (unitPrice * quantity)
-		Integer itemQuantity = quantity != null && quantity > 0 ? quantity : 1;
-		Double calculatedPrice = unitPrice * itemQuantity;
+		int itemQuantity = quantity != null && quantity > 0 ? quantity : 1;
+		Money calculatedPrice = unitPrice.times(itemQuantity);
 
 		// Create and return OrderItem with quantity
-		return new OrderItem(foodItem, selectedAdditions, itemQuantity, calculatedPrice);
+		return new OrderItem(foodItem, additionMask, itemQuantity, calculatedPrice);
+	}
+
+	/**
+	 * Loads every food item referenced by the order lines in a single query and
+	 * checks that each one belongs to the given restaurant through its category.
+	 *
+	 * @param restaurant The restaurant the order is placed at
+	 * @param orderItems The requested order lines
+	 * @return Food items keyed by ID
+	 * @throws IllegalArgumentException if an item is missing or belongs to another
+	 *                                  restaurant
+	 */
+	private Map<Long, FoodItem> resolveFoodItems(Restaurant restaurant,
+			List<CreateOrderRequest.OrderItemRequest> orderItems) {
+		Set<Long> ids = foodItemIds(orderItems);
+		Map<Long, FoodItem> foodItems = loadFoodItems(ids);
+		checkFoodItems(restaurant, ids, foodItems);
+		return foodItems;
+	}
+
+	private Set<Long> foodItemIds(List<CreateOrderRequest.OrderItemRequest> orderItems) {
+		if (orderItems == null || orderItems.isEmpty()) {
+			throw new IllegalArgumentException("Order must contain at least one item");
+		}
+		Set<Long> ids = new LinkedHashSet<>();
+		for (CreateOrderRequest.OrderItemRequest request : orderItems) {
+			if (request.getFoodItemId() == null) {
+				throw new IllegalArgumentException("Food item ID is required");
+			}
+			ids.add(request.getFoodItemId());
+		}
+		return ids;
+	}
+
+	private Map<Long, FoodItem> loadFoodItems(Set<Long> ids) {
+		Map<Long, FoodItem> foodItems = new HashMap<>();
+		for (FoodItem foodItem : foodItemRepository.findAllByIdWithRestaurant(ids)) {
+			foodItems.put(foodItem.getId(), foodItem);
+		}
+		return foodItems;
+	}
+
+	private void checkFoodItems(Restaurant restaurant, Set<Long> ids, Map<Long, FoodItem> foodItems) {
+		for (Long id : ids) {
+			FoodItem foodItem = foodItems.get(id);
+			if (foodItem == null) {
+				throw new IllegalArgumentException("Food item not found with id: " + id);
+			}
+			if (!foodItem.getCategory().getRestaurant().getId().equals(restaurant.getId())) {
+				throw new IllegalArgumentException(
+						"Food item " + id + " does not belong to restaurant " + restaurant.getId());
+			}
+		}
 	}
 
 	/**
@@ -81,43 +165,113 @@ public class OrderServiceImpl implements OrderService {
 	@Transactional
 	public Order createOrder(User customer, Restaurant restaurant, Address deliveryAddress,
 			List<CreateOrderRequest.OrderItemRequest> orderItems, PaymentInfo paymentInfo, String notes) {
-		if (orderItems == null || orderItems.isEmpty()) {
-			throw new IllegalArgumentException("Order must contain at least one item");
+		// Load all referenced food items in one query and check restaurant ownership
+		Map<Long, FoodItem> foodItems = resolveFoodItems(restaurant, orderItems);
+
+		Order order = buildOrder(customer, restaurant, deliveryAddress, orderItems, paymentInfo, notes, foodItems);
+		pay(order, paymentInfo);
+		Order saved = orderRepository.save(order);
+
+		// Delivered to dashboard subscribers once the transaction commits
+		eventPublisher.publishEvent(OrderEvent.created(saved));
+
+		return saved;
+	}
+
+	/**
+	 * Places several orders in one transaction. The food items of all of them
+	 * are loaded with one query and the orders are saved together, so their
+	 * rows go out in JDBC batches.
+	 *
+	 * Every placement is checked and priced before any payment is taken, so an
+	 * invalid placement is dropped without charging anyone; a declined payment
+	 * only drops its own placement.
+	 *
+	 * @param placements The orders to place
+	 * @return One result per placement, in the order of the placements
+	 */
+	@Transactional
+	public List<OrderPlacementResult> createOrders(List<OrderPlacement> placements) {
+		Set<Long> ids = new LinkedHashSet<>();
+		for (OrderPlacement placement : placements) {
+			List<CreateOrderRequest.OrderItemRequest> orderItems = placement.getOrderItems();
+			if (orderItems != null) {
+				for (CreateOrderRequest.OrderItemRequest request : orderItems) {
+					if (request.getFoodItemId() != null) {
+						ids.add(request.getFoodItemId());
+					}
+				}
+			}
+		}
+		Map<Long, FoodItem> foodItems = loadFoodItems(ids);
+
+		OrderPlacementResult[] results = new OrderPlacementResult[placements.size()];
+		Order[] orders = new Order[placements.size()];
+		for (int i = 0; i < orders.length; i++) {
+			OrderPlacement placement = placements.get(i);
+			try {
+				checkFoodItems(placement.getRestaurant(), foodItemIds(placement.getOrderItems()), foodItems);
+				orders[i] = buildOrder(placement.getCustomer(), placement.getRestaurant(),
+						placement.getDeliveryAddress(), placement.getOrderItems(), placement.getPaymentInfo(),
+						placement.getNotes(), foodItems);
+			} catch (RuntimeException e) {
+				results[i] = OrderPlacementResult.failed(e);
+			}
+		}
+
+		List<Order> paid = new ArrayList<>(orders.length);
+		for (int i = 0; i < orders.length; i++) {
+			if (orders[i] == null) {
+				continue;
+			}
+			try {
+				pay(orders[i], placements.get(i).getPaymentInfo());
+				paid.add(orders[i]);
+			} catch (RuntimeException e) {
+				results[i] = OrderPlacementResult.failed(e);
+				orders[i] = null;
+			}
 		}
 
+		List<Order> saved = orderRepository.saveAll(paid);
+		int next = 0;
+		for (int i = 0; i < orders.length; i++) {
+			if (orders[i] != null) {
+				Order order = saved.get(next++);
+				eventPublisher.publishEvent(OrderEvent.created(order));
+				results[i] = OrderPlacementResult.placed(order);
+			}
+		}
+		return List.of(results);
+	}
+
+	// Prices the order and builds it (unsaved, not yet paid)
+	private Order buildOrder(User customer, Restaurant restaurant, Address deliveryAddress,
+			List<CreateOrderRequest.OrderItemRequest> orderItems, PaymentInfo paymentInfo, String notes,
+			Map<Long, FoodItem> foodItems) {
 		if (paymentInfo == null) {
 			throw new IllegalArgumentException("Payment information is required");
 		}
 
-		// Get appropriate payment strategy based on payment method
-		PaymentStrategy paymentStrategy = paymentStrategyFactory.getStrategy(paymentInfo.getPaymentMethod());
+		// Fails here, before any payment of a batch, for an unsupported payment method
+		paymentStrategyFactory.getStrategy(paymentInfo.getPaymentMethod());
 
-		// Get shipping price from restaurant (default to 0.0 if not set)
-		Double shippingPrice = restaurant.getShippingPrice() != null ? restaurant.getShippingPrice() : 0.0;
+		// Get shipping price from restaurant (default to 0 if not set)
+		Currency currency = priceCalculationService.getCurrency();
+		Money shippingPrice = restaurant.getShippingPrice() != null
+				? Money.ofMajor(restaurant.getShippingPrice(), currency)
+				: Money.zero(currency);
 
 		// Create OrderItems using decorator pattern with quantities
-		List<OrderItem> items = new ArrayList<>();
+		List<OrderItem> items = new ArrayList<>(orderItems.size());
 		for (CreateOrderRequest.OrderItemRequest request : orderItems) {
 			OrderItem item = createOrderItem(
-					request.getFoodItemId(),
+					foodItems.get(request.getFoodItemId()),
 					request.getQuantity(),
 					request.getSelectedAdditions());
 			items.add(item);
 		}
 
-		// Create a temporary order object for payment processing
-		Order tempOrder = new Order();
-		tempOrder.setTotalPrice(items.stream()
-				.filter(item -> item.getCalculatedPrice() != null)
-				.mapToDouble(OrderItem::getCalculatedPrice)
-				.sum() + shippingPrice);
-
-		// Process payment using strategy pattern
-		boolean paymentProcessed = paymentStrategy.processPayment(tempOrder, paymentInfo);
-		if (!paymentProcessed) {
-			throw new IllegalArgumentException("Payment processing failed");
-		}
-
 		// Build order using Builder pattern: set fields → set items → set shipping →
 		// set payment → set notes → build
 		OrderBuilder builder = new OrderBuilder()
@@ -130,8 +284,21 @@ public class OrderServiceImpl implements OrderService {
 				.withNotes(notes); // Set optional notes
 
 		// Build the order (Builder calculates total: itemsTotal + shippingPrice)
-		Order order = builder.build();
+		return builder.build();
+	}
+
+	// Charges the order total using the strategy for its payment method
+	private void pay(Order order, PaymentInfo paymentInfo) {
+		PaymentStrategy paymentStrategy = paymentStrategyFactory.getStrategy(paymentInfo.getPaymentMethod());
 
-		return orderRepository.save(order);
+		// Create a temporary order object for payment processing
+		Order tempOrder = new Order();
+		tempOrder.setTotal(order.getTotal());
+
+		// Process payment using strategy pattern
+		boolean paymentProcessed = paymentStrategy.processPayment(tempOrder, paymentInfo);
+		if (!paymentProcessed) {
+			throw new IllegalArgumentException("Payment processing failed");
+		}
 	}
 }
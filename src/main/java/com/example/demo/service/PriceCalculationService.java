@@ -4,19 +4,105 @@ import com.example.demo.Decorator.AdditionDecorator;
 import com.example.demo.Decorator.BaseFoodItem;
 import com.example.demo.Decorator.FoodItemComponent;
 import com.example.demo.entity.FoodItem;
+import com.example.demo.pricing.Money;
+import com.example.demo.pricing.PricePlan;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.util.Currency;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
- * Service for calculating food item prices using the Decorator pattern.
- * This service handles the creation of decorated food items and price calculations.
+ * Service for calculating food item prices.
+ * Prices come from compiled {@link PricePlan}s cached per food item version;
+ * the Decorator pattern is still used to render descriptions.
  */
 @Service
 public class PriceCalculationService {
 
+    // foodItemId -> compiled plan of the latest version seen
+    private final ConcurrentHashMap<Long, PricePlan> pricePlans = new ConcurrentHashMap<>();
+    private final int maxPricePlans;
+    private final Currency currency;
+
+    public PriceCalculationService(@Value("${pricing.plan-cache.max-size:50000}") int maxPricePlans,
+                                   @Value("${pricing.currency:USD}") String currencyCode) {
+        this.maxPricePlans = maxPricePlans;
+        this.currency = Currency.getInstance(currencyCode);
+    }
+
+    /**
+     * @return The currency all prices are calculated in
+     */
+    public Currency getCurrency() {
+        return currency;
+    }
+
+    /**
+     * Gets the compiled price plan of the food item, compiling it on first use
+     * or when the item's version changed.
+     *
+     * @param foodItem The food item
+     * @return The price plan matching the item's current version
+     */
+    public PricePlan getPricePlan(FoodItem foodItem) {
+        if (foodItem == null) {
+            throw new IllegalArgumentException("FoodItem cannot be null");
+        }
+        if (foodItem.getId() == null || foodItem.getVersion() == null) {
+            // Not persisted yet, nothing stable to cache under
+            return PricePlan.compile(foodItem, currency);
+        }
+
+        PricePlan plan = pricePlans.get(foodItem.getId());
+        if (plan != null && plan.matches(foodItem, currency)) {
+            return plan;
+        }
+
+        plan = PricePlan.compile(foodItem, currency);
+        if (pricePlans.size() >= maxPricePlans) {
+            evictOne();
+        }
+        pricePlans.put(foodItem.getId(), plan);
+        return plan;
+    }
+
+    /**
+     * Drops the cached plan of a food item (after it was updated or deleted).
+     *
+     * @param foodItemId The food item ID
+     */
+    public void invalidate(Long foodItemId) {
+        if (foodItemId != null) {
+            pricePlans.remove(foodItemId);
+        }
+    }
+
+    private void evictOne() {
+        Iterator<Long> it = pricePlans.keySet().iterator();
+        if (it.hasNext()) {
+            it.next();
+            it.remove();
+        }
+    }
+
+    /**
+     * Validates the selection and calculates the unit price in one pass.
+     *
+     * @param foodItem The base food item
+     * @param selectedAdditions List of addition names
+     * @return The unit price (base price + all additions)
+     * @throws IllegalArgumentException if an addition is not available
+     */
+    public Money calculateUnitPrice(FoodItem foodItem, List<String> selectedAdditions) {
+        return getPricePlan(foodItem).priceOf(selectedAdditions);
+    }
+
     /**
      * Creates a decorated food item component with the selected additions.
      * 
@@ -44,8 +130,8 @@ public class PriceCalculationService {
             return decorated;
         }
 
-        // Apply each selected addition as a decorator
-        for (String additionName : selectedAdditions) {
+        // Apply each selected addition as a decorator (a selection is a set, as in the price plan)
+        for (String additionName : new LinkedHashSet<>(selectedAdditions)) {
             if (additionName == null || additionName.trim().isEmpty()) {
                 continue; // Skip empty additions
             }
@@ -73,8 +159,7 @@ public class PriceCalculationService {
      * @return The total price (base price + all additions)
      */
     public Double calculatePrice(FoodItem foodItem, List<String> selectedAdditions) {
-        FoodItemComponent decorated = createDecoratedFoodItem(foodItem, selectedAdditions);
-        return decorated.getPrice();
+        return calculateUnitPrice(foodItem, selectedAdditions).toDouble();
     }
 
     /**
@@ -100,23 +185,7 @@ public class PriceCalculationService {
         if (foodItem == null || selectedAdditions == null || selectedAdditions.isEmpty()) {
             return true; // Empty list is valid
         }
-
-        Map<String, Double> availableAdditions = foodItem.getAvailableAdditions();
-        if (availableAdditions == null || availableAdditions.isEmpty()) {
-            return selectedAdditions.isEmpty(); // No additions available, so none should be selected
-        }
-
-        // Check if all selected additions exist in available additions
-        for (String addition : selectedAdditions) {
-            if (addition == null || addition.trim().isEmpty()) {
-                continue;
-            }
-            if (!availableAdditions.containsKey(addition)) {
-                return false;
-            }
-        }
-
-        return true;
+        return getPricePlan(foodItem).isValid(selectedAdditions);
     }
 }
 
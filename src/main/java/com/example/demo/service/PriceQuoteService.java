@@ -0,0 +1,196 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.CreateOrderRequest;
+import com.example.demo.entity.FoodItem;
+import com.example.demo.pricing.PriceQuote;
+import com.example.demo.repository.FoodItemRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Prices food item selections for cart previews without going back to the
+ * database for combinations that were quoted before.
+ *
+ * Quotes are cached in a bounded LRU map keyed by food item ID, item version
+ * and the canonical (order-insensitive) addition selection. The latest known
+ * version of each item is kept separately; when an update or delete of the
+ * item commits, that version is dropped so old quotes can no longer be
+ * reached and age out of the LRU.
+ *
+ * A quote computed from an item loaded before an invalidation must not
+ * register its version afterwards. Registering checks the invalidation count
+ * and sets the version in one {@code compute} on the item's entry, and
+ * invalidating bumps the count and drops the version in another, so one of
+ * the two always sees the other.
+ */
+@Service
+public class PriceQuoteService {
+
+    private record QuoteKey(Long foodItemId, Long version, List<String> additions) {
+    }
+
+    private final FoodItemRepository foodItemRepository;
+    private final PriceCalculationService priceCalculationService;
+    private final int cacheSize;
+
+    // foodItemId -> version the cached quotes were computed for
+    private final ConcurrentHashMap<Long, Long> currentVersions = new ConcurrentHashMap<>();
+
+    // Quotes, least recently used evicted first
+    private final Map<QuoteKey, PriceQuote> quotes;
+
+    // Bumped on every invalidation; a load that raced with one is not cached
+    private final AtomicLong invalidations = new AtomicLong();
+
+    public PriceQuoteService(FoodItemRepository foodItemRepository,
+            PriceCalculationService priceCalculationService,
+            @Value("${pricing.quote-cache.max-size:100000}") int cacheSize) {
+        this.foodItemRepository = foodItemRepository;
+        this.priceCalculationService = priceCalculationService;
+        this.cacheSize = cacheSize;
+        this.quotes = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<QuoteKey, PriceQuote> eldest) {
+                return size() > PriceQuoteService.this.cacheSize;
+            }
+        };
+    }
+
+    /**
+     * Quotes the unit price of one food item with the selected additions.
+     *
+     * @throws IllegalArgumentException if the food item does not exist or an
+     *                                  addition is not available
+     */
+    public PriceQuote quote(Long foodItemId, List<String> selectedAdditions) {
+        List<String> additions = PriceQuote.canonicalAdditions(selectedAdditions);
+        PriceQuote cached = getCached(foodItemId, additions);
+        if (cached != null) {
+            return cached;
+        }
+
+        long generation = invalidations.get();
+        FoodItem foodItem = foodItemRepository.findById(foodItemId)
+                .orElseThrow(() -> new IllegalArgumentException("Food item not found with id: " + foodItemId));
+        return compute(foodItem, additions, generation);
+    }
+
+    /**
+     * Quotes every line of a cart. Food items without a cached quote are
+     * loaded together in one query.
+     *
+     * @param lines The cart lines, in order
+     * @return One quote per line, in the same order
+     * @throws IllegalArgumentException if a food item does not exist or an
+     *                                  addition is not available
+     */
+    public List<PriceQuote> quoteAll(List<CreateOrderRequest.OrderItemRequest> lines) {
+        List<PriceQuote> result = new ArrayList<>(lines.size());
+        List<List<String>> canonical = new ArrayList<>(lines.size());
+        Set<Long> missing = new LinkedHashSet<>();
+
+        for (CreateOrderRequest.OrderItemRequest line : lines) {
+            if (line.getFoodItemId() == null) {
+                throw new IllegalArgumentException("Food item ID is required");
+            }
+            List<String> additions = PriceQuote.canonicalAdditions(line.getSelectedAdditions());
+            PriceQuote cached = getCached(line.getFoodItemId(), additions);
+            canonical.add(additions);
+            result.add(cached);
+            if (cached == null) {
+                missing.add(line.getFoodItemId());
+            }
+        }
+        if (missing.isEmpty()) {
+            return result;
+        }
+
+        long generation = invalidations.get();
+        Map<Long, FoodItem> loaded = new HashMap<>();
+        for (FoodItem foodItem : foodItemRepository.findAllById(missing)) {
+            loaded.put(foodItem.getId(), foodItem);
+        }
+        for (int i = 0; i < result.size(); i++) {
+            if (result.get(i) != null) {
+                continue;
+            }
+            Long foodItemId = lines.get(i).getFoodItemId();
+            FoodItem foodItem = loaded.get(foodItemId);
+            if (foodItem == null) {
+                throw new IllegalArgumentException("Food item not found with id: " + foodItemId);
+            }
+            result.set(i, compute(foodItem, canonical.get(i), generation));
+        }
+        return result;
+    }
+
+    /**
+     * Drops the quotes of a food item once the current transaction commits
+     * (immediately when there is none). Call from every write to the item.
+     *
+     * @param foodItemId The food item ID
+     */
+    public void invalidateAfterCommit(Long foodItemId) {
+        if (foodItemId == null) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    invalidate(foodItemId);
+                }
+            });
+        } else {
+            invalidate(foodItemId);
+        }
+    }
+
+    private void invalidate(Long foodItemId) {
+        currentVersions.compute(foodItemId, (id, version) -> {
+            invalidations.incrementAndGet();
+            return null;
+        });
+    }
+
+    private PriceQuote getCached(Long foodItemId, List<String> additions) {
+        Long version = currentVersions.get(foodItemId);
+        if (version == null) {
+            return null;
+        }
+        synchronized (quotes) {
+            return quotes.get(new QuoteKey(foodItemId, version, additions));
+        }
+    }
+
+    private PriceQuote compute(FoodItem foodItem, List<String> additions, long generation) {
+        PriceQuote quote = new PriceQuote(foodItem.getId(), foodItem.getVersion(), additions,
+                priceCalculationService.getPricePlan(foodItem).priceOf(additions));
+
+        if (foodItem.getVersion() != null) {
+            currentVersions.compute(foodItem.getId(), (id, version) -> {
+                if (invalidations.get() != generation) {
+                    // The item may have changed since it was loaded
+                    return version;
+                }
+                synchronized (quotes) {
+                    quotes.put(new QuoteKey(id, foodItem.getVersion(), additions), quote);
+                }
+                return foodItem.getVersion();
+            });
+        }
+        return quote;
+    }
+}
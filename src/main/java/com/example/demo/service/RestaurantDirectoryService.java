@@ -0,0 +1,347 @@
+package com.example.demo.service;
+
+import com.example.demo.audit.AuditLogger;
+import com.example.demo.dto.RestaurantSummary;
+import com.example.demo.entity.Restaurant;
+import com.example.demo.geo.GeoGridIndex;
+import com.example.demo.geo.RestaurantLocationChangedEvent;
+import com.example.demo.pagination.Cursor;
+import com.example.demo.pagination.CursorPage;
+import com.example.demo.rating.RestaurantRatingChangedEvent;
+import com.example.demo.repository.RestaurantRepository;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Browsable list of restaurants for customers, served in keyset pages ordered
+ * by id as {@link RestaurantSummary} projections.
+ *
+ * Pages are cut from an immutable in-memory snapshot of every restaurant's
+ * summary, so a page costs a binary search and a sublist and does not touch
+ * the database. The snapshot is loaded on first use, once however many
+ * requests arrive meanwhile, and reloaded in the background once it is older than {@code restaurant.directory.ttl}; the old
+ * one keeps being served meanwhile. A restaurant registering or being rated
+ * replaces just that restaurant's entry after the change commits: changed
+ * entries are collected and merged into the snapshot together every
+ * {@code restaurant.directory.refresh-interval}, so a burst of ratings costs
+ * one copy of the snapshot rather than one per rating.
+ *
+ * Loads and entry refreshes are numbered. Refreshes newer than the installed
+ * full load are kept and applied again on top of a full load that started
+ * before them, so no refresh is lost to a slow reload or the first load.
+ */
+@Service
+public class RestaurantDirectoryService {
+
+    private final AuditLogger audit = AuditLogger.getInstance();
+
+    private final RestaurantRepository restaurantRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate readOnlyTransaction;
+    private final TaskExecutor taskExecutor;
+    private final long ttlNanos;
+    private final int loadBatchSize;
+
+    private final AtomicLong loadSequence = new AtomicLong();
+    private final AtomicBoolean refreshing = new AtomicBoolean();
+    private final AtomicReference<CompletableFuture<Snapshot>> firstLoad = new AtomicReference<>();
+    private final Object installLock = new Object();
+    private volatile Snapshot snapshot;
+    // Entry refreshes not yet covered by a full load; guarded by installLock
+    private final SortedMap<Long, Refresh> refreshes = new TreeMap<>();
+    // Entry refreshes not yet merged into the snapshot; guarded by installLock
+    private SortedMap<Long, Refresh> pending = new TreeMap<>();
+
+    public RestaurantDirectoryService(RestaurantRepository restaurantRepository,
+            ApplicationEventPublisher eventPublisher, PlatformTransactionManager transactionManager,
+            @Qualifier("applicationTaskExecutor") TaskExecutor taskExecutor,
+            @Value("${restaurant.directory.ttl:5m}") Duration ttl,
+            @Value("${restaurant.directory.load-batch-size:1000}") int loadBatchSize) {
+        this.restaurantRepository = restaurantRepository;
+        this.eventPublisher = eventPublisher;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.taskExecutor = taskExecutor;
+        this.ttlNanos = ttl.toNanos();
+        this.loadBatchSize = loadBatchSize;
+    }
+
+    // Current summary of one restaurant, null if it no longer exists
+    private record Refresh(long sequence, RestaurantSummary summary) {
+    }
+
+    /**
+     * Restaurant summaries sorted by id, with the id of each entry in a
+     * parallel array for binary search. Never modified once built.
+     */
+    private static final class Snapshot {
+        final List<RestaurantSummary> restaurants;
+        final long[] ids;
+        final long loadedAt;
+        final long sequence;
+
+        // Takes ownership of restaurants, which nobody may modify afterwards
+        Snapshot(List<RestaurantSummary> restaurants, long loadedAt, long sequence) {
+            this.restaurants = Collections.unmodifiableList(restaurants);
+            this.ids = new long[restaurants.size()];
+            for (int i = 0; i < ids.length; i++) {
+                ids[i] = restaurants.get(i).getId();
+            }
+            this.loadedAt = loadedAt;
+            this.sequence = sequence;
+        }
+
+        // Position of the first restaurant with an id greater than afterId
+        int indexAfter(long afterId) {
+            int i = Arrays.binarySearch(ids, afterId);
+            return i >= 0 ? i + 1 : -i - 1;
+        }
+
+        // Copy with the refreshed restaurants replaced, added or removed, in one merge pass
+        Snapshot with(SortedMap<Long, Refresh> changes) {
+            List<RestaurantSummary> merged = new ArrayList<>(restaurants.size() + changes.size());
+            Iterator<Map.Entry<Long, Refresh>> it = changes.entrySet().iterator();
+            Map.Entry<Long, Refresh> change = it.hasNext() ? it.next() : null;
+            for (RestaurantSummary restaurant : restaurants) {
+                while (change != null && change.getKey() < restaurant.getId()) {
+                    addIfPresent(merged, change.getValue());
+                    change = it.hasNext() ? it.next() : null;
+                }
+                if (change != null && change.getKey().equals(restaurant.getId())) {
+                    addIfPresent(merged, change.getValue());
+                    change = it.hasNext() ? it.next() : null;
+                } else {
+                    merged.add(restaurant);
+                }
+            }
+            while (change != null) {
+                addIfPresent(merged, change.getValue());
+                change = it.hasNext() ? it.next() : null;
+            }
+            return new Snapshot(merged, loadedAt, sequence);
+        }
+
+        private static void addIfPresent(List<RestaurantSummary> merged, Refresh refresh) {
+            if (refresh.summary() != null) {
+                merged.add(refresh.summary());
+            }
+        }
+    }
+
+    /**
+     * @param cursor Opaque cursor from the previous page, null for the first page
+     * @param limit  Requested page size, clamped to {@link CursorPage#MAX_LIMIT}
+     * @throws IllegalArgumentException if the cursor is invalid
+     */
+    public CursorPage<RestaurantSummary> getRestaurants(String cursor, Integer limit) {
+        Cursor from = Cursor.decode(cursor);
+        int pageSize = CursorPage.limit(limit);
+        Snapshot current = current();
+        int start = current.indexAfter(from != null ? from.getId() : 0L);
+        int end = Math.min(current.restaurants.size(), start + pageSize + 1);
+        return CursorPage.of(current.restaurants.subList(start, end), pageSize,
+                restaurant -> Cursor.ofId(restaurant.getId()));
+    }
+
+    public long countRestaurants() {
+        return current().restaurants.size();
+    }
+
+    /**
+     * Sets where a restaurant is, for nearby search.
+     *
+     * @throws IllegalArgumentException if the restaurant does not exist or the coordinates are invalid
+     */
+    @Transactional
+    public void updateLocation(Long restaurantId, Double latitude, Double longitude) {
+        GeoGridIndex.checkCoordinates(latitude, longitude);
+        Restaurant restaurant = restaurantRepository.findById(restaurantId)
+                .orElseThrow(() -> new IllegalArgumentException("Restaurant not found"));
+        restaurant.setLatitude(latitude);
+        restaurant.setLongitude(longitude);
+        eventPublisher.publishEvent(new RestaurantLocationChangedEvent(restaurantId));
+    }
+
+    /**
+     * Replaces the entry of a newly registered restaurant. Runs on the task
+     * executor once the change is committed.
+     */
+    @Async
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onRestaurantRegistered(RestaurantRegisteredEvent event) {
+        refresh(event.getRestaurantId());
+    }
+
+    /**
+     * Replaces the entry of a restaurant whose average rating changed.
+     */
+    @Async
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onRatingChanged(RestaurantRatingChangedEvent event) {
+        refresh(event.getRestaurantId());
+    }
+
+    private Snapshot current() {
+        Snapshot current = snapshot;
+        if (current == null) {
+            return loadFirst();
+        }
+        if (System.nanoTime() - current.loadedAt > ttlNanos && refreshing.compareAndSet(false, true)) {
+            try {
+                taskExecutor.execute(() -> {
+                    try {
+                        reload();
+                    } catch (RuntimeException e) {
+                        audit.warn("restaurant.directory.reload_failed", "error", e.getMessage());
+                    } finally {
+                        refreshing.set(false);
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                // Keep serving the old snapshot; the next request tries again
+                refreshing.set(false);
+            }
+        }
+        return current;
+    }
+
+    // First use: one caller loads, the others wait for its result
+    private Snapshot loadFirst() {
+        CompletableFuture<Snapshot> future = new CompletableFuture<>();
+        CompletableFuture<Snapshot> existing = firstLoad.compareAndExchange(null, future);
+        if (existing != null) {
+            try {
+                return existing.join();
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof RuntimeException cause ? cause : e;
+            }
+        }
+        try {
+            // Another caller's load may have finished since this one found no snapshot
+            Snapshot loaded = snapshot != null ? snapshot : reload();
+            future.complete(loaded);
+            return loaded;
+        } catch (RuntimeException e) {
+            future.completeExceptionally(e);
+            throw e;
+        } finally {
+            firstLoad.compareAndSet(future, null);
+        }
+    }
+
+    // Returns the snapshot installed afterwards
+    private Snapshot reload() {
+        long sequence = loadSequence.incrementAndGet();
+        long loadedAt = System.nanoTime();
+        List<RestaurantSummary> restaurants = readOnlyTransaction.execute(status -> {
+            List<RestaurantSummary> all = new ArrayList<>();
+            long afterId = 0L;
+            while (true) {
+                List<RestaurantSummary> batch = restaurantRepository.findSummaryPageAfter(afterId,
+                        Limit.of(loadBatchSize));
+                all.addAll(batch);
+                if (batch.size() < loadBatchSize) {
+                    return all;
+                }
+                afterId = batch.get(batch.size() - 1).getId();
+            }
+        });
+        Snapshot installed = install(new Snapshot(restaurants, loadedAt, sequence));
+        audit.info("restaurant.directory.reloaded", "restaurants", restaurants.size(),
+                "durationMs", Duration.ofNanos(System.nanoTime() - loadedAt).toMillis());
+        return installed;
+    }
+
+    /**
+     * Merges the entries refreshed since the last run into the snapshot.
+     */
+    @Scheduled(fixedDelayString = "${restaurant.directory.refresh-interval:1s}")
+    public void applyRefreshes() {
+        Snapshot base;
+        SortedMap<Long, Refresh> batch;
+        synchronized (installLock) {
+            if (snapshot == null || pending.isEmpty()) {
+                return;
+            }
+            base = snapshot;
+            batch = pending;
+            pending = new TreeMap<>();
+        }
+
+        // Copy outside the lock so refreshes and page reads are not held up
+        Snapshot merged = base.with(batch);
+        synchronized (installLock) {
+            // Otherwise a full load was installed meanwhile and already applied the batch
+            if (snapshot == base) {
+                snapshot = merged;
+            }
+        }
+    }
+
+    private void refresh(Long restaurantId) {
+        if (restaurantId == null) {
+            return;
+        }
+        try {
+            long sequence = loadSequence.incrementAndGet();
+            RestaurantSummary summary = readOnlyTransaction.execute(
+                    status -> restaurantRepository.findSummaryById(restaurantId).orElse(null));
+            synchronized (installLock) {
+                Refresh previous = refreshes.get(restaurantId);
+                Snapshot current = snapshot;
+                if ((current != null && sequence < current.sequence)
+                        || (previous != null && previous.sequence() > sequence)) {
+                    // A newer load or refresh already has this restaurant
+                    return;
+                }
+                Refresh refresh = new Refresh(sequence, summary);
+                refreshes.put(restaurantId, refresh);
+                pending.put(restaurantId, refresh);
+            }
+        } catch (RuntimeException e) {
+            audit.warn("restaurant.directory.refresh_failed", "restaurantId", restaurantId,
+                    "error", e.getMessage());
+        }
+    }
+
+    // A load that started before the installed one never replaces it
+    private Snapshot install(Snapshot loaded) {
+        synchronized (installLock) {
+            Snapshot current = snapshot;
+            if (current != null && loaded.sequence <= current.sequence) {
+                return current;
+            }
+            refreshes.values().removeIf(refresh -> refresh.sequence() < loaded.sequence);
+            snapshot = refreshes.isEmpty() ? loaded : loaded.with(refreshes);
+            pending = new TreeMap<>();
+            return snapshot;
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.example.demo.service;
+
+/**
+ * Published as a Spring application event when a restaurant account is
+ * created.
+ */
+public class RestaurantRegisteredEvent {
+
+    private final Long restaurantId;
+
+    public RestaurantRegisteredEvent(Long restaurantId) {
+        this.restaurantId = restaurantId;
+    }
+
+    public Long getRestaurantId() {
+        return restaurantId;
+    }
+}
@@ -1,18 +1,21 @@
 package com.example.demo.service;
 
+import com.example.demo.dto.AuthResponse;
+import com.example.demo.dto.CategoryTreeNode;
 import com.example.demo.dto.DashboardData;
+import com.example.demo.dto.OrderSummary;
+import com.example.demo.dto.RegisterRequest;
+import com.example.demo.dto.RestaurantSummary;
 import com.example.demo.entity.User;
-import com.example.demo.entity.Restaurant;
-import com.example.demo.entity.Order;
-import com.example.demo.entity.Category;
 import com.example.demo.enums.OrderStatus;
+import com.example.demo.pagination.CursorPage;
 import com.example.demo.repository.UserRepository;
-import com.example.demo.repository.OrderRepository;
 import com.example.demo.repository.RestaurantRepository;
-import com.example.demo.repository.CategoryRepository;
 import com.example.demo.util.PasswordUtil;
 import com.example.demo.auth.JwtTokenUtil;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.HashMap;
 import java.util.List;
@@ -21,37 +24,48 @@ import java.util.Map;
 @Service
 public class RestaurantService extends AuthenticationService {
 
-        private final OrderRepository orderRepository;
+        // Dashboards show the first page; the rest is fetched with the returned cursor
+        private static final int DASHBOARD_PAGE_SIZE = 20;
+
+        private final OrderHistoryService orderHistoryService;
         private final RestaurantRepository restaurantRepository;
-        private final CategoryRepository categoryRepository;
+        private final CategoryService categoryService;
+        private final ApplicationEventPublisher eventPublisher;
 
         public RestaurantService(UserRepository userRepository, PasswordUtil passwordUtil,
-                        JwtTokenUtil jwtTokenUtil, OrderRepository orderRepository,
-                        RestaurantRepository restaurantRepository, CategoryRepository categoryRepository) {
+                        JwtTokenUtil jwtTokenUtil, OrderHistoryService orderHistoryService,
+                        RestaurantRepository restaurantRepository, CategoryService categoryService,
+                        ApplicationEventPublisher eventPublisher) {
                 super(userRepository, passwordUtil, jwtTokenUtil);
-                this.orderRepository = orderRepository;
+                this.orderHistoryService = orderHistoryService;
                 this.restaurantRepository = restaurantRepository;
-                this.categoryRepository = categoryRepository;
+                this.categoryService = categoryService;
+                this.eventPublisher = eventPublisher;
+        }
+
+        @Override
+        public AuthResponse register(RegisterRequest request) {
+                AuthResponse response = super.register(request);
+                // Lets the cached restaurant directory pick up the new restaurant
+                eventPublisher.publishEvent(new RestaurantRegisteredEvent(response.getUserId()));
+                return response;
         }
 
         @Override
+        @Transactional(readOnly = true)
         public DashboardData getDashboardData(Long userId) {
-                // First fetch restaurant with categories (without food items to avoid
-                // MultipleBagFetchException)
-                Restaurant restaurant = restaurantRepository.findByIdWithCategories(userId)
+                RestaurantSummary restaurant = restaurantRepository.findSummaryById(userId)
                                 .orElseThrow(() -> new IllegalArgumentException("Restaurant not found"));
 
-                // Then fetch categories with their food items separately
-                List<Category> categoriesWithFoodItems = categoryRepository.findByRestaurantIdWithFoodItems(userId);
-
-                // Replace the categories in restaurant with the ones that have food items
-                // loaded
-                restaurant.setCategories(categoriesWithFoodItems);
+                // Whole menu tree (subcategories and food items) in one query
+                List<CategoryTreeNode> categories = categoryService.getCategoryTree(userId);
 
-                // Get incoming orders (not delivered or cancelled)
-                List<Order> incomingOrders = orderRepository.findByRestaurantIdAndStatus(
+                // Oldest incoming orders first, so the queue is worked in arrival order
+                CursorPage<OrderSummary> incomingOrders = orderHistoryService.getRestaurantOrders(
                                 userId,
-                                OrderStatus.PLACED);
+                                OrderStatus.PLACED,
+                                null,
+                                DASHBOARD_PAGE_SIZE);
 
                 Map<String, Object> data = new HashMap<>();
                 data.put("restaurantId", userId);
@@ -59,32 +73,29 @@ public class RestaurantService extends AuthenticationService {
                 data.put("description", restaurant.getDescription());
                 data.put("avgRating", restaurant.getAvgRating());
                 data.put("deliveryTimeEst", restaurant.getDeliveryTimeEst());
-                data.put("incomingOrders", incomingOrders);
-                data.put("totalIncomingOrders", incomingOrders.size());
+                data.put("incomingOrders", incomingOrders.getItems());
+                data.put("incomingOrdersNextCursor", incomingOrders.getNextCursor());
+                data.put("totalIncomingOrders",
+                                orderHistoryService.countRestaurantOrders(userId, OrderStatus.PLACED));
 
                 // Return nested menu structure: categories with their food items
-                data.put("categories", restaurant.getCategories());
-                data.put("menu", restaurant.getCategories()); // Categories contain food items
+                data.put("categories", categories);
+                data.put("menu", categories); // Categories contain food items
 
                 return new DashboardData(data);
         }
 
         @Override
+        @Transactional(readOnly = true)
         public DashboardData getUserData(Long userId) {
                 User user = userRepository.findById(userId)
                                 .orElseThrow(() -> new IllegalArgumentException("User not found"));
 
-                // First fetch restaurant with categories (without food items to avoid
-                // MultipleBagFetchException)
-                Restaurant restaurant = restaurantRepository.findByIdWithCategories(userId)
+                RestaurantSummary restaurant = restaurantRepository.findSummaryById(userId)
                                 .orElseThrow(() -> new IllegalArgumentException("Restaurant not found"));
 
-                // Then fetch categories with their food items separately
-                List<Category> categoriesWithFoodItems = categoryRepository.findByRestaurantIdWithFoodItems(userId);
-
-                // Replace the categories in restaurant with the ones that have food items
-                // loaded
-                restaurant.setCategories(categoriesWithFoodItems);
+                // Whole menu tree (subcategories and food items) in one query
+                List<CategoryTreeNode> categories = categoryService.getCategoryTree(userId);
 
                 Map<String, Object> data = new HashMap<>();
                 data.put("id", user.getId());
@@ -96,8 +107,8 @@ public class RestaurantService extends AuthenticationService {
                 data.put("avgRating", restaurant.getAvgRating());
                 data.put("deliveryTimeEst", restaurant.getDeliveryTimeEst());
                 // Return nested menu structure: categories with their food items
-                data.put("categories", restaurant.getCategories());
-                data.put("menu", restaurant.getCategories()); // Categories contain food items
+                data.put("categories", categories);
+                data.put("menu", categories); // Categories contain food items
 
                 return new DashboardData(data);
         }
@@ -1,7 +1,10 @@
 package com.example.demo.singleton;
 
+import com.example.demo.audit.AuditLogger;
+
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * Singleton Pattern Implementation for Configuration Manager
@@ -14,6 +17,9 @@ public class ConfigurationManager {
     // Private static instance - the single instance of this class
     private static volatile ConfigurationManager instance;
 
+    // Taken only until the configuration has been loaded once
+    private static final ReentrantLock INSTANCE_LOCK = new ReentrantLock();
+
     // Configuration storage
     private Map<String, String> configMap;
 
@@ -35,12 +41,15 @@ public class ConfigurationManager {
     public static ConfigurationManager getInstance() {
         // First check (no locking)
         if (instance == null) {
-            // Synchronize only when instance is null
-            synchronized (ConfigurationManager.class) {
+            // Lock only when instance is null
+            INSTANCE_LOCK.lock();
+            try {
                 // Second check (with locking)
                 if (instance == null) {
                     instance = new ConfigurationManager();
                 }
+            } finally {
+                INSTANCE_LOCK.unlock();
             }
         }
         return instance;
@@ -58,7 +67,7 @@ public class ConfigurationManager {
         configMap.put("jwt.secret", System.getProperty("jwt.secret", "default-secret-key"));
         configMap.put("jwt.expiration", System.getProperty("jwt.expiration", "18000")); // 5 hours in seconds
 
-        System.out.println("Configuration loaded successfully");
+        AuditLogger.getInstance().info("config.loaded", "keys", configMap.size());
     }
 
     /**
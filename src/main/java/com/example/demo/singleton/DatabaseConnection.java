@@ -1,9 +1,12 @@
 package com.example.demo.singleton;
 
+import com.example.demo.audit.AuditLogger;
+
 import java.sql.Connection;
 import java.sql.DriverManager;
 import java.sql.SQLException;
 import java.util.Properties;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * Singleton Pattern Implementation for Database Connection Pool
@@ -17,6 +20,9 @@ public class DatabaseConnection {
     // Private static instance - the single instance of this class
     private static volatile DatabaseConnection instance;
 
+    // Held while the first caller opens the JDBC connection, which can wait on the network
+    private static final ReentrantLock INSTANCE_LOCK = new ReentrantLock();
+
     // Connection pool properties
     private Connection connection;
     private String url;
@@ -48,12 +54,15 @@ public class DatabaseConnection {
     public static DatabaseConnection getInstance() {
         // First check (no locking)
         if (instance == null) {
-            // Synchronize only when instance is null
-            synchronized (DatabaseConnection.class) {
+            // Lock only when instance is null
+            INSTANCE_LOCK.lock();
+            try {
                 // Second check (with locking)
                 if (instance == null) {
                     instance = new DatabaseConnection();
                 }
+            } finally {
+                INSTANCE_LOCK.unlock();
             }
         }
         return instance;
@@ -70,9 +79,9 @@ public class DatabaseConnection {
 
             // Create initial connection
             connection = DriverManager.getConnection(url, props);
-            System.out.println("Database connection initialized successfully");
+            AuditLogger.getInstance().info("db.connection_initialized", "url", url);
         } catch (SQLException e) {
-            System.err.println("Failed to initialize database connection: " + e.getMessage());
+            AuditLogger.getInstance().error("db.connection_failed", "sqlState", e.getSQLState());
             throw new RuntimeException("Database connection initialization failed", e);
         }
     }
@@ -112,10 +121,10 @@ public class DatabaseConnection {
         try {
             if (connection != null && !connection.isClosed()) {
                 connection.close();
-                System.out.println("Database connection closed");
+                AuditLogger.getInstance().info("db.connection_closed");
             }
         } catch (SQLException e) {
-            System.err.println("Error closing database connection: " + e.getMessage());
+            AuditLogger.getInstance().error("db.connection_close_failed", "sqlState", e.getSQLState());
         }
     }
 
@@ -0,0 +1,52 @@
+-- One-time migration for existing databases when addition selections move from
+-- jsonb name lists on order_items to slot bitmasks.
+-- Every addition name a food item offers, or that a stored order item selected,
+-- gets a stable slot (0..63) in food_items.addition_slots; order items then
+-- store the bitmask of their selected slots in addition_mask.
+-- Run once before starting the new version. Fails if a food item has more than
+-- 64 distinct addition names.
+
+ALTER TABLE food_items ADD COLUMN IF NOT EXISTS addition_slots JSONB;
+ALTER TABLE order_items ADD COLUMN IF NOT EXISTS addition_mask BIGINT NOT NULL DEFAULT 0;
+
+CREATE TEMP TABLE addition_slot_names AS
+SELECT food_item_id, name,
+       ROW_NUMBER() OVER (PARTITION BY food_item_id ORDER BY name) - 1 AS slot
+FROM (
+    SELECT f.id AS food_item_id, a.name
+    FROM food_items f, jsonb_object_keys(COALESCE(f.available_additions, '{}'::jsonb)) AS a(name)
+    UNION
+    SELECT oi.food_item_id, a.name
+    FROM order_items oi, jsonb_array_elements_text(COALESCE(oi.selected_additions, '[]'::jsonb)) AS a(name)
+    WHERE oi.food_item_id IS NOT NULL
+) names;
+
+DO $$
+BEGIN
+    IF EXISTS (SELECT 1 FROM addition_slot_names WHERE slot >= 64) THEN
+        RAISE EXCEPTION 'Some food items have more than 64 distinct addition names';
+    END IF;
+END $$;
+
+UPDATE food_items f
+SET addition_slots = s.slots
+FROM (
+    SELECT food_item_id, jsonb_object_agg(name, slot) AS slots
+    FROM addition_slot_names
+    GROUP BY food_item_id
+) s
+WHERE f.id = s.food_item_id;
+
+UPDATE food_items SET addition_slots = '{}'::jsonb WHERE addition_slots IS NULL;
+
+UPDATE order_items oi
+SET addition_mask = COALESCE((
+    SELECT bit_or(1::bigint << (f.addition_slots ->> a.name)::int)
+    FROM food_items f, jsonb_array_elements_text(oi.selected_additions) AS a(name)
+    WHERE f.id = oi.food_item_id
+), 0)
+WHERE oi.selected_additions IS NOT NULL;
+
+ALTER TABLE order_items DROP COLUMN IF EXISTS selected_additions;
+
+DROP TABLE addition_slot_names;
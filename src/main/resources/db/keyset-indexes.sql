@@ -0,0 +1,17 @@
+-- Indexes backing keyset pagination of order history and catalog listings.
+-- ddl-auto=update only creates indexes on new tables, so run this once on
+-- databases created by an earlier version. CONCURRENTLY avoids locking the
+-- tables against writes; run each statement outside a transaction block.
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_orders_customer_created
+    ON orders (user_id, created_at, id);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_orders_restaurant_status_created
+    ON orders (restaurant_id, status, created_at, id);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_orders_delivery_status_created
+    ON orders (delivery_id, status, created_at, id);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_orders_status_created
+    ON orders (status, created_at, id);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_food_items_category_id
+    ON food_items (category_id, id);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_categories_restaurant
+    ON categories (restaurant_id);
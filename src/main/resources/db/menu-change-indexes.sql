@@ -0,0 +1,8 @@
+-- Index backing menu change log compaction: deleteSuperseded looks for a newer
+-- entry of the same category / food item, one index probe per entry.
+-- ddl-auto=update only creates indexes on new tables, so run this once on
+-- databases created by an earlier version. CONCURRENTLY avoids locking the
+-- table against writes; run the statement outside a transaction block.
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_menu_changes_entity_version
+    ON menu_changes (restaurant_id, entity_type, entity_id, version);
@@ -0,0 +1,26 @@
+-- One-time migration for existing databases when order amounts move from
+-- floating-point columns to exact minor units (cents) plus a currency code.
+-- ddl-auto=update adds the new columns but never drops or fills them; run this
+-- once after the first start of the new version, before taking new orders.
+-- Assumes every existing order was priced in USD (pricing.currency).
+
+ALTER TABLE orders ADD COLUMN IF NOT EXISTS total_price_minor BIGINT;
+ALTER TABLE orders ADD COLUMN IF NOT EXISTS shipping_price_minor BIGINT;
+ALTER TABLE orders ADD COLUMN IF NOT EXISTS currency VARCHAR(3);
+ALTER TABLE order_items ADD COLUMN IF NOT EXISTS calculated_price_minor BIGINT;
+ALTER TABLE order_items ADD COLUMN IF NOT EXISTS currency VARCHAR(3);
+
+UPDATE orders
+SET total_price_minor = ROUND(total_price::numeric * 100),
+    shipping_price_minor = ROUND(shipping_price::numeric * 100),
+    currency = 'USD'
+WHERE total_price_minor IS NULL;
+
+UPDATE order_items
+SET calculated_price_minor = ROUND(calculated_price::numeric * 100),
+    currency = 'USD'
+WHERE calculated_price_minor IS NULL;
+
+ALTER TABLE orders DROP COLUMN IF EXISTS total_price;
+ALTER TABLE orders DROP COLUMN IF EXISTS shipping_price;
+ALTER TABLE order_items DROP COLUMN IF EXISTS calculated_price;
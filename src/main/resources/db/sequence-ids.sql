@@ -0,0 +1,20 @@
+-- One-time migration for existing databases when switching entity IDs from
+-- IDENTITY columns to pooled sequences (allocationSize = 50).
+-- Creates the sequences and moves each one past the current MAX(id) so newly
+-- allocated ID blocks never collide with rows inserted under IDENTITY.
+-- Run once before starting the application on a database created by an
+-- earlier version.
+
+CREATE SEQUENCE IF NOT EXISTS users_seq INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS addresses_seq INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS categories_seq INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS food_items_seq INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS orders_seq INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS order_items_seq INCREMENT BY 50;
+
+SELECT setval('users_seq', COALESCE((SELECT MAX(id) FROM users), 0) + 50);
+SELECT setval('addresses_seq', COALESCE((SELECT MAX(id) FROM addresses), 0) + 50);
+SELECT setval('categories_seq', COALESCE((SELECT MAX(id) FROM categories), 0) + 50);
+SELECT setval('food_items_seq', COALESCE((SELECT MAX(id) FROM food_items), 0) + 50);
+SELECT setval('orders_seq', COALESCE((SELECT MAX(id) FROM orders), 0) + 50);
+SELECT setval('order_items_seq', COALESCE((SELECT MAX(id) FROM order_items), 0) + 50);
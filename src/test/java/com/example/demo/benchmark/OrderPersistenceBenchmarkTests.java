@@ -0,0 +1,161 @@
+package com.example.demo.benchmark;
+
+import com.example.demo.builder.OrderBuilder;
+import com.example.demo.entity.*;
+import com.example.demo.enums.UserRole;
+import com.example.demo.factory.UserFactory;
+import com.example.demo.pricing.Money;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Currency;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Compares persisting a 20-item order with one INSERT per row (JDBC batch size
+ * 1, the behaviour under IDENTITY ids) against sequence ids with statement
+ * batching. Needs the configured database; run with
+ * {@code ./gradlew persistenceBenchmark}. All writes are rolled back.
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class OrderPersistenceBenchmarkTests {
+
+    private static final int ITEMS_PER_ORDER = 20;
+    private static final int WARMUP_ORDERS = 20;
+    private static final int MEASURED_ORDERS = 200;
+    private static final Currency USD = Currency.getInstance("USD");
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void batchedInsertsNeedFewerStatements() {
+        Result perRow = run(1);
+        Result batched = run(50);
+
+        System.out.printf("per-row : %.1f statements/order, %.3f ms/order%n", perRow.statementsPerOrder, perRow.millisPerOrder);
+        System.out.printf("batched : %.1f statements/order, %.3f ms/order%n", batched.statementsPerOrder, batched.millisPerOrder);
+
+        assertTrue(batched.statementsPerOrder < perRow.statementsPerOrder);
+    }
+
+    private Result run(int batchSize) {
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        return tx.execute(status -> {
+            status.setRollbackOnly();
+            entityManager.unwrap(Session.class).setJdbcBatchSize(batchSize);
+            Fixture fixture = createFixture();
+
+            for (int i = 0; i < WARMUP_ORDERS; i++) {
+                persistOrder(fixture);
+            }
+
+            statistics.clear();
+            long start = System.nanoTime();
+            for (int i = 0; i < MEASURED_ORDERS; i++) {
+                persistOrder(fixture);
+            }
+            long elapsed = System.nanoTime() - start;
+
+            return new Result(
+                    (double) statistics.getPrepareStatementCount() / MEASURED_ORDERS,
+                    elapsed / 1_000_000.0 / MEASURED_ORDERS);
+        });
+    }
+
+    private void persistOrder(Fixture fixture) {
+        List<OrderItem> items = new ArrayList<>(ITEMS_PER_ORDER);
+        FoodItem foodItem = entityManager.getReference(FoodItem.class, fixture.foodItemId);
+        for (int i = 0; i < ITEMS_PER_ORDER; i++) {
+            items.add(new OrderItem(foodItem, 0L, 1, Money.ofMajor(10.0, USD)));
+        }
+
+        Order order = new OrderBuilder()
+                .forCustomer(entityManager.getReference(User.class, fixture.customerId))
+                .fromRestaurant(entityManager.getReference(Restaurant.class, fixture.restaurantId))
+                .toAddress(entityManager.getReference(Address.class, fixture.addressId))
+                .withItems(items)
+                .build();
+
+        entityManager.persist(order);
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    private Fixture createFixture() {
+        String suffix = UUID.randomUUID().toString();
+
+        Restaurant restaurant = (Restaurant) UserFactory.createUser(
+                UserRole.RESTAURANT, "bench-restaurant-" + suffix + "@example.com", "x", "Bench Restaurant");
+        entityManager.persist(restaurant);
+
+        User customer = UserFactory.createUser(
+                UserRole.CUSTOMER, "bench-customer-" + suffix + "@example.com", "x", "Bench Customer");
+        Address address = new Address("1", "Bench City", null);
+        customer.addAddress(address);
+        entityManager.persist(customer);
+
+        Category category = new Category("Bench");
+        category.setRestaurant(restaurant);
+        entityManager.persist(category);
+
+        FoodItem foodItem = new FoodItem();
+        foodItem.setName("Bench Burger");
+        foodItem.setBasePrice(10.0);
+        foodItem.setCategory(category);
+        foodItem.setAvailableAdditions(Map.of());
+        entityManager.persist(foodItem);
+
+        entityManager.flush();
+        entityManager.clear();
+        return new Fixture(restaurant.getId(), customer.getId(), address.getId(), foodItem.getId());
+    }
+
+    private static final class Fixture {
+        final Long restaurantId;
+        final Long customerId;
+        final Long addressId;
+        final Long foodItemId;
+
+        Fixture(Long restaurantId, Long customerId, Long addressId, Long foodItemId) {
+            this.restaurantId = restaurantId;
+            this.customerId = customerId;
+            this.addressId = addressId;
+            this.foodItemId = foodItemId;
+        }
+    }
+
+    private static final class Result {
+        final double statementsPerOrder;
+        final double millisPerOrder;
+
+        Result(double statementsPerOrder, double millisPerOrder) {
+            this.statementsPerOrder = statementsPerOrder;
+            this.millisPerOrder = millisPerOrder;
+        }
+    }
+}
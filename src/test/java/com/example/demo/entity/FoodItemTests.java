@@ -0,0 +1,82 @@
+package com.example.demo.entity;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Addition slot assignment: slots stay stable while referenced and are only
+ * reclaimed from names retired by an earlier change.
+ */
+class FoodItemTests {
+
+    @Test
+    void slotsAreStableAcrossChanges() {
+        FoodItem foodItem = new FoodItem();
+        foodItem.setAvailableAdditions(additions("Cheese", "Bacon"));
+        foodItem.setAvailableAdditions(additions("Bacon", "Egg"));
+
+        assertEquals(Map.of("Cheese", 0, "Bacon", 1, "Egg", 2), foodItem.getAdditionSlots());
+        assertEquals(List.of("Cheese", "Egg"), foodItem.decodeAdditions(0b101L));
+    }
+
+    @Test
+    void fullItemReclaimsUnreferencedSlotsOfPreviouslyRetiredNames() {
+        FoodItem foodItem = itemWithAllSlotsTaken();
+        // Retire every name; their slots are kept
+        foodItem.setAvailableAdditions(Map.of(), -1L);
+        assertEquals(FoodItem.MAX_ADDITION_SLOTS, foodItem.getAdditionSlots().size());
+
+        // Stored orders still reference slot 5
+        foodItem.setAvailableAdditions(Map.of("Pickles", 0.5), 1L << 5);
+
+        assertEquals(Map.of("Pickles", 0, "Addition 5", 5), foodItem.getAdditionSlots());
+        assertEquals(List.of("Addition 5"), foodItem.decodeAdditions(1L << 5));
+    }
+
+    @Test
+    void namesRetiredByTheSameChangeKeepTheirSlots() {
+        FoodItem foodItem = itemWithAllSlotsTaken();
+
+        Map<String, Double> replaced = additions();
+        for (int i = 1; i < FoodItem.MAX_ADDITION_SLOTS; i++) {
+            replaced.put("Addition " + i, 1.0);
+        }
+        replaced.put("Pickles", 0.5);
+
+        // "Addition 0" was available until this call, so a client may still hold it
+        assertThrows(IllegalArgumentException.class, () -> foodItem.setAvailableAdditions(replaced, 0L));
+    }
+
+    @Test
+    void withoutReferencedSlotsNothingIsReclaimed() {
+        FoodItem foodItem = itemWithAllSlotsTaken();
+        foodItem.setAvailableAdditions(Map.of());
+
+        assertThrows(IllegalArgumentException.class,
+                () -> foodItem.setAvailableAdditions(Map.of("Pickles", 0.5)));
+    }
+
+    private static FoodItem itemWithAllSlotsTaken() {
+        Map<String, Double> all = additions();
+        for (int i = 0; i < FoodItem.MAX_ADDITION_SLOTS; i++) {
+            all.put("Addition " + i, 1.0);
+        }
+        FoodItem foodItem = new FoodItem();
+        foodItem.setAvailableAdditions(all);
+        return foodItem;
+    }
+
+    private static Map<String, Double> additions(String... names) {
+        Map<String, Double> additions = new LinkedHashMap<>();
+        for (String name : names) {
+            additions.put(name, 1.0);
+        }
+        return additions;
+    }
+}
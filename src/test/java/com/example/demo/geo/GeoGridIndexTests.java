@@ -0,0 +1,73 @@
+package com.example.demo.geo;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Nearest-K queries over a 0.05 degree grid (about 5.5 km cells).
+ */
+class GeoGridIndexTests {
+
+    private final GeoGridIndex index = new GeoGridIndex(0.05);
+
+    @Test
+    void findsRestaurantsInNeighbouringCells() {
+        // Cell edges at latitude 10.05 and longitude 20.05, and the antimeridian
+        index.put(1L, 1, "North", 10.0501, 20.0);
+        index.put(2L, 1, "East", 10.0, 20.0501);
+        index.put(3L, 1, "Date line", 0.0, 179.9995);
+
+        assertEquals(List.of(1L), ids(index.nearest(10.0499, 20.0, 1, 1000)));
+        assertEquals(List.of(2L), ids(index.nearest(10.0, 20.0499, 1, 1000)));
+        assertEquals(List.of(3L), ids(index.nearest(0.0, -179.9995, 1, 1000)));
+    }
+
+    @Test
+    void neverReturnsRestaurantsBeyondTheMaximumRadius() {
+        index.put(1L, 1, "One km", 45.009, 7.0);
+        index.put(2L, 1, "Five km", 45.045, 7.0);
+
+        assertEquals(List.of(1L), ids(index.nearest(45.0, 7.0, 10, 3000)));
+        assertEquals(List.of(1L, 2L), ids(index.nearest(45.0, 7.0, 10, 6000)));
+    }
+
+    @Test
+    void returnsTheNearestFirst() {
+        index.put(1L, 1, "Far", 45.03, 7.0);
+        index.put(2L, 1, "Near", 45.001, 7.0);
+        index.put(3L, 1, "Middle", 45.0, 7.02);
+        index.put(4L, 1, "Farthest", 44.9, 7.0);
+
+        List<NearbyRestaurant> nearest = index.nearest(45.0, 7.0, 3, 30_000);
+
+        assertEquals(List.of(2L, 3L, 1L), ids(nearest));
+        assertEquals(111, nearest.get(0).getDistanceMeters(), 1);
+        assertTrue(nearest.get(1).getDistanceMeters() < nearest.get(2).getDistanceMeters());
+    }
+
+    @Test
+    void movesAndRemovesRestaurantsAndIgnoresStaleUpdates() {
+        index.put(1L, 1, "Moving", 45.0, 7.0);
+        assertTrue(index.put(1L, 3, "Moving", 46.0, 8.0));
+
+        assertEquals(List.of(), ids(index.nearest(45.0, 7.0, 5, 1000)));
+        assertEquals(List.of(1L), ids(index.nearest(46.0, 8.0, 5, 1000)));
+
+        // Loaded before the move: must not bring the old location back
+        assertFalse(index.put(1L, 2, "Moving", 45.0, 7.0));
+        assertEquals(List.of(1L), ids(index.nearest(46.0, 8.0, 5, 1000)));
+
+        assertTrue(index.put(1L, 4, "Moving", null, null));
+        assertEquals(0, index.size());
+        assertEquals(List.of(), ids(index.nearest(46.0, 8.0, 5, 1000)));
+    }
+
+    private static List<Long> ids(List<NearbyRestaurant> restaurants) {
+        return restaurants.stream().map(NearbyRestaurant::getRestaurantId).toList();
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.demo.pricing;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Currency;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Decimal conversion at the edges and exact arithmetic in minor units.
+ */
+class MoneyTests {
+
+    private static final Currency USD = Currency.getInstance("USD");
+    private static final Currency JPY = Currency.getInstance("JPY");
+
+    @Test
+    void decimalAmountsRoundHalfUpToTheMinorUnit() {
+        assertEquals(10L, Money.toMinor(0.1, USD));
+        assertEquals(30L, Money.toMinor(0.1 + 0.2, USD));
+        assertEquals(1235L, Money.toMinor(12.345, USD));
+        assertEquals(1234L, Money.toMinor(12.3449, USD));
+        assertEquals(-1L, Money.toMinor(-0.005, USD));
+        assertEquals(13L, Money.toMinor(12.5, JPY));
+
+        assertEquals(12.5, Money.ofMajor(12.5, USD).toDouble(), 0.0);
+        assertEquals("12.50 USD", Money.ofMajor(12.5, USD).toString());
+    }
+
+    @Test
+    void arithmeticIsExactAndFailsOnOverflow() {
+        Money price = Money.ofMinor(1999L, USD);
+        assertEquals(Money.ofMinor(5997L, USD), price.times(3));
+        assertEquals(Money.ofMinor(2000L, USD), price.plus(Money.ofMinor(1L, USD)));
+
+        Money max = Money.ofMinor(Long.MAX_VALUE, USD);
+        assertThrows(ArithmeticException.class, () -> max.plus(Money.ofMinor(1L, USD)));
+        assertThrows(ArithmeticException.class, () -> price.times(Integer.MAX_VALUE).times(Integer.MAX_VALUE));
+        assertThrows(ArithmeticException.class, () -> Money.toMinor(1e17, USD));
+    }
+
+    @Test
+    void currenciesDoNotMix() {
+        Money dollars = Money.ofMinor(100L, USD);
+        Money yen = Money.ofMinor(100L, JPY);
+
+        assertThrows(IllegalArgumentException.class, () -> dollars.plus(yen));
+        assertThrows(IllegalArgumentException.class, () -> dollars.compareTo(yen));
+    }
+}
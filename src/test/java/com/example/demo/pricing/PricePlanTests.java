@@ -0,0 +1,89 @@
+package com.example.demo.pricing;
+
+import com.example.demo.entity.FoodItem;
+import org.junit.jupiter.api.Test;
+
+import java.util.Currency;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Encoding addition names as slot masks, decoding them back, and pricing a
+ * mask.
+ */
+class PricePlanTests {
+
+    private static final Currency USD = Currency.getInstance("USD");
+
+    @Test
+    void selectionsRoundTripThroughTheSlotMask() {
+        FoodItem burger = foodItem(8.5, "Cheese", 1.0, "Bacon", 2.25, "Egg", 0.75);
+        PricePlan plan = PricePlan.compile(burger, USD);
+
+        long mask = plan.encode(List.of("Egg", "Cheese", " ", "Egg"));
+        assertEquals(0b101L, mask);
+        assertEquals(List.of("Cheese", "Egg"), burger.decodeAdditions(mask));
+        assertEquals(0L, plan.encode(null));
+
+        assertThrows(IllegalArgumentException.class, () -> plan.encode(List.of("Cheese", "Pickles")));
+        assertFalse(plan.isValid(List.of("Pickles")));
+        assertTrue(plan.isValid(List.of("Bacon", "")));
+    }
+
+    @Test
+    void priceIsTheBasePlusEverySelectedAddition() {
+        PricePlan plan = PricePlan.compile(foodItem(8.5, "Cheese", 1.0, "Bacon", 2.25, "Egg", 0.75), USD);
+
+        assertEquals(850L, plan.price(0L));
+        assertEquals(1250L, plan.price(0b111L));
+        assertEquals(Money.ofMinor(1175L, USD), plan.priceOf(List.of("Bacon", "Cheese")));
+
+        // Slot 3 is not an addition of this item
+        assertFalse(plan.isValid(0b1000L));
+        assertThrows(IllegalArgumentException.class, () -> plan.price(0b1001L));
+    }
+
+    @Test
+    void invalidAdditionPricesAndOverflowAreRejected() {
+        PricePlan negative = PricePlan.compile(foodItem(5.0, "Cheese", -1.0), USD);
+        assertTrue(negative.isValid(0b1L));
+        assertThrows(IllegalArgumentException.class, () -> negative.price(0b1L));
+
+        PricePlan huge = PricePlan.compile(foodItem(9e16, "Gold", 9e16), USD);
+        assertEquals(9_000_000_000_000_000_000L, huge.price(0L));
+        assertThrows(ArithmeticException.class, () -> huge.price(0b1L));
+    }
+
+    @Test
+    void retiredAdditionsStillDecodeButCannotBeSelected() {
+        FoodItem burger = foodItem(8.5, "Cheese", 1.0, "Bacon", 2.25);
+        long bacon = PricePlan.compile(burger, USD).encode(List.of("Bacon"));
+
+        burger.setAvailableAdditions(Map.of("Cheese", 1.0));
+        PricePlan plan = PricePlan.compile(burger, USD);
+
+        assertEquals(List.of("Bacon"), burger.decodeAdditions(bacon));
+        assertFalse(plan.isValid(bacon));
+        assertThrows(IllegalArgumentException.class, () -> plan.encode(List.of("Bacon")));
+    }
+
+    // Additions as name, price pairs; slots are assigned in the given order
+    private static FoodItem foodItem(double basePrice, Object... additions) {
+        Map<String, Double> prices = new LinkedHashMap<>();
+        for (int i = 0; i < additions.length; i += 2) {
+            prices.put((String) additions[i], (Double) additions[i + 1]);
+        }
+        FoodItem foodItem = new FoodItem();
+        foodItem.setId(1L);
+        foodItem.setName("Burger");
+        foodItem.setBasePrice(basePrice);
+        foodItem.setAvailableAdditions(prices);
+        return foodItem;
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.demo.ratelimit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Window arithmetic of the limiter, driven with explicit timestamps: 4 permits
+ * per second.
+ */
+class SlidingWindowRateLimiterTests {
+
+    private static final long T0 = 1_000_000L;
+
+    private SlidingWindowRateLimiter limiter;
+
+    @BeforeEach
+    void setUp() {
+        limiter = new SlidingWindowRateLimiter(4, Duration.ofSeconds(1));
+    }
+
+    @Test
+    void previousWindowCountsByItsRemainingOverlap() {
+        for (int i = 0; i < 4; i++) {
+            assertTrue(limiter.tryAcquire(1L, T0));
+        }
+        assertFalse(limiter.tryAcquire(1L, T0 + 999));
+
+        // Half of the previous window still overlaps: 4 * 0.5 = 2 permits are in use
+        assertTrue(limiter.tryAcquire(1L, T0 + 1500));
+        assertTrue(limiter.tryAcquire(1L, T0 + 1500));
+        assertFalse(limiter.tryAcquire(1L, T0 + 1500));
+
+        // Two windows later nothing overlaps any more
+        for (int i = 0; i < 4; i++) {
+            assertTrue(limiter.tryAcquire(1L, T0 + 3100));
+        }
+    }
+
+    @Test
+    void releaseAfterRollReturnsThePermitToThePreviousWindow() {
+        assertTrue(limiter.tryAcquire(1L, T0));
+        for (int i = 0; i < 3; i++) {
+            assertTrue(limiter.tryAcquire(1L, T0 + 900));
+        }
+        // The permit taken at T0 + 900 now sits in the previous window
+        limiter.release(1L, T0 + 1010);
+
+        // 3 * 0.99 of the previous window still counts; without the release 4 * 0.99 would leave room for one
+        assertTrue(limiter.tryAcquire(1L, T0 + 1010));
+        assertTrue(limiter.tryAcquire(1L, T0 + 1010));
+        assertFalse(limiter.tryAcquire(1L, T0 + 1010));
+    }
+
+    @Test
+    void releaseInTheSameWindowFreesOnePermit() {
+        for (int i = 0; i < 4; i++) {
+            assertTrue(limiter.tryAcquire(1L, T0));
+        }
+        limiter.release(1L, T0 + 10);
+
+        assertTrue(limiter.tryAcquire(1L, T0 + 10));
+        assertFalse(limiter.tryAcquire(1L, T0 + 10));
+    }
+
+    @Test
+    void keysIdleForTwoWindowsAreEvicted() {
+        for (int i = 0; i < 4; i++) {
+            assertTrue(limiter.tryAcquire(1L, T0));
+        }
+        assertTrue(limiter.tryAcquire(2L, T0 + 2500));
+
+        limiter.evictIdle(T0 + 2500);
+
+        assertEquals(1, limiter.getTrackedKeyCount());
+        assertTrue(limiter.tryAcquire(1L, T0 + 2500));
+        assertEquals(2, limiter.getTrackedKeyCount());
+    }
+}
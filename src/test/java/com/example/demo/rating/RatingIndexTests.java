@@ -0,0 +1,69 @@
+package com.example.demo.rating;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Ordering, threshold queries and sequence checks of the in-memory rating
+ * index.
+ */
+class RatingIndexTests {
+
+    private RatingIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new RatingIndex();
+        index.put(1L, 1, "A", 4.5, 10);
+        index.put(2L, 1, "B", 4.5, 30);
+        index.put(3L, 1, "C", 4.5, 30);
+        index.put(4L, 1, "D", 3.0, 100);
+        index.put(5L, 1, "E", 4.9, 1);
+    }
+
+    @Test
+    void tiesAreOrderedByRatingCountThenId() {
+        assertEquals(List.of(5L, 2L, 3L, 1L, 4L), ids(index.best(null, 10)));
+        assertEquals(List.of(5L, 2L), ids(index.best(null, 2)));
+    }
+
+    @Test
+    void thresholdIsInclusiveAndStopsAtTheFirstLowerRating() {
+        assertEquals(List.of(5L, 2L, 3L, 1L), ids(index.best(4.5, 10)));
+        assertEquals(List.of(5L), ids(index.best(4.6, 10)));
+        assertEquals(List.of(), ids(index.best(5.0, 10)));
+    }
+
+    @Test
+    void updateMovesTheRestaurantAndRemovalDropsIt() {
+        assertTrue(index.put(4L, 2, "D", 5.0, 101));
+        assertEquals(List.of(4L, 5L), ids(index.best(null, 2)));
+
+        assertTrue(index.put(5L, 2, "E", null, 0));
+        assertEquals(4, index.size());
+        assertEquals(List.of(4L, 2L, 3L, 1L), ids(index.best(null, 10)));
+    }
+
+    @Test
+    void olderUpdateIsRejected() {
+        assertTrue(index.put(1L, 5, "A", 2.0, 11));
+
+        assertFalse(index.put(1L, 4, "A", 5.0, 12));
+        RatedRestaurant last = index.best(null, 10).get(4);
+        assertEquals(Long.valueOf(1L), last.getRestaurantId());
+        assertEquals(2.0, last.getAvgRating(), 0.0);
+
+        // The same sequence is not older: a batch may set several restaurants
+        assertTrue(index.put(1L, 5, "A", 2.5, 12));
+    }
+
+    private static List<Long> ids(List<RatedRestaurant> restaurants) {
+        return restaurants.stream().map(RatedRestaurant::getRestaurantId).toList();
+    }
+}
@@ -0,0 +1,132 @@
+package com.example.demo.rating;
+
+import com.example.demo.entity.Order;
+import com.example.demo.entity.Restaurant;
+import com.example.demo.entity.User;
+import com.example.demo.enums.OrderStatus;
+import com.example.demo.enums.UserRole;
+import com.example.demo.factory.UserFactory;
+import com.example.demo.repository.RestaurantRepository;
+import com.example.demo.repository.RestaurantRepository.RestaurantRatingRow;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Feedback submission and the SQL that keeps the restaurant rating aggregate.
+ * Invalid input must fail with IllegalArgumentException (400) and feedback the
+ * order cannot take with IllegalStateException (409). Needs the configured
+ * database; all writes are rolled back.
+ */
+@SpringBootTest
+@Transactional
+class RestaurantRatingTests {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private RestaurantRatingService ratingService;
+
+    @Autowired
+    private RestaurantRepository restaurantRepository;
+
+    @Test
+    void feedbackIsCountedOncePerDeliveredOrder() {
+        Restaurant restaurant = createRestaurant();
+        Order first = createOrder(restaurant, OrderStatus.DELIVERED);
+        Order second = createOrder(restaurant, OrderStatus.DELIVERED);
+        entityManager.flush();
+
+        assertEquals(restaurant.getId(), ratingService.submitFeedback(first.getId(), 5, "Great"));
+        assertEquals(restaurant.getId(), ratingService.submitFeedback(second.getId(), 2, null));
+        assertThrows(IllegalStateException.class, () -> ratingService.submitFeedback(first.getId(), 1, null));
+
+        RestaurantRatingRow rating = rating(restaurant);
+        assertEquals(Long.valueOf(2), rating.getRatingCount());
+        assertEquals(3.5, rating.getAvgRating(), 1e-9);
+    }
+
+    @Test
+    void feedbackTheOrderCannotTakeIsAConflictAndBadInputIsRejected() {
+        Restaurant restaurant = createRestaurant();
+        Order cooking = createOrder(restaurant, OrderStatus.COOKING);
+        Order delivered = createOrder(restaurant, OrderStatus.DELIVERED);
+        entityManager.flush();
+
+        assertThrows(IllegalStateException.class, () -> ratingService.submitFeedback(cooking.getId(), 4, null));
+        assertThrows(IllegalArgumentException.class, () -> ratingService.submitFeedback(delivered.getId(), 0, null));
+        assertThrows(IllegalArgumentException.class, () -> ratingService.submitFeedback(delivered.getId(), 6, null));
+        assertThrows(IllegalArgumentException.class, () -> ratingService.submitFeedback(-1L, 4, null));
+
+        assertEquals(Long.valueOf(0), rating(restaurant).getRatingCount());
+        assertNull(rating(restaurant).getAvgRating());
+    }
+
+    @Test
+    void addRatingKeepsARunningAverage() {
+        Restaurant restaurant = createRestaurant();
+        entityManager.flush();
+
+        assertEquals(Long.valueOf(1), restaurantRepository.addRating(restaurant.getId(), 4));
+        assertEquals(Long.valueOf(2), restaurantRepository.addRating(restaurant.getId(), 1));
+        assertEquals(Long.valueOf(3), restaurantRepository.addRating(restaurant.getId(), 5));
+
+        assertEquals(10.0 / 3, rating(restaurant).getAvgRating(), 1e-9);
+    }
+
+    @Test
+    void reconcileRatingsFixesOnlyDriftedAggregates() {
+        Restaurant drifted = createRestaurant();
+        Restaurant accurate = createRestaurant();
+        createOrder(drifted, OrderStatus.DELIVERED).setFeedbackStars(3);
+        createOrder(accurate, OrderStatus.DELIVERED).setFeedbackStars(4);
+        entityManager.flush();
+        // Only the second restaurant's feedback went through addRating
+        restaurantRepository.addRating(accurate.getId(), 4);
+
+        List<Long> restaurantIds = List.of(drifted.getId(), accurate.getId());
+        assertEquals(List.of(drifted.getId()), restaurantRepository.reconcileRatings(restaurantIds));
+        assertEquals(List.of(), restaurantRepository.reconcileRatings(restaurantIds));
+
+        RestaurantRatingRow rating = rating(drifted);
+        assertEquals(Long.valueOf(1), rating.getRatingCount());
+        assertEquals(3.0, rating.getAvgRating(), 1e-9);
+    }
+
+    private RestaurantRatingRow rating(Restaurant restaurant) {
+        return restaurantRepository.findRatingById(restaurant.getId()).orElseThrow();
+    }
+
+    private Restaurant createRestaurant() {
+        Restaurant restaurant = (Restaurant) UserFactory.createUser(UserRole.RESTAURANT,
+                "rating-" + UUID.randomUUID() + "@example.com", "x", "Rated Restaurant");
+        entityManager.persist(restaurant);
+        return restaurant;
+    }
+
+    private Order createOrder(Restaurant restaurant, OrderStatus status) {
+        User customer = UserFactory.createUser(UserRole.CUSTOMER,
+                "rating-" + UUID.randomUUID() + "@example.com", "x", "Customer");
+        entityManager.persist(customer);
+
+        Order order = new Order();
+        order.setCustomer(customer);
+        order.setRestaurant(restaurant);
+        order.setStatus(status);
+        order.setCreatedAt(LocalDateTime.now());
+        entityManager.persist(order);
+        return order;
+    }
+}
@@ -0,0 +1,89 @@
+package com.example.demo.search;
+
+import com.example.demo.search.SearchIndex.DocumentType;
+import com.example.demo.search.SearchIndex.FoodItemDocument;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Matching and ranking of the in-memory catalog index, over one restaurant
+ * with a handful of food items.
+ */
+class SearchIndexTests {
+
+    private SearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new SearchIndex();
+        index.replaceRestaurant(1L, 1, "Burger Palace", List.of(
+                new FoodItemDocument(10L, "Burger", List.of()),
+                new FoodItemDocument(11L, "Cheeseburger", List.of()),
+                new FoodItemDocument(12L, "Burgers Deluxe", List.of()),
+                new FoodItemDocument(13L, "Fries", List.of("Burger sauce"))));
+    }
+
+    @Test
+    void termsAreLowerCasedWithoutAccentsOrPunctuation() {
+        assertEquals(List.of("creme", "brulee", "x2"), SearchIndex.terms("  Cr\u00e8me Br\u00fbl\u00e9e, x2!"));
+        assertEquals(List.of(), SearchIndex.terms(" -- "));
+        assertEquals(List.of(), SearchIndex.terms(null));
+    }
+
+    @Test
+    void prefixMatchesRankAboveInfixMatches() {
+        // Equal prefix matches rank the shorter name first; the addition match ranks last
+        assertEquals(List.of(10L, 12L, 11L, 13L), ids(index.search("burg", DocumentType.FOOD_ITEM, 10)));
+
+        // Too short for the trigram index, so only prefixes match
+        assertEquals(List.of(10L, 12L, 13L), ids(index.search("bu", DocumentType.FOOD_ITEM, 10)));
+        assertEquals(List.of(11L), ids(index.search("eeseburg", null, 10)));
+    }
+
+    @Test
+    void hitsRankByMatchQualityThenFieldAndEveryTermHasToMatch() {
+        List<SearchHit> hits = index.search("Burger", null, 10);
+
+        assertEquals(List.of(10L, 1L, 12L, 13L, 11L), ids(hits));
+        assertEquals(DocumentType.RESTAURANT, hits.get(1).getType());
+        assertEquals(List.of(10L, 1L), ids(index.search("burger", null, 2)));
+
+        assertEquals(List.of(13L), ids(index.search("fries burger", null, 10)));
+        assertEquals(List.of(), ids(index.search("burger pizza", null, 10)));
+    }
+
+    @Test
+    void replacingARestaurantRemovesItsMissingDocuments() {
+        assertTrue(index.replaceRestaurant(1L, 2, "Burger Palace",
+                List.of(new FoodItemDocument(10L, "Veggie Burger", List.of()))));
+
+        assertEquals(2, index.size());
+        assertEquals(List.of(), ids(index.search("cheese", null, 10)));
+        assertEquals("Veggie Burger", index.search("veggie", null, 10).get(0).getName());
+
+        // The restaurant is gone
+        assertTrue(index.replaceRestaurant(1L, 3, null, List.of()));
+        assertEquals(0, index.size());
+        assertEquals(List.of(), ids(index.search("burger", null, 10)));
+    }
+
+    @Test
+    void olderReplacementIsIgnored() {
+        assertTrue(index.replaceRestaurant(1L, 5, "Pizza Place", List.of()));
+
+        assertFalse(index.replaceRestaurant(1L, 4, "Burger Palace",
+                List.of(new FoodItemDocument(10L, "Burger", List.of()))));
+        assertEquals(1, index.size());
+        assertEquals(List.of(1L), ids(index.search("pizza", DocumentType.RESTAURANT, 10)));
+    }
+
+    private static List<Long> ids(List<SearchHit> hits) {
+        return hits.stream().map(SearchHit::getId).toList();
+    }
+}
@@ -0,0 +1,105 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.CategoryTreeNode;
+import com.example.demo.entity.Category;
+import com.example.demo.entity.FoodItem;
+import com.example.demo.entity.Restaurant;
+import com.example.demo.enums.UserRole;
+import com.example.demo.factory.UserFactory;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * The category tree must load with one SQL statement however deep or wide it
+ * is. Needs the configured database; all writes are rolled back.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Transactional
+class CategoryTreeQueryTests {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private CategoryService categoryService;
+
+    @Test
+    void treeLoadsWithOneStatementRegardlessOfShape() {
+        Restaurant shallow = createRestaurant();
+        createTree(shallow, null, 1, 2, 1);
+
+        Restaurant deep = createRestaurant();
+        createTree(deep, null, 4, 3, 2);
+
+        entityManager.flush();
+        entityManager.clear();
+
+        assertEquals(1, statementsFor(shallow.getId(), 2, 2));
+        assertEquals(1, statementsFor(deep.getId(), 3, 3 * 2 + 9 * 2 + 27 * 2 + 81 * 2));
+    }
+
+    private long statementsFor(Long restaurantId, int expectedRoots, int expectedFoodItems) {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        List<CategoryTreeNode> roots = categoryService.getCategoryTree(restaurantId);
+
+        long statements = statistics.getPrepareStatementCount();
+        assertEquals(expectedRoots, roots.size());
+        assertEquals(expectedFoodItems, countFoodItems(roots));
+        return statements;
+    }
+
+    private int countFoodItems(List<CategoryTreeNode> nodes) {
+        int count = 0;
+        for (CategoryTreeNode node : nodes) {
+            count += node.getFoodItems().size() + countFoodItems(node.getSubCategories());
+        }
+        return count;
+    }
+
+    private Restaurant createRestaurant() {
+        Restaurant restaurant = (Restaurant) UserFactory.createUser(UserRole.RESTAURANT,
+                "tree-" + UUID.randomUUID() + "@example.com", "x", "Tree Restaurant");
+        entityManager.persist(restaurant);
+        return restaurant;
+    }
+
+    // depth levels below parent, each category with `breadth` children and `items` food items
+    private void createTree(Restaurant restaurant, Category parent, int depth, int breadth, int items) {
+        if (depth == 0) {
+            return;
+        }
+        for (int i = 0; i < breadth; i++) {
+            Category category = new Category("Category " + depth + "." + i);
+            category.setRestaurant(restaurant);
+            category.setParentCategory(parent);
+            entityManager.persist(category);
+            for (int j = 0; j < items; j++) {
+                FoodItem foodItem = new FoodItem();
+                foodItem.setName("Item " + j);
+                foodItem.setBasePrice(5.0);
+                foodItem.setCategory(category);
+                foodItem.setAvailableAdditions(Map.of("Cheese", 1.0));
+                entityManager.persist(foodItem);
+            }
+            createTree(restaurant, category, depth - 1, breadth, items);
+        }
+    }
+}
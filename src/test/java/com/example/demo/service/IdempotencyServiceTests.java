@@ -0,0 +1,96 @@
+package com.example.demo.service;
+
+import com.example.demo.repository.IdempotencyRecordRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import tools.jackson.databind.ObjectMapper;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Two application instances receiving the same Idempotency-Key at once must
+ * run the action once. Each instance is a separate service over the shared
+ * table, so only the database can stop the second one. Needs the configured
+ * database; the key is deleted afterwards.
+ */
+@SpringBootTest
+class IdempotencyServiceTests {
+
+    @Autowired
+    private IdempotencyRecordRepository recordRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void concurrentRequestsWithTheSameKeyRunTheActionOnce() throws Exception {
+        IdempotencyService first = newInstance();
+        IdempotencyService second = newInstance();
+        String key = "test-" + UUID.randomUUID();
+        Map<String, String> request = Map.of("item", "pizza");
+
+        AtomicInteger executions = new AtomicInteger();
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch finish = new CountDownLatch(1);
+        Supplier<ResponseEntity<?>> slowAction = () -> {
+            executions.incrementAndGet();
+            running.countDown();
+            try {
+                finish.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return ResponseEntity.accepted().location(URI.create("/api/orders/submissions/1"))
+                    .body(Map.of("reference", 1));
+        };
+        Supplier<ResponseEntity<?>> action = () -> {
+            executions.incrementAndGet();
+            return ResponseEntity.status(HttpStatus.CREATED).body(Map.of("orderId", 2));
+        };
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<ResponseEntity<?>> winner = executor.submit(() -> first.execute(key, request, slowAction));
+            assertTrue(running.await(10, TimeUnit.SECONDS));
+
+            ResponseEntity<?> concurrent = executor.submit(() -> second.execute(key, request, action))
+                    .get(10, TimeUnit.SECONDS);
+            finish.countDown();
+
+            assertEquals(HttpStatus.ACCEPTED, winner.get(10, TimeUnit.SECONDS).getStatusCode());
+            assertEquals(HttpStatus.CONFLICT, concurrent.getStatusCode());
+
+            // Replayed from the table, since the second instance never cached it
+            ResponseEntity<?> retry = second.execute(key, request, action);
+            assertEquals(HttpStatus.ACCEPTED, retry.getStatusCode());
+            assertEquals("true", retry.getHeaders().getFirst(IdempotencyService.REPLAYED_HEADER));
+            assertEquals(URI.create("/api/orders/submissions/1"), retry.getHeaders().getLocation());
+            assertEquals(1, executions.get());
+        } finally {
+            finish.countDown();
+            executor.shutdownNow();
+            recordRepository.deleteById(key);
+        }
+    }
+
+    private IdempotencyService newInstance() {
+        return new IdempotencyService(recordRepository, objectMapper, 100, Duration.ofMinutes(10),
+                Duration.ofHours(1), Duration.ofSeconds(5), Duration.ofMinutes(5));
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.demo.service;
+
+import com.example.demo.entity.FoodItem;
+import com.example.demo.repository.FoodItemRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Quotes computed while the item is being updated must never be served after
+ * the update's invalidation returned.
+ */
+class PriceQuoteServiceTests {
+
+    private static final int UPDATES = 2_000;
+    private static final int READERS = 4;
+
+    @Test
+    void noQuoteOlderThanTheLastInvalidationIsServed() throws Exception {
+        AtomicReference<FoodItem> stored = new AtomicReference<>(foodItem(0));
+        FoodItemRepository repository = mock(FoodItemRepository.class);
+        when(repository.findById(1L)).thenAnswer(invocation -> Optional.of(stored.get()));
+        PriceQuoteService service = new PriceQuoteService(repository, new PriceCalculationService(1000, "USD"), 1000);
+
+        // Latest version whose invalidation has returned
+        AtomicLong invalidated = new AtomicLong();
+        AtomicInteger stale = new AtomicInteger();
+        AtomicBoolean done = new AtomicBoolean();
+
+        ExecutorService executor = Executors.newFixedThreadPool(READERS);
+        List<Future<?>> readers = new ArrayList<>();
+        try {
+            for (int i = 0; i < READERS; i++) {
+                readers.add(executor.submit(() -> {
+                    while (!done.get()) {
+                        long atLeast = invalidated.get();
+                        if (service.quote(1L, List.of()).getVersion() < atLeast) {
+                            stale.incrementAndGet();
+                        }
+                    }
+                }));
+            }
+            for (long version = 1; version <= UPDATES; version++) {
+                stored.set(foodItem(version));
+                service.invalidateAfterCommit(1L);
+                invalidated.set(version);
+            }
+            done.set(true);
+            for (Future<?> reader : readers) {
+                reader.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            done.set(true);
+            executor.shutdownNow();
+        }
+
+        assertEquals(0, stale.get());
+        assertEquals(Long.valueOf(UPDATES), service.quote(1L, List.of()).getVersion());
+    }
+
+    private static FoodItem foodItem(long version) {
+        FoodItem foodItem = new FoodItem();
+        foodItem.setId(1L);
+        foodItem.setName("Pizza");
+        foodItem.setBasePrice(10.0);
+        ReflectionTestUtils.setField(foodItem, "version", version);
+        return foodItem;
+    }
+}
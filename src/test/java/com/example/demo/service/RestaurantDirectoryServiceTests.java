@@ -0,0 +1,116 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.RestaurantSummary;
+import com.example.demo.rating.RestaurantRatingChangedEvent;
+import com.example.demo.repository.RestaurantRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Entry refreshes against full reloads of the directory snapshot. Reloads run
+ * only when the test runs the queued background task, so their timing relative
+ * to refreshes is explicit.
+ */
+class RestaurantDirectoryServiceTests {
+
+    private RestaurantRepository restaurantRepository;
+    private final List<Runnable> backgroundTasks = new ArrayList<>();
+    private RestaurantDirectoryService directory;
+
+    @BeforeEach
+    void setUp() {
+        restaurantRepository = mock(RestaurantRepository.class);
+        directory = new RestaurantDirectoryService(restaurantRepository, mock(ApplicationEventPublisher.class),
+                mock(PlatformTransactionManager.class), backgroundTasks::add, Duration.ZERO, 1000);
+    }
+
+    @Test
+    void refreshesAreMergedTogetherOnTheNextRun() {
+        when(restaurantRepository.findSummaryPageAfter(eq(0L), any()))
+                .thenReturn(List.of(summary(1L, 4.0), summary(2L, 3.0)));
+        assertEquals(2, directory.countRestaurants());
+
+        when(restaurantRepository.findSummaryById(2L)).thenReturn(Optional.of(summary(2L, 5.0)));
+        when(restaurantRepository.findSummaryById(3L)).thenReturn(Optional.of(summary(3L, 1.0)));
+        directory.onRatingChanged(new RestaurantRatingChangedEvent(2L));
+        directory.onRestaurantRegistered(new RestaurantRegisteredEvent(3L));
+        assertEquals(List.of(4.0, 3.0), ratings());
+
+        directory.applyRefreshes();
+        assertEquals(List.of(4.0, 5.0, 1.0), ratings());
+    }
+
+    @Test
+    void refreshDuringASlowReloadIsAppliedOnTopOfIt() {
+        when(restaurantRepository.findSummaryById(2L)).thenReturn(Optional.of(summary(2L, 5.0)));
+        when(restaurantRepository.findSummaryPageAfter(eq(0L), any()))
+                .thenReturn(List.of(summary(1L, 4.0), summary(2L, 3.0)))
+                .thenAnswer(invocation -> {
+                    // Rated after the reload started; the reload still reads the old rating
+                    directory.onRatingChanged(new RestaurantRatingChangedEvent(2L));
+                    return List.of(summary(1L, 4.1), summary(2L, 3.0));
+                });
+        assertEquals(2, directory.countRestaurants());
+        assertEquals(List.of(4.0, 3.0), ratings());
+
+        // The expired snapshot queued a reload
+        backgroundTasks.remove(0).run();
+        assertEquals(List.of(4.1, 5.0), ratings());
+
+        // The reload already merged the refresh
+        directory.applyRefreshes();
+        assertEquals(List.of(4.1, 5.0), ratings());
+    }
+
+    @Test
+    void refreshDuringTheFirstLoadIsAppliedOnTopOfIt() {
+        when(restaurantRepository.findSummaryById(2L)).thenReturn(Optional.of(summary(2L, 5.0)));
+        when(restaurantRepository.findSummaryPageAfter(eq(0L), any())).thenAnswer(invocation -> {
+            // Rated while nothing is cached yet
+            directory.onRatingChanged(new RestaurantRatingChangedEvent(2L));
+            return List.of(summary(1L, 4.0), summary(2L, 3.0));
+        });
+
+        assertEquals(List.of(4.0, 5.0), ratings());
+    }
+
+    @Test
+    void reloadStartedAfterARefreshReplacesIt() {
+        when(restaurantRepository.findSummaryById(2L)).thenReturn(Optional.of(summary(2L, 5.0)));
+        when(restaurantRepository.findSummaryPageAfter(eq(0L), any()))
+                .thenReturn(List.of(summary(1L, 4.0), summary(2L, 3.0)))
+                .thenReturn(List.of(summary(1L, 4.0), summary(2L, 4.5)));
+        assertEquals(2, directory.countRestaurants());
+
+        directory.onRatingChanged(new RestaurantRatingChangedEvent(2L));
+        directory.getRestaurants(null, 10);
+        backgroundTasks.remove(0).run();
+        assertEquals(List.of(4.0, 4.5), ratings());
+
+        directory.applyRefreshes();
+        assertEquals(List.of(4.0, 4.5), ratings());
+    }
+
+    private List<Double> ratings() {
+        return directory.getRestaurants(null, 10).getItems().stream()
+                .map(RestaurantSummary::getAvgRating)
+                .toList();
+    }
+
+    private static RestaurantSummary summary(Long id, double avgRating) {
+        return new RestaurantSummary(id, "Restaurant " + id, null, avgRating, "30 min", 2.0);
+    }
+}